@@ -0,0 +1,153 @@
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;    // Fixed number format for the report
+
+/**
+ * Allocation check for the search hot path, over the {@link BenchmarkPositions} corpus.
+ * Run as a plain program (not JMH); it exits with status 1 if a check fails:
+ * <ul>
+ *   <li>Per node: a {@link SearchWorker} searches every root move of a position again and
+ *       again. After warm-up, those searches must allocate exactly 0 bytes, whatever the
+ *       number of nodes.</li>
+ *   <li>Per search: a whole {@link MinimaxAI#search} may only allocate its result (the
+ *       SearchResult, the SearchStats and its arrays of best moves and principal variation),
+ *       so its bytes must stay within RESULT_BYTES plus RESULT_MOVE_BYTES per listed move,
+ *       however many nodes the search visits.</li>
+ * </ul>
+ * Allocated bytes are read per thread from the JVM (com.sun.management.ThreadMXBean), and
+ * everything measured runs on the calling thread. For allocation rates under JMH, run the
+ * benchmarks with `-prof gc` (gc.alloc.rate.norm is bytes per operation).
+ *
+ * Usage: java -cp "out/main:out/bench" AllocationCheck [depth] (default 4)
+ */
+public final class AllocationCheck {
+
+    // --- Settings ---
+    /** Rounds run before measuring, so that buffers are sized and the hot code is compiled. */
+    private static final int WARMUP_ROUNDS = 10;
+    /** Rounds measured. */
+    private static final int MEASURED_ROUNDS = 5;
+    /** Most bytes of a search result, apart from its moves. */
+    private static final long RESULT_BYTES = 2048;
+    /** Most bytes per move in a result's arrays: one packed int. */
+    private static final long RESULT_MOVE_BYTES = 4;
+
+    /** Reads the bytes allocated by a thread. */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /** Not instantiable: a command-line check. */
+    private AllocationCheck() {
+    }
+
+    /**
+     * Runs both checks on every position and board size.
+     * @param args Optional search depth.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM cannot count allocated bytes per thread");
+            System.exit(2);
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        boolean passed = true;
+        String[] positions = {BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME};
+        String[] sizes = {BenchmarkPositions.SIZE_9, BenchmarkPositions.SIZE_15, BenchmarkPositions.SIZE_19};
+        for (String position : positions) {
+            for (String size : sizes) {
+                GameBoard board = BenchmarkPositions.board(position, false, Integer.parseInt(size));
+                passed &= checkNodes(position + " " + size + "x" + size, board, depth);
+                passed &= checkSearch(position + " " + size + "x" + size, board, depth);
+            }
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // --- Checks ---
+
+    /**
+     * Checks that searching root moves with a warmed-up worker allocates nothing.
+     */
+    private static boolean checkNodes(String name, GameBoard board, int depth) {
+        char mover = BenchmarkPositions.sideToMove(board);
+        TranspositionTable table = new TranspositionTable();
+        SearchWorker worker = new SearchWorker(mover, BenchmarkPositions.opponent(mover),
+                EvaluationWeights.DEFAULT.toShapeScores(), MoveGenerator.DEFAULT_RADIUS, table);
+        int[] moves = new int[board.getSize() * board.getSize()];
+        int[] line = new int[SearchWorker.maxLineLength(depth)];
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            searchRootMoves(worker, table, board, depth, moves, line);
+        }
+
+        long nodes = 0;
+        long before = allocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            nodes += searchRootMoves(worker, table, board, depth, moves, line);
+        }
+        long bytes = allocatedBytes() - before;
+        boolean passed = bytes == 0;
+        System.out.println(String.format(Locale.ROOT, "%-22s nodes:  %,12d nodes  %,10d bytes  %.4f bytes/node  %s",
+                name, nodes, bytes, (double) bytes / nodes, passed ? "ok" : "ALLOCATES"));
+        return passed;
+    }
+
+    /**
+     * One iteration of a single-threaded root search, the way MinimaxAI runs it.
+     * @return The nodes visited.
+     */
+    private static long searchRootMoves(SearchWorker worker, TranspositionTable table, GameBoard board, int depth,
+                                        int[] moves, int[] line) {
+        table.clear(); // Every round does the same work
+        worker.startSearch(board, depth);
+        int moveCount = worker.generateRootMoves(moves);
+        for (int i = 0; i < moveCount; i++) {
+            worker.searchMove(moves[i], depth, -MinimaxAI.INFINITY, MinimaxAI.INFINITY);
+            worker.rootLine(moves[i], line);
+        }
+        return worker.getNodeCount();
+    }
+
+    /**
+     * Checks that a whole warmed-up search allocates no more than its result.
+     */
+    private static boolean checkSearch(String name, GameBoard board, int depth) {
+        char mover = BenchmarkPositions.sideToMove(board);
+        MinimaxAI ai = new MinimaxAI(depth, mover, BenchmarkPositions.opponent(mover));
+        ai.setThreatSearch(false); // The search itself, as in SearchBenchmark
+        SearchLimits limits = SearchLimits.depth(depth);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            ai.getTranspositionTable().clear();
+            ai.search(board, limits);
+        }
+
+        long nodes = 0;
+        long bytes = 0;
+        long allowed = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            ai.getTranspositionTable().clear();
+            long before = allocatedBytes();
+            SearchResult result = ai.search(board, limits);
+            bytes += allocatedBytes() - before;
+            nodes += result.getStats().getNodes();
+            allowed += RESULT_BYTES
+                    + RESULT_MOVE_BYTES * (result.getBestMoveCount() + result.getPrincipalVariationLength());
+        }
+        boolean passed = bytes <= allowed;
+        System.out.println(String.format(Locale.ROOT, "%-22s search: %,12d nodes  %,10d bytes per search (result allows %,d)  %s",
+                name, nodes / MEASURED_ROUNDS, bytes / MEASURED_ROUNDS, allowed / MEASURED_ROUNDS,
+                passed ? "ok" : "ALLOCATES"));
+        return passed;
+    }
+
+    /**
+     * Gets the bytes allocated so far by the calling thread.
+     */
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,238 @@
+
+import java.util.Arrays;    // Sorting move sets for comparison
+import java.util.Random;    // Seeded random positions
+
+/**
+ * Correctness check of the search against plain alpha-beta. Principal variation search,
+ * aspiration windows, the transposition table and move ordering only change how fast the
+ * search is, never its result. This program searches the {@link BenchmarkPositions} corpus
+ * (on 9x9, 15x15 and 19x19 boards) and seeded random positions at every depth up to the
+ * given one with {@link MinimaxAI} (the threat search off). It compares each result with a
+ * reference negamax that searches every root move with the full window, with the same
+ * evaluation, move generator and terminal scores, and no table or tricks. Run as a plain
+ * program (not JMH); it exits with status 1 if a check fails:
+ * <ul>
+ *   <li>The scores must be equal.</li>
+ *   <li>The best moves (all moves sharing the best score) must be the same, unless the
+ *       game is decided. A decided search stops at the first iteration that proves the
+ *       win or loss, so it only lists the fastest wins, where the reference lists every
+ *       move that wins within the depth.</li>
+ * </ul>
+ *
+ * Usage: java -cp "out/main:out/bench" AlphaBetaCheck [depth] [positions] (default 4 and 30)
+ */
+public final class AlphaBetaCheck {
+
+    // --- Settings ---
+    /** Seed of the random positions, so that a failure can be reproduced. */
+    private static final long SEED = 20241018L;
+    /** Board size of the random positions. */
+    private static final int RANDOM_SIZE = 9;
+    /** Random stones are placed within this many cells of the centre, so they interact. */
+    private static final int RANDOM_SPREAD = 2;
+    /** Most stones of a random position. */
+    private static final int MAX_STONES = 14;
+
+    /** Not instantiable: a command-line check. */
+    private AlphaBetaCheck() {
+    }
+
+    /**
+     * Compares the search with the reference on every position and depth.
+     * @param args Optional deepest depth and number of random positions.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int randomPositions = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+
+        boolean passed = true;
+        String[] positions = {BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME};
+        String[] sizes = {BenchmarkPositions.SIZE_9, BenchmarkPositions.SIZE_15, BenchmarkPositions.SIZE_19};
+        for (String position : positions) {
+            for (String size : sizes) {
+                GameBoard board = BenchmarkPositions.board(position, false, Integer.parseInt(size));
+                passed &= check(position + " " + size + "x" + size, board, depth, true);
+            }
+        }
+        Random random = new Random(SEED);
+        int differing = 0;
+        for (int i = 0; i < randomPositions; i++) {
+            if (!check("random " + i, randomBoard(random), depth, false)) {
+                differing++;
+            }
+        }
+        System.out.println(String.format("%-22s %d of %d positions differ  %s",
+                "random " + RANDOM_SIZE + "x" + RANDOM_SIZE, differing, randomPositions, differing == 0 ? "ok" : "DIFFERS"));
+        passed &= differing == 0;
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // --- Checks ---
+
+    /**
+     * Compares the search with the reference on one position at every depth up to the given one.
+     * @param report true to print a line for the position even when it passes.
+     */
+    private static boolean check(String name, GameBoard board, int maxDepth, boolean report) {
+        char mover = BenchmarkPositions.sideToMove(board);
+        char opponent = BenchmarkPositions.opponent(mover);
+        int size = board.getSize();
+        boolean passed = true;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            MinimaxAI ai = new MinimaxAI(depth, mover, opponent);
+            ai.setThreatSearch(false); // The search itself: the threat search stops at the first win it finds
+            SearchResult result = ai.search(board, SearchLimits.depth(depth));
+            int[] moves = new int[result.getBestMoves().size()];
+            for (int i = 0; i < moves.length; i++) {
+                int[] move = result.getBestMoves().get(i);
+                moves[i] = move[0] * size + move[1];
+            }
+            Arrays.sort(moves);
+
+            Reference reference = new Reference(board, mover, opponent);
+            int score = reference.search(depth);
+            boolean decided = score == MinimaxAI.WIN_SCORE || score == MinimaxAI.LOSE_SCORE;
+            if (result.getScore() != score || (!decided && !Arrays.equals(moves, reference.bestMoves))) {
+                System.out.println(String.format("%-22s depth %d: score %d, best %s; alpha-beta: score %d, best %s  DIFFERS",
+                        name, depth, result.getScore(), format(moves, size), score, format(reference.bestMoves, size)));
+                passed = false;
+            } else if (report && depth == maxDepth) {
+                System.out.println(String.format("%-22s depth %d: score %d, %d best moves  ok",
+                        name, depth, score, moves.length));
+            }
+        }
+        return passed;
+    }
+
+    // --- Reference Search ---
+
+    /**
+     * Plain negamax with alpha-beta pruning, on a private copy of the position. Each root move
+     * gets its own full window, so every move's score is exact and ties are all found.
+     */
+    private static final class Reference {
+        private final BitBoard board;
+        private final PatternEvaluator evaluator;
+        private final MoveGenerator moveGenerator = new MoveGenerator(MoveGenerator.DEFAULT_RADIUS);
+        private final char aiSymbol;
+        private final char humanSymbol;
+        /** Moves sharing the best score, as sorted cells (set by search()). */
+        private int[] bestMoves = new int[0];
+
+        Reference(GameBoard position, char aiSymbol, char humanSymbol) {
+            this.board = BitBoard.copyOf(position);
+            this.aiSymbol = aiSymbol;
+            this.humanSymbol = humanSymbol;
+            this.evaluator = new PatternEvaluator(aiSymbol, humanSymbol, EvaluationWeights.DEFAULT.toShapeScores());
+            evaluator.attach(board);
+            moveGenerator.attach(board);
+        }
+
+        /**
+         * Scores every root move to the given depth.
+         * @return The best score, from the AI's point of view.
+         */
+        int search(int depth) {
+            int[] moves = new int[board.getSize() * board.getSize()];
+            int moveCount = moveGenerator.generate(moves);
+            int[] scores = new int[moveCount];
+            int bestScore = -MinimaxAI.INFINITY;
+            for (int i = 0; i < moveCount; i++) {
+                play(moves[i], aiSymbol);
+                scores[i] = -negamax(depth - 1, 1, -MinimaxAI.INFINITY, MinimaxAI.INFINITY);
+                undo(moves[i]);
+                bestScore = Math.max(bestScore, scores[i]);
+            }
+            int count = 0;
+            for (int i = 0; i < moveCount; i++) {
+                if (scores[i] == bestScore) {
+                    moves[count++] = moves[i];
+                }
+            }
+            bestMoves = Arrays.copyOf(moves, count);
+            Arrays.sort(bestMoves);
+            return bestScore;
+        }
+
+        /**
+         * Negamax: the score of the position for the side to move (the AI at even plies).
+         */
+        private int negamax(int depth, int ply, int alpha, int beta) {
+            int side = (ply & 1) == 0 ? 1 : -1;
+            char winner = board.getWinner();
+            if (winner != GameBoard.EMPTY_SLOT) {
+                return side * (winner == aiSymbol ? MinimaxAI.WIN_SCORE : MinimaxAI.LOSE_SCORE);
+            }
+            if (board.isFull()) {
+                return MinimaxAI.DRAW_SCORE;
+            }
+            if (depth == 0) {
+                // Clamped like SearchWorker's, so that only a five scores as a win
+                return side * Math.max(MinimaxAI.LOSE_SCORE + 1, Math.min(MinimaxAI.WIN_SCORE - 1, evaluator.evaluate()));
+            }
+            char mover = (ply & 1) == 0 ? aiSymbol : humanSymbol;
+            int[] moves = new int[board.getSize() * board.getSize()];
+            int moveCount = moveGenerator.generate(moves);
+            int bestScore = -MinimaxAI.INFINITY;
+            for (int i = 0; i < moveCount && alpha < beta; i++) {
+                play(moves[i], mover);
+                int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                undo(moves[i]);
+                bestScore = Math.max(bestScore, score);
+                alpha = Math.max(alpha, score);
+            }
+            return bestScore;
+        }
+
+        private void play(int cell, char symbol) {
+            int size = board.getSize();
+            board.placeSymbol(cell / size, cell % size, symbol);
+            evaluator.place(cell / size, cell % size, symbol);
+            moveGenerator.place(cell / size, cell % size);
+        }
+
+        private void undo(int cell) {
+            int size = board.getSize();
+            board.removeSymbol(cell / size, cell % size);
+            evaluator.remove(cell / size, cell % size);
+            moveGenerator.remove(cell / size, cell % size);
+        }
+    }
+
+    // --- Positions ---
+
+    /**
+     * Builds an undecided position of random stones near the centre, alternating Black and White.
+     */
+    private static GameBoard randomBoard(Random random) {
+        while (true) {
+            GameBoard board = new Board(RANDOM_SIZE, Board.WIN_LENGTH);
+            int stones = 2 + random.nextInt(MAX_STONES - 1);
+            int low = RANDOM_SIZE / 2 - RANDOM_SPREAD;
+            for (int i = 0; i < stones; i++) {
+                int r = low + random.nextInt(2 * RANDOM_SPREAD + 1);
+                int c = low + random.nextInt(2 * RANDOM_SPREAD + 1);
+                if (board.isEmpty(r, c)) {
+                    board.placeSymbol(r, c, board.getStoneCount() % 2 == 0 ? GameBoard.BLACK : GameBoard.WHITE);
+                }
+            }
+            if (board.getWinner() == GameBoard.EMPTY_SLOT) {
+                return board;
+            }
+        }
+    }
+
+    /**
+     * Formats cells as a list of `row,col` moves.
+     */
+    private static String format(int[] cells, int size) {
+        StringBuilder text = new StringBuilder("[");
+        for (int i = 0; i < cells.length; i++) {
+            text.append(i == 0 ? "" : " ").append(cells[i] / size).append(',').append(cells[i] % size);
+        }
+        return text.append(']').toString();
+    }
+}
@@ -0,0 +1,138 @@
+
+/**
+ * Fixed corpus of positions used by the benchmarks, so every run measures the same work.
+ * Each position is a 9x9 board written one string per row ('B', 'W' or '.'). None of them
+ * is already won, and neither side has a forced win by continuous fours, so the searches
+ * below really have to search. On larger boards the 9x9 position is placed in the centre,
+ * so the benchmarks show what the extra empty cells cost.
+ */
+public final class BenchmarkPositions {
+
+    /** Board sizes the benchmarks run on (JMH @Param values): the default and the common variants. */
+    public static final String SIZE_9 = "9";
+    public static final String SIZE_15 = "15";
+    public static final String SIZE_19 = "19";
+
+    /** Names accepted by board(); used as JMH @Param values. */
+    public static final String OPENING = "opening";
+    public static final String MIDDLEGAME = "middlegame";
+    public static final String ENDGAME = "endgame";
+
+    /** Opening: four stones around the centre. */
+    private static final String[] OPENING_ROWS = {
+        ".........",
+        ".........",
+        ".........",
+        "...W.....",
+        "...BB....",
+        ".....W...",
+        ".........",
+        ".........",
+        "........."
+    };
+
+    /** Middlegame: threes and blocks for both sides around the centre. */
+    private static final String[] MIDDLEGAME_ROWS = {
+        ".........",
+        "....W....",
+        "..WBB....",
+        "..BWBW...",
+        "...WBB...",
+        "....W.W..",
+        ".....B...",
+        ".........",
+        "........."
+    };
+
+    /** Endgame: forty stones, most lines already blocked. */
+    private static final String[] ENDGAME_ROWS = {
+        "..BW..W..",
+        "....W.WB.",
+        "..WBWBWB.",
+        "BB.BWB.WW",
+        "...WB.B.B",
+        "W.BBBW...",
+        "BW..WWB..",
+        "..W.W..B.",
+        "..BWWB..."
+    };
+
+    /** Not instantiable: static helpers only. */
+    private BenchmarkPositions() {
+    }
+
+    /**
+     * Builds a fresh default-size board holding the named position.
+     * @param name OPENING, MIDDLEGAME or ENDGAME.
+     * @param bitBoard true for a {@link BitBoard}, false for the array-based {@link Board}.
+     * @return The board.
+     */
+    public static GameBoard board(String name, boolean bitBoard) {
+        return board(name, bitBoard, Board.BOARD_SIZE);
+    }
+
+    /**
+     * Builds a fresh board of the given size with the named position in its centre.
+     * @param name OPENING, MIDDLEGAME or ENDGAME.
+     * @param bitBoard true for a {@link BitBoard}, false for the array-based {@link Board}.
+     * @param size The board dimension (at least 9).
+     * @return The board.
+     */
+    public static GameBoard board(String name, boolean bitBoard, int size) {
+        String[] rows = rows(name);
+        GameBoard board = bitBoard ? new BitBoard(size, Board.WIN_LENGTH) : new Board(size, Board.WIN_LENGTH);
+        int offset = (size - rows.length) / 2;
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < rows[r].length(); c++) {
+                char symbol = rows[r].charAt(c);
+                if (symbol != GameBoard.EMPTY_SLOT) {
+                    board.placeSymbol(r + offset, c + offset, symbol);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Gets the side to move in a position: Black moves first, so Black is to move when
+     * both sides have the same number of stones.
+     * @param board The position.
+     * @return BLACK or WHITE.
+     */
+    public static char sideToMove(GameBoard board) {
+        int black = 0;
+        for (int r = 0; r < board.getSize(); r++) {
+            for (int c = 0; c < board.getSize(); c++) {
+                if (board.getSymbol(r, c) == GameBoard.BLACK) {
+                    black++;
+                }
+            }
+        }
+        return black * 2 == board.getStoneCount() ? GameBoard.BLACK : GameBoard.WHITE;
+    }
+
+    /**
+     * Gets the other player's symbol.
+     * @param symbol BLACK or WHITE.
+     * @return The opponent's symbol.
+     */
+    public static char opponent(char symbol) {
+        return symbol == GameBoard.BLACK ? GameBoard.WHITE : GameBoard.BLACK;
+    }
+
+    /**
+     * Looks up the rows of a named position.
+     */
+    private static String[] rows(String name) {
+        switch (name) {
+            case OPENING:
+                return OPENING_ROWS;
+            case MIDDLEGAME:
+                return MIDDLEGAME_ROWS;
+            case ENDGAME:
+                return ENDGAME_ROWS;
+            default:
+                throw new IllegalArgumentException("Unknown benchmark position: " + name);
+        }
+    }
+}
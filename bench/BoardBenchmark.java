@@ -0,0 +1,101 @@
+
+import java.util.concurrent.TimeUnit; // Units for the reported scores
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for the board operations on the search's hot path, for both board
+ * implementations: win detection around a stone, the full-board win scan and isFull().
+ * Each call checks the next stone of the position in turn, so all lines are exercised.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    /** Position from the BenchmarkPositions corpus. */
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    /** Board size; the position sits in the centre of larger boards. */
+    @Param({BenchmarkPositions.SIZE_9, BenchmarkPositions.SIZE_15, BenchmarkPositions.SIZE_19})
+    public int size;
+
+    /** Board implementation: "Board" (2D char array) or "BitBoard" (packed bitsets). */
+    @Param({"Board", "BitBoard"})
+    public String implementation;
+
+    /** The board under test. */
+    private GameBoard board;
+    /** Row of every stone on the board. */
+    private int[] stoneRows;
+    /** Column of every stone on the board. */
+    private int[] stoneCols;
+    /** Index of the stone the next call checks. */
+    private int next;
+
+    /**
+     * Builds the board and the list of stones to check.
+     */
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(position, "BitBoard".equals(implementation), size);
+        int count = board.getStoneCount();
+        stoneRows = new int[count];
+        stoneCols = new int[count];
+        int i = 0;
+        for (int r = 0; r < board.getSize(); r++) {
+            for (int c = 0; c < board.getSize(); c++) {
+                if (!board.isEmpty(r, c)) {
+                    stoneRows[i] = r;
+                    stoneCols[i] = c;
+                    i++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Win check along the four lines through one stone.
+     * @return The result, so the call cannot be optimised away.
+     */
+    @Benchmark
+    public boolean checkWin() {
+        int i = next;
+        next = i + 1 == stoneRows.length ? 0 : i + 1;
+        int r = stoneRows[i];
+        int c = stoneCols[i];
+        return board.checkWin(r, c, board.getSymbol(r, c));
+    }
+
+    /**
+     * Full-board scan for a winning line of either colour.
+     * @return The result, so the call cannot be optimised away.
+     */
+    @Benchmark
+    public boolean hasWinningLine() {
+        return board.hasWinningLine(GameBoard.BLACK) || board.hasWinningLine(GameBoard.WHITE);
+    }
+
+    /**
+     * Draw check.
+     * @return The result, so the call cannot be optimised away.
+     */
+    @Benchmark
+    public boolean isFull() {
+        return board.isFull();
+    }
+}
@@ -0,0 +1,103 @@
+
+import java.util.concurrent.TimeUnit; // Units for the reported scores
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for the heuristic evaluation (MinimaxAI.evaluateHeuristic, which reads
+ * the PatternEvaluator's running total).
+ * <ul>
+ *   <li>fullEvaluation: scores every line of the board from scratch (what attach() does
+ *       once per search, and what the old per-leaf scoreLines scan used to cost);</li>
+ *   <li>incrementalEvaluation: the per-node cost in the search, i.e. placing a stone,
+ *       reading the score and taking the stone back.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EvaluationBenchmark {
+
+    /** Shape scores in PatternEvaluator.SHAPE_ order (the MinimaxAI defaults). */
+    private static final int[] SHAPE_SCORES = {0, 10, 50, 100, 1000, 5000, 20000, 20000};
+
+    /** Position from the BenchmarkPositions corpus. */
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    /** Board size; the position sits in the centre of larger boards. */
+    @Param({BenchmarkPositions.SIZE_9, BenchmarkPositions.SIZE_15, BenchmarkPositions.SIZE_19})
+    public int size;
+
+    /** The board being evaluated. */
+    private GameBoard board;
+    /** The evaluator under test, attached to board. */
+    private PatternEvaluator evaluator;
+    /** Side to move in the position. */
+    private char mover;
+    /** Empty cells of the position, packed as r * size + c. */
+    private int[] emptyCells;
+    /** Index of the empty cell the next incremental call plays. */
+    private int next;
+
+    /**
+     * Builds the board, attaches the evaluator and lists the empty cells.
+     */
+    @Setup
+    public void setUp() {
+        board = BenchmarkPositions.board(position, true, size);
+        mover = BenchmarkPositions.sideToMove(board);
+        evaluator = new PatternEvaluator(mover, BenchmarkPositions.opponent(mover), SHAPE_SCORES);
+        evaluator.attach(board);
+        int size = board.getSize();
+        emptyCells = new int[size * size - board.getStoneCount()];
+        int i = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            if (board.isEmpty(cell / size, cell % size)) {
+                emptyCells[i++] = cell;
+            }
+        }
+    }
+
+    /**
+     * Scores the whole board from scratch.
+     * @return The evaluation, so the call cannot be optimised away.
+     */
+    @Benchmark
+    public int fullEvaluation() {
+        evaluator.attach(board);
+        return evaluator.evaluate();
+    }
+
+    /**
+     * Places a stone, reads the evaluation and removes the stone again.
+     * @return The evaluation, so the call cannot be optimised away.
+     */
+    @Benchmark
+    public int incrementalEvaluation() {
+        int i = next;
+        next = i + 1 == emptyCells.length ? 0 : i + 1;
+        int size = board.getSize();
+        int r = emptyCells[i] / size;
+        int c = emptyCells[i] % size;
+        board.placeSymbol(r, c, mover);
+        evaluator.place(r, c, mover);
+        int score = evaluator.evaluate();
+        board.removeSymbol(r, c);
+        evaluator.remove(r, c);
+        return score;
+    }
+}
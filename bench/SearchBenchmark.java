@@ -0,0 +1,100 @@
+
+import java.util.concurrent.TimeUnit; // Units for the reported scores
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end benchmark of MinimaxAI.search at several fixed depths and board sizes.
+ * Reported twice: as time per search (average time mode) and, through the "nodes" auxiliary
+ * counter, as nodes searched per second (throughput mode). The transposition table is
+ * cleared before every search, so each one starts from the same cold state.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    /** Position from the BenchmarkPositions corpus. */
+    @Param({BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME})
+    public String position;
+
+    /** Board size; the position sits in the centre of larger boards. */
+    @Param({BenchmarkPositions.SIZE_9, BenchmarkPositions.SIZE_15, BenchmarkPositions.SIZE_19})
+    public int size;
+
+    /** Search depth in plies. */
+    @Param({"2", "3", "4"})
+    public int depth;
+
+    /** The position searched. */
+    private GameBoard board;
+    /** The AI under test (plays the side to move). */
+    private MinimaxAI ai;
+    /** Fixed-depth limits for every search. */
+    private SearchLimits limits;
+
+    /**
+     * Nodes visited, reported by JMH as an extra per-second score next to the search rate.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        /** Total nodes searched in the current iteration. */
+        public long nodes;
+
+        /**
+         * Resets the counter at the start of each iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    /**
+     * Builds the position and the AI.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        board = BenchmarkPositions.board(position, false, size);
+        char mover = BenchmarkPositions.sideToMove(board);
+        ai = new MinimaxAI(depth, mover, BenchmarkPositions.opponent(mover));
+        ai.setThreatSearch(false); // Measure the full search only
+        limits = SearchLimits.depth(depth);
+    }
+
+    /**
+     * Forgets earlier searches so every search does the same work.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        ai.getTranspositionTable().clear();
+    }
+
+    /**
+     * One complete search.
+     * @param counter Receives the node count.
+     * @return The search result, so the call cannot be optimised away.
+     */
+    @Benchmark
+    public SearchResult search(NodeCounter counter) {
+        SearchResult result = ai.search(board, limits);
+        counter.nodes += result.getStats().getNodes();
+        return result;
+    }
+}
@@ -0,0 +1,177 @@
+
+import java.util.Arrays;    // Sorting move sets for comparison
+import java.util.List;
+import java.util.Random;    // Seeded random positions
+
+/**
+ * Symmetry check for the evaluation and the search. The transposition table, the position
+ * cache and the opening book store one canonical orientation for all 8 rotations and
+ * reflections of a position (see {@link Symmetry}). That is only sound if the evaluation
+ * scores every orientation alike, so this program checks it. Run as a plain program
+ * (not JMH); it exits with status 1 if a check fails:
+ * <ul>
+ *   <li>Evaluation: seeded random positions and the {@link BenchmarkPositions} corpus, on
+ *       9x9, 15x15 and 19x19 boards, must evaluate to the same score in all 8 orientations.</li>
+ *   <li>Search: each corpus position is searched in all 8 orientations by one engine, so
+ *       that later orientations find the entries of earlier ones in the shared table. Every
+ *       search must return the score of a fresh search of the first orientation, and the same
+ *       best moves mapped back onto it.</li>
+ * </ul>
+ *
+ * Usage: java -cp "out/main:out/bench" SymmetryCheck [depth] [positions] (default 4 and 1000)
+ */
+public final class SymmetryCheck {
+
+    // --- Settings ---
+    /** Seed of the random positions, so that a failure can be reproduced. */
+    private static final long SEED = 20241017L;
+    /** Most stones of a random position. */
+    private static final int MAX_STONES = 40;
+
+    /** Not instantiable: a command-line check. */
+    private SymmetryCheck() {
+    }
+
+    /**
+     * Runs both checks.
+     * @param args Optional search depth and number of random positions per board size.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int randomPositions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        boolean passed = true;
+        String[] positions = {BenchmarkPositions.OPENING, BenchmarkPositions.MIDDLEGAME, BenchmarkPositions.ENDGAME};
+        String[] sizes = {BenchmarkPositions.SIZE_9, BenchmarkPositions.SIZE_15, BenchmarkPositions.SIZE_19};
+        Random random = new Random(SEED);
+        for (String size : sizes) {
+            int n = Integer.parseInt(size);
+            int asymmetric = 0;
+            for (int i = 0; i < randomPositions; i++) {
+                if (!evaluatesAlike(randomBoard(random, n))) {
+                    asymmetric++;
+                }
+            }
+            for (String position : positions) {
+                if (!evaluatesAlike(BenchmarkPositions.board(position, false, n))) {
+                    System.out.println(position + " " + size + "x" + size + " evaluates differently when turned");
+                    asymmetric++;
+                }
+            }
+            System.out.println(String.format("%-22s evaluation: %d of %d positions differ between orientations  %s",
+                    size + "x" + size, asymmetric, randomPositions + positions.length, asymmetric == 0 ? "ok" : "ASYMMETRIC"));
+            passed &= asymmetric == 0;
+        }
+        for (String position : positions) {
+            for (String size : sizes) {
+                GameBoard board = BenchmarkPositions.board(position, false, Integer.parseInt(size));
+                passed &= checkSearch(position + " " + size + "x" + size, board, depth);
+            }
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    // --- Checks ---
+
+    /**
+     * Checks that all orientations of a position evaluate to the same score.
+     */
+    private static boolean evaluatesAlike(GameBoard board) {
+        int[] shapeScores = EvaluationWeights.DEFAULT.toShapeScores();
+        int expected = 0;
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            PatternEvaluator evaluator = new PatternEvaluator(GameBoard.BLACK, GameBoard.WHITE, shapeScores);
+            evaluator.attach(turned(board, symmetry));
+            int score = evaluator.evaluate();
+            if (symmetry == 0) {
+                expected = score;
+            } else if (score != expected) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that searching the orientations of a position one after the other, with one
+     * shared table, gives the result of a fresh search of the position itself.
+     */
+    private static boolean checkSearch(String name, GameBoard board, int depth) {
+        char mover = BenchmarkPositions.sideToMove(board);
+        char opponent = BenchmarkPositions.opponent(mover);
+        SearchLimits limits = SearchLimits.depth(depth);
+        MinimaxAI fresh = new MinimaxAI(depth, mover, opponent);
+        fresh.setThreatSearch(false); // The search itself: the threat search stops at the first win it finds
+        SearchResult expected = fresh.search(board, limits);
+        int[] expectedMoves = bestCells(expected, 0, board.getSize());
+
+        MinimaxAI shared = new MinimaxAI(depth, mover, opponent);
+        shared.setThreatSearch(false);
+        int differing = 0;
+        for (int symmetry = 0; symmetry < Symmetry.COUNT; symmetry++) {
+            SearchResult result = shared.search(turned(board, symmetry), limits);
+            if (result.getScore() != expected.getScore()
+                    || !Arrays.equals(bestCells(result, symmetry, board.getSize()), expectedMoves)) {
+                System.out.println(String.format("%-22s symmetry %d: score %d with %d best moves, expected %d with %d",
+                        name, symmetry, result.getScore(), result.getBestMoves().size(),
+                        expected.getScore(), expectedMoves.length));
+                differing++;
+            }
+        }
+        System.out.println(String.format("%-22s search:     score %d, %d best moves, %d of %d orientations differ  %s",
+                name, expected.getScore(), expectedMoves.length, differing, Symmetry.COUNT,
+                differing == 0 ? "ok" : "ASYMMETRIC"));
+        return differing == 0;
+    }
+
+    // --- Positions ---
+
+    /**
+     * Builds a position of random stones, alternating Black and White.
+     */
+    private static GameBoard randomBoard(Random random, int size) {
+        GameBoard board = new Board(size, Board.WIN_LENGTH);
+        int stones = 1 + random.nextInt(MAX_STONES);
+        for (int i = 0; i < stones; i++) {
+            int r = random.nextInt(size);
+            int c = random.nextInt(size);
+            if (board.isEmpty(r, c)) {
+                board.placeSymbol(r, c, i % 2 == 0 ? GameBoard.BLACK : GameBoard.WHITE);
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Builds a copy of a position turned by a symmetry.
+     */
+    private static GameBoard turned(GameBoard board, int symmetry) {
+        int size = board.getSize();
+        GameBoard turned = new Board(size, board.getWinLength());
+        for (int cell = 0; cell < size * size; cell++) {
+            char symbol = board.getSymbol(cell / size, cell % size);
+            if (symbol != GameBoard.EMPTY_SLOT) {
+                int target = Symmetry.transform(symmetry, cell, size);
+                turned.placeSymbol(target / size, target % size, symbol);
+            }
+        }
+        return turned;
+    }
+
+    /**
+     * Gets a result's best moves as sorted cells, mapped back from a turned board.
+     */
+    private static int[] bestCells(SearchResult result, int symmetry, int size) {
+        List<int[]> moves = result.getBestMoves();
+        int[] cells = new int[moves.size()];
+        for (int i = 0; i < cells.length; i++) {
+            int[] move = moves.get(i);
+            cells[i] = Symmetry.transform(Symmetry.inverse(symmetry), move[0] * size + move[1], size);
+        }
+        Arrays.sort(cells);
+        return cells;
+    }
+}
@@ -0,0 +1,411 @@
+
+import java.io.PrintStream; // Display target
+import java.util.Arrays; // Used for Arrays.fill()
+
+/**
+ * Bitboard implementation of {@link GameBoard}.
+ * Black and white stones are packed into two long-word bitsets, one bit per cell.
+ * Each row is stored with one extra always-zero "padding" bit, so shifting a bitset
+ * by 1 (horizontal), stride (vertical), stride+1 (diagonal \) or stride-1 (diagonal /)
+ * never wraps a line from one row into the next. This lets whole-board line detection
+ * run as a handful of shift-and-mask operations on long words instead of per-cell calls,
+ * and allows boards of any size and win length (not just Board.BOARD_SIZE and WIN_LENGTH).
+ */
+public class BitBoard implements GameBoard {
+
+    // --- Instance Variables ---
+
+    /** The dimension of the square board. */
+    private final int size;
+    /** The number of consecutive symbols required to win. */
+    private final int winLength;
+    /** Bits per row: the board width plus one padding bit that is never set. */
+    private final int stride;
+    /** Number of long words needed to hold one bitset. */
+    private final int words;
+    /** Shift amounts for the four line directions: horizontal, vertical, diagonal \, diagonal /. */
+    private final int[] lineShifts;
+
+    /** Bitset of cells occupied by Black ('B'). */
+    private final long[] black;
+    /** Bitset of cells occupied by White ('W'). */
+    private final long[] white;
+    /** Scratch bitset reused by hasWinningLine, so line detection does not allocate. */
+    private final long[] scratch;
+
+    /** Symmetric Zobrist keys for this board size (see Zobrist.symmetricKeysFor). */
+    private final long[] symmetricKeys;
+    /**
+     * Zobrist hashes of the current position under each of the 8 symmetries, updated together
+     * as stones are placed and removed. hashes[0] is the position's own hash.
+     */
+    private final long[] hashes = new long[Symmetry.COUNT];
+    /** Number of stones on the board, so isFull() does not have to count bits. */
+    private int stoneCount;
+    /** Symbol of the player who completed a winning line, or EMPTY_SLOT if nobody has won yet. */
+    private char winner = EMPTY_SLOT;
+    /** Bit index of the stone that completed the winning line (valid only while there is a winner). */
+    private int winIndex = -1;
+
+    // --- Constructors ---
+
+    /**
+     * Creates an empty bitboard with the default Board.BOARD_SIZE dimension.
+     */
+    public BitBoard() {
+        this(Board.BOARD_SIZE);
+    }
+
+    /**
+     * Creates an empty bitboard of the given dimension, won by Board.WIN_LENGTH in a row.
+     * @param size The number of rows (and columns) of the square board.
+     */
+    public BitBoard(int size) {
+        this(size, Board.WIN_LENGTH);
+    }
+
+    /**
+     * Creates an empty bitboard of the given dimension and win length.
+     * @param size The number of rows (and columns), 1 to Board.MAX_SIZE.
+     * @param winLength The number of symbols in a row that wins (see Board.MIN_WIN_LENGTH, MAX_WIN_LENGTH).
+     * @throws IllegalArgumentException if the size or win length is not supported.
+     */
+    public BitBoard(int size, int winLength) {
+        Board.checkDimensions(size, winLength);
+        this.size = size;
+        this.winLength = winLength;
+        this.stride = size + 1; // One padding bit after every row
+        this.words = (size * stride + 63) >>> 6;
+        this.lineShifts = new int[]{1, stride, stride + 1, stride - 1};
+        this.black = new long[words];
+        this.white = new long[words];
+        this.scratch = new long[words];
+        this.symmetricKeys = Zobrist.symmetricKeysFor(size);
+    }
+
+    /**
+     * Creates a bitboard holding the same stones as the given board.
+     * Used by the AI to run its search on the packed representation.
+     * @param source The board to copy.
+     * @return A new BitBoard with identical contents.
+     */
+    public static BitBoard copyOf(GameBoard source) {
+        BitBoard copy = new BitBoard(source.getSize(), source.getWinLength());
+        copy.copyFrom(source);
+        return copy;
+    }
+
+    /**
+     * Replaces the stones on this board with those of another board of the same dimensions,
+     * without allocating (the AI reuses its search copy this way).
+     * @param source The board to copy.
+     * @throws IllegalArgumentException if the size or win length differs.
+     */
+    public void copyFrom(GameBoard source) {
+        if (source.getSize() != size || source.getWinLength() != winLength) {
+            throw new IllegalArgumentException("Cannot copy a " + source.getSize() + "x" + source.getSize()
+                    + " board onto a " + size + "x" + size + " board");
+        }
+        initialize();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                char symbol = source.getSymbol(r, c);
+                if (symbol != EMPTY_SLOT) {
+                    placeSymbol(r, c, symbol);
+                }
+            }
+        }
+    }
+
+    // --- Initialization ---
+
+    /**
+     * Removes every stone from the board.
+     */
+    public void initialize() {
+        Arrays.fill(black, 0L);
+        Arrays.fill(white, 0L);
+        Arrays.fill(hashes, 0L);
+        stoneCount = 0;
+        winner = EMPTY_SLOT;
+    }
+
+    // --- Bit Helpers ---
+
+    /**
+     * Converts board coordinates into a bit index (row-major, including the padding bit).
+     */
+    private int bitIndex(int r, int c) {
+        return r * stride + c;
+    }
+
+    /**
+     * Tests a single bit of a bitset.
+     */
+    private static boolean testBit(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Returns the bitset holding the given symbol's stones, or null for unknown symbols.
+     */
+    private long[] bitsFor(char symbol) {
+        if (symbol == BLACK) return black;
+        if (symbol == WHITE) return white;
+        return null;
+    }
+
+    // --- Display ---
+
+    @Override
+    public void display(PrintStream out) {
+        int width = Integer.toString(size - 1).length(); // Same layout as Board.display
+        // Print column headers
+        out.print(Board.padLeft("", width) + " ");
+        for (int j = 0; j < size; j++) {
+            out.print(Board.padLeft(Integer.toString(j), width) + " ");
+        }
+        out.println();
+
+        // Print rows with row numbers
+        for (int i = 0; i < size; i++) {
+            out.print(Board.padLeft(Integer.toString(i), width) + " ");
+            for (int j = 0; j < size; j++) {
+                out.print(Board.padLeft(String.valueOf(getSymbol(i, j)), width) + " ");
+            }
+            out.println();
+        }
+        out.println("--------------------");
+    }
+
+    // --- Basic Operations & Checks ---
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getWinLength() {
+        return winLength;
+    }
+
+    @Override
+    public boolean isWithinBounds(int r, int c) {
+        return r >= 0 && r < size && c >= 0 && c < size;
+    }
+
+    @Override
+    public boolean isEmpty(int r, int c) {
+        if (!isWithinBounds(r, c)) {
+            return false;
+        }
+        int index = bitIndex(r, c);
+        int w = index >>> 6;
+        // A cell is empty when neither colour has its bit set
+        return ((black[w] | white[w]) & (1L << index)) == 0;
+    }
+
+    @Override
+    public char getSymbol(int r, int c) {
+        if (!isWithinBounds(r, c)) {
+            return '\0';
+        }
+        int index = bitIndex(r, c);
+        if (testBit(black, index)) return BLACK;
+        if (testBit(white, index)) return WHITE;
+        return EMPTY_SLOT;
+    }
+
+    @Override
+    public boolean placeSymbol(int r, int c, char symbol) {
+        long[] bits = bitsFor(symbol);
+        // Only Black and White stones can be stored, and only on empty in-bounds cells
+        if (bits == null || !isEmpty(r, c)) {
+            return false;
+        }
+        int index = bitIndex(r, c);
+        bits[index >>> 6] |= 1L << index;
+        toggleStoneHashes((r * size + c) * 2 + Zobrist.colourIndex(symbol));
+        stoneCount++;
+        // Only the lines through the new stone can have become a win
+        if (winner == EMPTY_SLOT && completesLine(bits, index)) {
+            winner = symbol;
+            winIndex = index;
+        }
+        return true;
+    }
+
+    @Override
+    public void removeSymbol(int r, int c) {
+        if (isWithinBounds(r, c)) {
+            int index = bitIndex(r, c);
+            int w = index >>> 6;
+            long bit = 1L << index;
+            if (((black[w] | white[w]) & bit) == 0) {
+                return; // Nothing to remove
+            }
+            // XOR the removed stone's keys back out of the hashes
+            toggleStoneHashes((r * size + c) * 2 + ((black[w] & bit) != 0 ? 0 : 1));
+            black[w] &= ~bit;
+            white[w] &= ~bit;
+            stoneCount--;
+            // Roll back the win if this was the move that made five
+            if (winner != EMPTY_SLOT && index == winIndex) {
+                winner = EMPTY_SLOT;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return stoneCount == size * size;
+    }
+
+    @Override
+    public int getStoneCount() {
+        return stoneCount;
+    }
+
+    @Override
+    public long getHash() {
+        return hashes[0];
+    }
+
+    @Override
+    public long getSymmetricHash(int symmetry) {
+        return hashes[symmetry];
+    }
+
+    @Override
+    public int getCanonicalSymmetry() {
+        int best = 0;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            if (hashes[s] < hashes[best]) {
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * XORs one stone's keys into (or out of) all 8 symmetric hashes at once.
+     * @param key Key index of the stone: cell * 2 + colour.
+     */
+    private void toggleStoneHashes(int key) {
+        int base = key * Symmetry.COUNT;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            hashes[s] ^= symmetricKeys[base + s];
+        }
+    }
+
+    // --- Win Condition Checks ---
+
+    @Override
+    public char getWinner() {
+        return winner;
+    }
+
+    @Override
+    public boolean checkWin(int r, int c, char symbol) {
+        long[] bits = bitsFor(symbol);
+        if (bits == null || !isWithinBounds(r, c) || !testBit(bits, bitIndex(r, c))) {
+            return false;
+        }
+        return completesLine(bits, bitIndex(r, c));
+    }
+
+    @Override
+    public boolean isWinningMove(int r, int c, char symbol) {
+        long[] bits = bitsFor(symbol);
+        return bits != null && isEmpty(r, c) && completesLine(bits, bitIndex(r, c));
+    }
+
+    @Override
+    public int getLineLength(int r, int c, char symbol) {
+        long[] bits = bitsFor(symbol);
+        if (bits == null || !isWithinBounds(r, c)) {
+            return 0;
+        }
+        return lineLength(bits, bitIndex(r, c));
+    }
+
+    /**
+     * Checks whether a stone at the given bit index is (or would be) part of winLength stones in a row.
+     */
+    private boolean completesLine(long[] bits, int start) {
+        return lineLength(bits, start) >= winLength;
+    }
+
+    /**
+     * Gets the longest line through the given bit index, counting the cell itself, capped at winLength.
+     * Walks the four lines through the cell by stepping the bit index by the line shift;
+     * the padding bit stops horizontal and diagonal runs at the row edge.
+     */
+    private int lineLength(long[] bits, int start) {
+        int limit = size * stride;
+        int longest = 1;
+        for (int d = 0; d < 4; d++) {
+            int shift = lineShifts[d];
+            int count = 1;
+            for (int i = start + shift; i < limit && testBit(bits, i) && count < winLength; i += shift) {
+                count++;
+            }
+            for (int i = start - shift; i >= 0 && testBit(bits, i) && count < winLength; i -= shift) {
+                count++;
+            }
+            if (count >= winLength) {
+                return winLength;
+            }
+            longest = Math.max(longest, count);
+        }
+        return longest;
+    }
+
+    @Override
+    public boolean hasWinningLine(char symbol) {
+        long[] bits = bitsFor(symbol);
+        if (bits == null) {
+            return false;
+        }
+        // For each direction: AND the bitset with itself shifted by 1..winLength-1 steps along the line.
+        // A bit that survives marks the start of winLength stones in a row.
+        for (int d = 0; d < 4; d++) {
+            System.arraycopy(bits, 0, scratch, 0, words);
+            boolean any = true;
+            for (int k = 1; k < winLength && any; k++) {
+                // Stop early once no candidate run is left in this direction
+                any = andShiftedRight(scratch, bits, lineShifts[d] * k);
+            }
+            if (any) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes acc &= (src >>> shift) across the multi-word bitset.
+     * Bit i of the shifted value is bit (i + shift) of src; bits beyond the board read as zero.
+     * @return true if any bit of acc is still set afterwards.
+     */
+    private boolean andShiftedRight(long[] acc, long[] src, int shift) {
+        int wordShift = shift >>> 6;
+        int bitShift = shift & 63;
+        long remaining = 0L;
+        for (int i = 0; i < words; i++) {
+            int j = i + wordShift;
+            long low = j < words ? src[j] : 0L;
+            long shifted;
+            if (bitShift == 0) {
+                shifted = low;
+            } else {
+                long high = j + 1 < words ? src[j + 1] : 0L;
+                shifted = (low >>> bitShift) | (high << (64 - bitShift));
+            }
+            acc[i] &= shifted;
+            remaining |= acc[i];
+        }
+        return remaining != 0;
+    }
+}
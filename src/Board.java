@@ -1,5 +1,6 @@
 
 
+import java.io.PrintStream; // Display target (console or network client)
 import java.util.Arrays; // Used for Arrays.fill() and Arrays.copyOf()
 
 /**
@@ -7,19 +8,28 @@ import java.util.Arrays; // Used for Arrays.fill() and Arrays.copyOf()
  * Handles the state of the board (grid), placing symbols,
  * checking for win conditions, and displaying the board.
  * Adheres to the requirement of using a basic 2D array for the board state.
+ * See {@link BitBoard} for the packed representation used by the AI search.
  */
-public class Board {
+public class Board implements GameBoard {
 
     // --- Constants ---
 
-    /** The dimension of the square board (e.g., 9 for a 9x9 grid). */
+    /** The default dimension of the square board (e.g., 9 for a 9x9 grid). */
     public static final int BOARD_SIZE = 9;
+    /** The default number of consecutive symbols required to win. */
+    public static final int WIN_LENGTH = 5;
 
-    /** Character representing an empty slot on the board. */
-    public static final char EMPTY_SLOT = '.';
+    /** Largest supported board dimension (the evaluator keeps a line in one long word). */
+    public static final int MAX_SIZE = 32;
+    /** Shortest supported winning line. */
+    public static final int MIN_WIN_LENGTH = 3;
+    /** Longest supported winning line (the evaluator's shape table grows 4x per extra cell). */
+    public static final int MAX_WIN_LENGTH = 8;
 
-    /** The number of consecutive symbols required to win. */
-    private static final int WIN_STREAK = 5;
+    /** Row step of the four line directions: horizontal, vertical, diagonal \, diagonal /. */
+    private static final int[] LINE_DR = {0, 1, 1,  1};
+    /** Column step of the four line directions. */
+    private static final int[] LINE_DC = {1, 0, 1, -1};
 
     // --- Instance Variable ---
 
@@ -30,20 +40,70 @@ public class Board {
      * but the contents of the array can be modified.
      */
     private final char[][] grid;
+    /** The dimension of the square board. */
+    private final int size;
+    /** The number of consecutive symbols required to win. */
+    private final int winLength;
 
-    // --- Constructor ---
+    /** Symmetric Zobrist keys for this board size (see Zobrist.symmetricKeysFor). */
+    private final long[] symmetricKeys;
+    /**
+     * Zobrist hashes of the current position under each of the 8 symmetries, updated together
+     * as stones are placed and removed. hashes[0] is the position's own hash.
+     */
+    private final long[] hashes = new long[Symmetry.COUNT];
+    /** Number of stones on the board, so isFull() does not have to scan the grid. */
+    private int stoneCount;
+    /** Symbol of the player who completed a winning line, or EMPTY_SLOT if nobody has won yet. */
+    private char winner = EMPTY_SLOT;
+    /** Row of the stone that completed the winning line (valid only while there is a winner). */
+    private int winRow = -1;
+    /** Column of the stone that completed the winning line (valid only while there is a winner). */
+    private int winCol = -1;
+
+    // --- Constructors ---
 
     /**
      * Creates a new Board object, initializing the grid
-     * to the specified BOARD_SIZE and filling it with EMPTY_SLOT characters.
+     * to the default BOARD_SIZE and filling it with EMPTY_SLOT characters.
+     * WIN_LENGTH symbols in a row win.
      */
     public Board() {
+        this(BOARD_SIZE, WIN_LENGTH);
+    }
+
+    /**
+     * Creates an empty board of any supported size and win length, e.g. 15x15 Gomoku or a
+     * connect-4 training game on 7x7.
+     * @param size The number of rows (and columns), 1 to MAX_SIZE.
+     * @param winLength The number of symbols in a row that wins, MIN_WIN_LENGTH to MAX_WIN_LENGTH.
+     * @throws IllegalArgumentException if the size or win length is not supported.
+     */
+    public Board(int size, int winLength) {
+        checkDimensions(size, winLength);
+        this.size = size;
+        this.winLength = winLength;
+        this.symmetricKeys = Zobrist.symmetricKeysFor(size);
         // Instantiate the 2D char array
-        grid = new char[BOARD_SIZE][BOARD_SIZE];
+        grid = new char[size][size];
         // Fill the newly created grid with empty slots
         initialize();
     }
 
+    /**
+     * Validates a board size and win length (shared with BitBoard).
+     * @throws IllegalArgumentException if either is out of range.
+     */
+    static void checkDimensions(int size, int winLength) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Board size must be between 1 and " + MAX_SIZE + ": " + size);
+        }
+        if (winLength < MIN_WIN_LENGTH || winLength > MAX_WIN_LENGTH) {
+            throw new IllegalArgumentException("Win length must be between " + MIN_WIN_LENGTH + " and "
+                    + MAX_WIN_LENGTH + ": " + winLength);
+        }
+    }
+
     // --- Initialization ---
 
     /**
@@ -51,35 +111,54 @@ public class Board {
      * Ensures the board starts empty.
      */
     public void initialize() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
+        for (int i = 0; i < size; i++) {
             // Use Arrays.fill for efficient initialization of each row
             Arrays.fill(grid[i], EMPTY_SLOT);
         }
+        // Reset the incrementally maintained state
+        Arrays.fill(hashes, 0L);
+        stoneCount = 0;
+        winner = EMPTY_SLOT;
     }
 
     // --- Display ---
 
     /**
-     * Prints the current state of the board to the console,
+     * Prints the current state of the board,
      * including row and column numbers for user convenience.
+     * @param out Where to print (the console, or a network client in server mode).
      */
-    public void display() {
+    @Override
+    public void display(PrintStream out) {
+        // Digits of the largest index, so columns stay aligned from 11x11 up
+        int width = Integer.toString(size - 1).length();
         // Print column headers
-        System.out.print("  "); // Indent for row numbers
-        for (int j = 0; j < BOARD_SIZE; j++) {
-            System.out.print(j + " "); // Print column index
+        out.print(padLeft("", width) + " "); // Indent for row numbers
+        for (int j = 0; j < size; j++) {
+            out.print(padLeft(Integer.toString(j), width) + " "); // Print column index
         }
-        System.out.println(); // Newline after headers
+        out.println(); // Newline after headers
 
         // Print rows with row numbers
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            System.out.print(i + " "); // Print row index
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                System.out.print(grid[i][j] + " "); // Print cell content
+        for (int i = 0; i < size; i++) {
+            out.print(padLeft(Integer.toString(i), width) + " "); // Print row index
+            for (int j = 0; j < size; j++) {
+                out.print(padLeft(String.valueOf(grid[i][j]), width) + " "); // Print cell content
             }
-            System.out.println(); // Newline after each row
+            out.println(); // Newline after each row
+        }
+        out.println("--------------------"); // Separator after board display
+    }
+
+    /**
+     * Pads text with spaces on the left to the given width (shared with BitBoard's display).
+     */
+    static String padLeft(String text, int width) {
+        StringBuilder padded = new StringBuilder(width);
+        for (int i = text.length(); i < width; i++) {
+            padded.append(' ');
         }
-        System.out.println("--------------------"); // Separator after board display
+        return padded.append(text).toString();
     }
 
     // --- Basic Operations & Checks ---
@@ -90,8 +169,9 @@ public class Board {
      * @param c Column index.
      * @return true if coordinates are within the board, false otherwise.
      */
+    @Override
     public boolean isWithinBounds(int r, int c) {
-        return r >= 0 && r < BOARD_SIZE && c >= 0 && c < BOARD_SIZE;
+        return r >= 0 && r < size && c >= 0 && c < size;
     }
 
     /**
@@ -101,6 +181,7 @@ public class Board {
      * @param c Column index.
      * @return true if the cell is within bounds and empty, false otherwise.
      */
+    @Override
     public boolean isEmpty(int r, int c) {
         // Use short-circuiting: isWithinBounds is checked first.
         return isWithinBounds(r, c) && grid[r][c] == EMPTY_SLOT;
@@ -108,16 +189,26 @@ public class Board {
 
     /**
      * Places the given player symbol onto the board at the specified coordinates.
-     * Checks for validity (within bounds, cell empty) before placing.
+     * Checks for validity (within bounds, cell empty) before placing, then checks the
+     * lines through the new stone so getWinner() is up to date.
      * @param r Row index.
      * @param c Column index.
      * @param symbol The player's symbol ('B' or 'W').
      * @return true if the symbol was placed successfully, false if the move was invalid.
      */
+    @Override
     public boolean placeSymbol(int r, int c, char symbol) {
         // Check if the move is valid before modifying the grid
         if (isWithinBounds(r, c) && grid[r][c] == EMPTY_SLOT) {
             grid[r][c] = symbol;
+            toggleStoneHashes((r * size + c) * 2 + Zobrist.colourIndex(symbol));
+            stoneCount++;
+            // Only the lines through the new stone can have become a win
+            if (winner == EMPTY_SLOT && checkWin(r, c, symbol)) {
+                winner = symbol;
+                winRow = r;
+                winCol = c;
+            }
             return true; // Placement successful
         }
         // Move was invalid (out of bounds or cell already occupied)
@@ -127,13 +218,22 @@ public class Board {
     /**
      * Removes a symbol from the board, setting the cell back to EMPTY_SLOT.
      * Primarily used by the AI's minimax algorithm for backtracking (undoing simulated moves).
+     * Removing the stone that completed the winning line clears the win state.
      * @param r Row index.
      * @param c Column index.
      */
+    @Override
     public void removeSymbol(int r, int c) {
-        // Only attempt to remove if within bounds
-        if (isWithinBounds(r, c)) {
+        // Only attempt to remove an existing stone within bounds
+        if (isWithinBounds(r, c) && grid[r][c] != EMPTY_SLOT) {
+            // XOR the removed stone's keys back out of the hashes
+            toggleStoneHashes((r * size + c) * 2 + Zobrist.colourIndex(grid[r][c]));
             grid[r][c] = EMPTY_SLOT;
+            stoneCount--;
+            // Roll back the win if this was the move that made five
+            if (winner != EMPTY_SLOT && r == winRow && c == winCol) {
+                winner = EMPTY_SLOT;
+            }
         }
     }
 
@@ -143,6 +243,7 @@ public class Board {
      * @param c Column index.
      * @return The character at grid[r][c] if coordinates are valid, otherwise returns the null character ('\0').
      */
+    @Override
     public char getSymbol(int r, int c) {
         if (isWithinBounds(r, c)) {
             return grid[r][c];
@@ -156,51 +257,108 @@ public class Board {
      * Used to determine a draw condition.
      * @return true if the board is full, false otherwise.
      */
+    @Override
     public boolean isFull() {
-        // Iterate through every cell
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                // If any empty slot is found, the board is not full
-                if (grid[i][j] == EMPTY_SLOT) {
-                    return false;
-                }
+        // The stone counter is maintained by placeSymbol/removeSymbol, so no scan is needed
+        return stoneCount == size * size;
+    }
+
+    /**
+     * Gets the number of stones currently on the board.
+     * @return The maintained stone count.
+     */
+    @Override
+    public int getStoneCount() {
+        return stoneCount;
+    }
+
+    /**
+     * Gets the Zobrist hash of the current position.
+     * @return The hash maintained by placeSymbol/removeSymbol.
+     */
+    @Override
+    public long getHash() {
+        return hashes[0];
+    }
+
+    @Override
+    public long getSymmetricHash(int symmetry) {
+        return hashes[symmetry];
+    }
+
+    @Override
+    public int getCanonicalSymmetry() {
+        int best = 0;
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            if (hashes[s] < hashes[best]) {
+                best = s;
             }
         }
-        // If the loops complete without finding an empty slot, the board is full
-        return true;
+        return best;
+    }
+
+    /**
+     * XORs one stone's keys into (or out of) all 8 symmetric hashes at once.
+     * @param key Key index of the stone: cell * 2 + colour.
+     */
+    private void toggleStoneHashes(int key) {
+        int base = key * Symmetry.COUNT;
+        for (int s = 0; s < Symmetry.COUNT; s++) {
+            hashes[s] ^= symmetricKeys[base + s];
+        }
     }
 
     /**
      * Gets the size (dimension) of the board.
-     * @return The value of BOARD_SIZE.
+     * @return The number of rows (and columns).
      */
+    @Override
     public int getSize() {
-        return BOARD_SIZE;
+        return size;
+    }
+
+    /**
+     * Gets the number of symbols in a row that wins.
+     * @return The win length.
+     */
+    @Override
+    public int getWinLength() {
+        return winLength;
     }
 
     // --- Win Condition Check ---
 
+    /**
+     * Gets the player who has completed a winning line (tracked by placeSymbol/removeSymbol).
+     * @return The winner's symbol, or EMPTY_SLOT if nobody has won.
+     */
+    @Override
+    public char getWinner() {
+        return winner;
+    }
+
     /**
      * Checks if placing the given symbol at coordinates (r, c) resulted in a win
-     * (WIN_STREAK consecutive symbols) along any horizontal, vertical, or diagonal line passing through (r, c).
+     * (winLength consecutive symbols) along any horizontal, vertical, or diagonal line passing through (r, c).
      * Assumes the symbol was just placed at (r, c).
      * @param r Row index of the last placed symbol.
      * @param c Column index of the last placed symbol.
      * @param symbol The symbol that was just placed ('B' or 'W').
      * @return true if the move resulted in a win for the player, false otherwise.
      */
+    @Override
     public boolean checkWin(int r, int c, char symbol) {
         // Basic sanity check - should not be called on an empty or opponent's cell
         if (!isWithinBounds(r,c) || grid[r][c] != symbol) {
             return false;
         }
 
-        // Define direction vectors for checking lines:
+        // Direction vectors for checking lines (shared constants, so a check allocates nothing):
         // dr[i], dc[i] represents one direction along a line.
         // -dr[i], -dc[i] represents the opposite direction along the same line.
         // Indices correspond to: 0:Horizontal(+), 1:Vertical(+), 2:Diagonal(\,+), 3:Anti-Diagonal(/,+)
-        int[] dr = {0, 1, 1,  1}; // Row changes
-        int[] dc = {1, 0, 1, -1}; // Column changes
+        int[] dr = LINE_DR; // Row changes
+        int[] dc = LINE_DC; // Column changes
 
         // Iterate through the 4 primary line directions (Horizontal, Vertical, Diagonal, Anti-Diagonal)
         for (int i = 0; i < 4; i++) {
@@ -208,8 +366,8 @@ public class Board {
             int count = 1;
 
             // --- Check in the "positive" direction (using dr[i], dc[i]) ---
-            // Look up to WIN_STREAK-1 steps away along the line
-            for (int j = 1; j < WIN_STREAK; j++) {
+            // Look up to winLength-1 steps away along the line
+            for (int j = 1; j < winLength; j++) {
                 int nr = r + dr[i] * j; // Calculate next row in this direction
                 int nc = c + dc[i] * j; // Calculate next column in this direction
 
@@ -222,8 +380,8 @@ public class Board {
             }
 
             // --- Check in the "negative" direction (using -dr[i], -dc[i]) ---
-            // Look up to WIN_STREAK-1 steps away along the line
-            for (int j = 1; j < WIN_STREAK; j++) {
+            // Look up to winLength-1 steps away along the line
+            for (int j = 1; j < winLength; j++) {
                 int nr = r - dr[i] * j; // Calculate next row in the opposite direction
                 int nc = c - dc[i] * j; // Calculate next column in the opposite direction
 
@@ -236,7 +394,7 @@ public class Board {
             }
 
             // --- Check if the total count for this line meets the win condition ---
-            if (count >= WIN_STREAK) {
+            if (count >= winLength) {
                 return true; // Found a winning line of sufficient length
             }
         }
@@ -245,6 +403,65 @@ public class Board {
         return false;
     }
 
+    /**
+     * Checks whether placing the given symbol on the empty cell (r, c) would complete a winning line.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The symbol that would be placed.
+     * @return true if the cell is empty and the move would win, false otherwise.
+     */
+    @Override
+    public boolean isWinningMove(int r, int c, char symbol) {
+        return isEmpty(r, c) && getLineLength(r, c, symbol) >= winLength;
+    }
+
+    /**
+     * Gets the length of the longest line of the given symbol through (r, c), as if (r, c) held that symbol.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The player's symbol.
+     * @return The line length, capped at winLength.
+     */
+    @Override
+    public int getLineLength(int r, int c, char symbol) {
+        int longest = 1;
+        // Same directions as checkWin: horizontal, vertical, diagonal \, diagonal /
+        for (int i = 0; i < 4; i++) {
+            int count = 1; // The (hypothetical) stone at (r, c)
+            // Count in the "positive" direction, then in the "negative" direction
+            for (int j = 1; j < winLength && isWithinBounds(r + LINE_DR[i] * j, c + LINE_DC[i] * j)
+                    && grid[r + LINE_DR[i] * j][c + LINE_DC[i] * j] == symbol; j++) {
+                count++;
+            }
+            for (int j = 1; j < winLength && isWithinBounds(r - LINE_DR[i] * j, c - LINE_DC[i] * j)
+                    && grid[r - LINE_DR[i] * j][c - LINE_DC[i] * j] == symbol; j++) {
+                count++;
+            }
+            longest = Math.max(longest, count);
+        }
+        return Math.min(longest, winLength);
+    }
+
+    /**
+     * Checks if a given player has won on the ENTIRE board.
+     * Iterates through all cells containing the player's symbol and uses
+     * checkWin starting from that cell.
+     * @param symbol The player's symbol to check for a win.
+     * @return true if the specified player has a winning line, false otherwise.
+     */
+    @Override
+    public boolean hasWinningLine(char symbol) {
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                // Only cells holding the player's symbol can start a winning line
+                if (grid[r][c] == symbol && checkWin(r, c, symbol)) {
+                    return true; // Found a win for this player
+                }
+            }
+        }
+        return false;
+    }
+
     /**
      * Creates and returns a deep copy of the current board grid.
      * This is crucial for the AI, allowing it to simulate moves on a temporary copy
@@ -253,11 +470,11 @@ public class Board {
      */
     public char[][] getGridCopy() {
         // Create a new array with the same dimensions
-        char[][] copy = new char[BOARD_SIZE][BOARD_SIZE];
+        char[][] copy = new char[size][size];
         // Copy each row individually
-        for(int i = 0; i < BOARD_SIZE; i++) {
+        for(int i = 0; i < size; i++) {
             // Arrays.copyOf provides a safe way to copy primitive arrays (like char[])
-            copy[i] = Arrays.copyOf(grid[i], BOARD_SIZE);
+            copy[i] = Arrays.copyOf(grid[i], size);
         }
         return copy;
     }
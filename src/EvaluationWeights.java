@@ -0,0 +1,226 @@
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The heuristic scores of the line shapes recognised by the {@link PatternEvaluator}.
+ * These decide how the AI judges positions at the depth limit, so they are what gets tuned
+ * (automatically with the {@link WeightTuner}, and checked with the {@link Tournament}
+ * runner). Instances are immutable.
+ *
+ * The text form is the six scores separated by commas, from the weakest shape to the
+ * strongest: "twoInRow,openTwo,threeInRow,openThree,fourInRow,openFour".
+ * A weights file holds the text form on one line; blank lines and lines starting with '#'
+ * are ignored. MinimaxAI starts with the built-in DEFAULT; the programs that play or
+ * analyse games read WEIGHTS_FILE (see loadStartupWeights()) in their main method and pass
+ * the result to their engines with MinimaxAI.setWeights().
+ */
+public final class EvaluationWeights {
+
+    // --- Default Scores ---
+    // Hand-picked starting points; tuned scores come from a weights file written by WeightTuner.
+    /** Example score for an open four (`.XXXX.`) - cannot be blocked any more. */
+    private static final int OPEN_FOUR = 20000;
+    /** Example score for a four with one way to complete it (potential win). */
+    private static final int FOUR_IN_ROW = 5000;
+    /** Example score for an open (possibly broken) three that can become an open four. */
+    private static final int OPEN_THREE = 1000;
+    /** Example score for a three with one side blocked. */
+    private static final int THREE_IN_ROW = 100;
+    /** Example score for an open two. */
+    private static final int OPEN_TWO = 50;
+    /** Example score for a two with one side blocked. */
+    private static final int TWO_IN_ROW = 10;
+
+    /** The built-in weights, which MinimaxAI starts with. */
+    public static final EvaluationWeights DEFAULT =
+            new EvaluationWeights(TWO_IN_ROW, OPEN_TWO, THREE_IN_ROW, OPEN_THREE, FOUR_IN_ROW, OPEN_FOUR);
+
+    // --- Weights File ---
+    /** Weights file read by the programs' main methods, in the working directory. */
+    public static final String WEIGHTS_FILE = "gomoku.weights";
+    /** System property naming a different weights file. */
+    public static final String WEIGHTS_FILE_PROPERTY = "gomoku.weights";
+
+    // --- Instance Variables ---
+    /** Score for a two with one side blocked. */
+    private final int twoInRow;
+    /** Score for an open two. */
+    private final int openTwo;
+    /** Score for a three with one side blocked. */
+    private final int threeInRow;
+    /** Score for an open three. */
+    private final int openThree;
+    /** Score for a four with one way to complete it. */
+    private final int fourInRow;
+    /** Score for an open four. */
+    private final int openFour;
+
+    // --- Constructors ---
+
+    /**
+     * Creates a set of weights. Scores must be non-negative and stay well below
+     * MinimaxAI's win score, so that a won position always scores higher than any shape sum.
+     * @param twoInRow Score for a two with one side blocked.
+     * @param openTwo Score for an open two.
+     * @param threeInRow Score for a three with one side blocked.
+     * @param openThree Score for an open three.
+     * @param fourInRow Score for a four with one way to complete it.
+     * @param openFour Score for an open four.
+     */
+    public EvaluationWeights(int twoInRow, int openTwo, int threeInRow, int openThree, int fourInRow, int openFour) {
+        int[] scores = {twoInRow, openTwo, threeInRow, openThree, fourInRow, openFour};
+        for (int score : scores) {
+            if (score < 0 || score >= MinimaxAI.WIN_SCORE / 4) {
+                throw new IllegalArgumentException("Shape score out of range: " + score);
+            }
+        }
+        this.twoInRow = twoInRow;
+        this.openTwo = openTwo;
+        this.threeInRow = threeInRow;
+        this.openThree = openThree;
+        this.fourInRow = fourInRow;
+        this.openFour = openFour;
+    }
+
+    /**
+     * Parses weights from their text form (see the class comment).
+     * @param text Six comma-separated integers, or "default".
+     * @return The weights.
+     * @throws IllegalArgumentException if the text is malformed.
+     */
+    public static EvaluationWeights parse(String text) {
+        if (text.trim().equalsIgnoreCase("default")) {
+            return DEFAULT;
+        }
+        String[] parts = text.split(",");
+        if (parts.length != 6) {
+            throw new IllegalArgumentException("Expected 6 comma-separated shape scores: " + text);
+        }
+        int[] scores = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                scores[i] = Integer.parseInt(parts[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid shape score: " + parts[i], e);
+            }
+        }
+        return new EvaluationWeights(scores[0], scores[1], scores[2], scores[3], scores[4], scores[5]);
+    }
+
+    // --- Weights Files ---
+
+    /**
+     * Reads the weights a program starts with: those in the file named by the
+     * WEIGHTS_FILE_PROPERTY system property, or else in WEIGHTS_FILE in the working
+     * directory, or DEFAULT if there is no such file. Nothing is cached; call it once from
+     * main and hand the result to the engines.
+     * @return The startup weights.
+     * @throws IOException if the weights file exists but cannot be read.
+     * @throws IllegalArgumentException if the weights file does not hold valid weights
+     *         (a broken tuning result should not silently fall back to the defaults).
+     */
+    public static EvaluationWeights loadStartupWeights() throws IOException {
+        Path path = Paths.get(System.getProperty(WEIGHTS_FILE_PROPERTY, WEIGHTS_FILE));
+        if (!Files.isRegularFile(path)) {
+            return DEFAULT;
+        }
+        try {
+            return load(path);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid weights file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads weights from a weights file (see the class comment).
+     * @param path The file.
+     * @return The weights.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file does not hold exactly one set of weights.
+     */
+    public static EvaluationWeights load(Path path) throws IOException {
+        List<String> values = new ArrayList<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                values.add(trimmed);
+            }
+        }
+        if (values.size() != 1) {
+            throw new IllegalArgumentException("Expected one line of shape scores, found " + values.size());
+        }
+        return parse(values.get(0));
+    }
+
+    /**
+     * Writes these weights to a weights file, replacing it.
+     * @param path The file.
+     * @param comments Lines written before the weights as '#' comments (may be empty).
+     * @throws IOException if the file cannot be written.
+     */
+    public void save(Path path, List<String> comments) throws IOException {
+        List<String> lines = new ArrayList<>(comments.size() + 1);
+        for (String comment : comments) {
+            lines.add("# " + comment);
+        }
+        lines.add(toString());
+        Files.write(path, lines, StandardCharsets.UTF_8);
+    }
+
+    // --- Conversion ---
+
+    /**
+     * Gets the scores in the layout used by the PatternEvaluator.
+     * @return A new array indexed by the PatternEvaluator.SHAPE_ constants (a five is terminal anyway).
+     */
+    int[] toShapeScores() {
+        return new int[]{0, twoInRow, openTwo, threeInRow, openThree, fourInRow, openFour, openFour};
+    }
+
+    // --- Getters ---
+
+    /** @return Score for a two with one side blocked. */
+    public int getTwoInRow() {
+        return twoInRow;
+    }
+
+    /** @return Score for an open two. */
+    public int getOpenTwo() {
+        return openTwo;
+    }
+
+    /** @return Score for a three with one side blocked. */
+    public int getThreeInRow() {
+        return threeInRow;
+    }
+
+    /** @return Score for an open three. */
+    public int getOpenThree() {
+        return openThree;
+    }
+
+    /** @return Score for a four with one way to complete it. */
+    public int getFourInRow() {
+        return fourInRow;
+    }
+
+    /** @return Score for an open four. */
+    public int getOpenFour() {
+        return openFour;
+    }
+
+    /**
+     * Gets the text form (accepted by parse()).
+     * @return The six scores separated by commas.
+     */
+    @Override
+    public String toString() {
+        return twoInRow + "," + openTwo + "," + threeInRow + "," + openThree + "," + fourInRow + "," + openFour;
+    }
+}
@@ -0,0 +1,353 @@
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;    // Fixed number format for the summary
+import java.util.concurrent.ArrayBlockingQueue; // Bounded hand-over between the stages
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless blunder finder for recorded games (see {@link GameRecordReader}). Every game is
+ * replayed on a {@link Board}; before each move, the player to move's engine searches the
+ * position, and the move actually played is scored by searching the position after it from
+ * the opponent's side one ply shallower. A move is a blunder when its score falls more than
+ * the threshold below the best move's.
+ * <p>
+ * The analysis is a streaming pipeline with bounded queues between the stages, so memory
+ * stays flat whatever the size of the corpus and a slow stage holds the others back:
+ * <pre>
+ *   reader (calling thread) --games--> analysis workers (one per core) --reports--> report writer
+ * </pre>
+ * A worker analyses a whole game at a time with one pair of engines sharing one
+ * transposition table, which is kept across the positions of the game (consecutive
+ * positions share most of their trees) and cleared between games. The report has one JSON
+ * line per game, in completion order; each line carries the game's index in the file.
+ *
+ * Usage: java GameAnalyzer recordFile [reportFile] [depth] [threads] [threshold]
+ * (defaults: report to standard output ("-"), depth 4, all processors, threshold 1000)
+ */
+public class GameAnalyzer {
+
+    // --- Settings ---
+    /** Games (or reports) waiting between two stages, per worker. */
+    private static final int QUEUE_SLOTS_PER_WORKER = 2;
+    /** How often a blocked stage checks whether the others are still alive (ms). */
+    private static final long POLL_MILLIS = 100;
+    /** Entries of each worker's transposition table. */
+    private static final int TABLE_ENTRIES = TranspositionTable.DEFAULT_CAPACITY;
+
+    /**
+     * One game to analyse, with its position in the record file.
+     */
+    private static final class GameJob {
+        final long index;
+        final GameRecord record;
+
+        GameJob(long index, GameRecord record) {
+            this.index = index;
+            this.record = record;
+        }
+    }
+
+    /** Tells a worker that no more games will come. */
+    private static final GameJob END_OF_GAMES = new GameJob(-1, null);
+    /** Tells the writer that a worker has finished (report lines are never empty). */
+    private static final String END_OF_REPORTS = "";
+
+    // --- Instance Variables ---
+    /** Search depth of the position searches (the played move is scored one ply shallower). */
+    private final int depth;
+    /** Score loss above which a move is a blunder. */
+    private final int threshold;
+    /** Shape scores of the engines. */
+    private volatile EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    /** Positions analysed, over all workers. */
+    private final AtomicLong positionCount = new AtomicLong();
+    /** Blunders found, over all workers. */
+    private final AtomicLong blunderCount = new AtomicLong();
+
+    /**
+     * Creates an analyser.
+     * @param depth Search depth per position (at least 2).
+     * @param threshold Score loss above which a move is a blunder.
+     */
+    public GameAnalyzer(int depth, int threshold) {
+        if (depth < 2 || depth > SearchLimits.MAX_DEPTH) {
+            throw new IllegalArgumentException("Analysis depth must be 2 to " + SearchLimits.MAX_DEPTH + ": " + depth);
+        }
+        this.depth = depth;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Sets the shape scores the positions are judged with (before run()).
+     * @param weights The weights (EvaluationWeights.DEFAULT by default).
+     */
+    public void setWeights(EvaluationWeights weights) {
+        this.weights = weights;
+    }
+
+    // --- Entry Point ---
+
+    /**
+     * Analyses a game record file and writes the report.
+     * @param args Record file, then optional report file ("-" for standard output), depth, threads and threshold.
+     * @throws IOException if the records cannot be read or the report cannot be written.
+     * @throws InterruptedException if interrupted while waiting for the pipeline.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: java GameAnalyzer recordFile [reportFile] [depth] [threads] [threshold]");
+            return;
+        }
+        String reportFile = args.length > 1 ? args[1] : "-";
+        int depth = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int threshold = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        GameAnalyzer analyzer = new GameAnalyzer(depth, threshold);
+        analyzer.setWeights(EvaluationWeights.loadStartupWeights()); // Tuned weights, if WeightTuner wrote any
+        long start = System.nanoTime();
+        long games;
+        try (GameRecordReader reader = GameRecordReader.open(Paths.get(args[0]));
+             Writer report = reportFile.equals("-")
+                     ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                     : Files.newBufferedWriter(Paths.get(reportFile), StandardCharsets.UTF_8)) {
+            games = analyzer.run(reader, report, threads);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println(String.format(Locale.ROOT,
+                "Analysed %d games, %d positions (depth %d, %d threads): %d blunders; %.1f games/s, %.0f positions/s (%.1f s)",
+                games, analyzer.getPositionCount(), depth, threads, analyzer.getBlunderCount(),
+                games / seconds, analyzer.getPositionCount() / seconds, seconds));
+    }
+
+    // --- Pipeline ---
+
+    /**
+     * Runs the pipeline: reads every game, analyses the games in parallel and writes one
+     * report line per game.
+     * @param reader The games.
+     * @param report Where the report lines go (flushed, not closed).
+     * @param threads Number of analysis workers.
+     * @return The number of games analysed.
+     * @throws IOException if reading or writing fails.
+     * @throws InterruptedException if interrupted while waiting for the pipeline.
+     */
+    public long run(GameRecordReader reader, Writer report, int threads) throws IOException, InterruptedException {
+        BlockingQueue<GameJob> games = new ArrayBlockingQueue<>(threads * QUEUE_SLOTS_PER_WORKER);
+        BlockingQueue<String> reports = new ArrayBlockingQueue<>(threads * QUEUE_SLOTS_PER_WORKER);
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        List<Future<?>> stages = new ArrayList<>(threads + 1);
+        try {
+            // --- Start the writer and the workers ---
+            // (The list is complete before any stage reads it: they only do so once items flow.)
+            stages.add(pool.submit(() -> {
+                writeReports(reports, report, threads);
+                return null;
+            }));
+            for (int i = 0; i < threads; i++) {
+                stages.add(pool.submit(() -> {
+                    analyseGames(games, reports, stages);
+                    return null;
+                }));
+            }
+
+            // --- Read on this thread; a full queue blocks the reader (backpressure) ---
+            long count = 0;
+            for (GameRecord record = reader.next(); record != null; record = reader.next()) {
+                put(games, new GameJob(count++, record), stages);
+            }
+            for (int i = 0; i < threads; i++) {
+                put(games, END_OF_GAMES, stages);
+            }
+            for (Future<?> stage : stages) {
+                stage.get(); // Rethrows what a worker or the writer threw
+            }
+            return count;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IllegalStateException("Game analysis failed", cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Worker loop: analyses games until the end marker arrives.
+     */
+    private void analyseGames(BlockingQueue<GameJob> games, BlockingQueue<String> reports, List<Future<?>> stages)
+            throws InterruptedException, ExecutionException {
+        TranspositionTable table = new TranspositionTable(TABLE_ENTRIES, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED);
+        // Scores in the table are from the side to move's point of view, so both engines share it
+        MinimaxAI black = new MinimaxAI(SearchLimits.depth(depth), GameBoard.BLACK, GameBoard.WHITE, table);
+        MinimaxAI white = new MinimaxAI(SearchLimits.depth(depth), GameBoard.WHITE, GameBoard.BLACK, table);
+        black.setWeights(weights);
+        white.setWeights(weights);
+        for (GameJob job = games.take(); job != END_OF_GAMES; job = games.take()) {
+            table.clear(); // Reused within a game, not across games
+            put(reports, analyseGame(job, black, white), stages);
+        }
+        put(reports, END_OF_REPORTS, stages);
+    }
+
+    /**
+     * Report writer loop: writes report lines until every worker has finished.
+     */
+    private static void writeReports(BlockingQueue<String> reports, Writer report, int workers)
+            throws IOException, InterruptedException {
+        int running = workers;
+        while (running > 0) {
+            String line = reports.take();
+            if (line.isEmpty()) {
+                running--;
+            } else {
+                report.write(line);
+                report.write('\n');
+            }
+        }
+        report.flush();
+    }
+
+    /**
+     * Hands an item to the next stage, waiting while its queue is full. If a stage failed
+     * meanwhile, nobody may ever take the item, so its error is thrown instead of waiting on.
+     */
+    private static <T> void put(BlockingQueue<T> queue, T item, List<Future<?>> stages)
+            throws InterruptedException, ExecutionException {
+        while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            for (int i = 0; i < stages.size(); i++) {
+                Future<?> stage = stages.get(i);
+                if (stage.isDone()) {
+                    stage.get(); // Rethrows the failure
+                    throw new IllegalStateException("A pipeline stage ended early");
+                }
+            }
+        }
+    }
+
+    // --- Analysis ---
+
+    /**
+     * Replays one game and scores every move.
+     * @return The game's report line (JSON).
+     */
+    private String analyseGame(GameJob job, MinimaxAI black, MinimaxAI white) {
+        GameRecord game = job.record;
+        int size = game.getSize();
+        Board board = new Board(size, game.getWinLength());
+        SearchLimits limits = SearchLimits.depth(depth);
+        SearchLimits replyLimits = SearchLimits.depth(depth - 1);
+        StringBuilder blunders = new StringBuilder();
+        int found = 0;
+        int positions = 0;
+
+        for (int ply = 0; ply < game.getMoveCount() && board.getWinner() == GameBoard.EMPTY_SLOT && !board.isFull(); ply++) {
+            char mover = GameRecord.getMover(ply);
+            MinimaxAI engine = mover == GameBoard.BLACK ? black : white;
+            MinimaxAI opponent = mover == GameBoard.BLACK ? white : black;
+            int played = game.getMove(ply);
+            if (!board.isEmpty(played / size, played % size)) {
+                break; // A damaged record: the rest of the game cannot be replayed
+            }
+
+            // --- The best move and its score, for the player to move ---
+            SearchResult best = engine.search(board, limits);
+            positions++;
+            int playedScore = best.getScore();
+            if (!isAmong(played, best.getBestMoves(), size)) {
+                // --- The played move's score: the opponent's answer to it, one ply shallower ---
+                board.placeSymbol(played / size, played % size, mover);
+                if (board.getWinner() == mover) {
+                    playedScore = MinimaxAI.WIN_SCORE;
+                } else if (board.isFull()) {
+                    playedScore = MinimaxAI.DRAW_SCORE;
+                } else {
+                    playedScore = -opponent.search(board, replyLimits).getScore();
+                }
+                board.removeSymbol(played / size, played % size);
+            }
+            int loss = best.getScore() - playedScore;
+            if (loss > threshold) {
+                found++;
+                blunders.append(blunders.length() > 0 ? "," : "")
+                        .append("{\"ply\":").append(ply)
+                        .append(",\"player\":\"").append(mover).append('"')
+                        .append(",\"move\":[").append(played / size).append(',').append(played % size).append(']')
+                        .append(",\"best\":[").append(best.getRow()).append(',').append(best.getCol()).append(']')
+                        .append(",\"bestScore\":").append(best.getScore())
+                        .append(",\"playedScore\":").append(playedScore)
+                        .append(",\"loss\":").append(loss)
+                        .append('}');
+            }
+            board.placeSymbol(played / size, played % size, mover);
+        }
+        positionCount.addAndGet(positions);
+        blunderCount.addAndGet(found);
+
+        return "{\"game\":" + job.index
+                + ",\"black\":" + jsonString(game.getBlackName())
+                + ",\"white\":" + jsonString(game.getWhiteName())
+                + ",\"result\":\"" + game.getResult() + '"'
+                + ",\"moves\":" + game.getMoveCount()
+                + ",\"positions\":" + positions
+                + ",\"blunders\":[" + blunders + "]}";
+    }
+
+    /**
+     * Checks whether a move is one of the equally good best moves `[row, col]`.
+     */
+    private static boolean isAmong(int move, List<int[]> moves, int size) {
+        for (int[] candidate : moves) {
+            if (candidate[0] * size + candidate[1] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Quotes a string for JSON (player names come from the players).
+     */
+    private static String jsonString(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch == '"' || ch == '\\') {
+                json.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                json.append(String.format(Locale.ROOT, "\\u%04x", (int) ch));
+            } else {
+                json.append(ch);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    // --- Accessors ---
+
+    /** @return Positions analysed so far. */
+    public long getPositionCount() {
+        return positionCount.get();
+    }
+
+    /** @return Blunders found so far. */
+    public long getBlunderCount() {
+        return blunderCount.get();
+    }
+}
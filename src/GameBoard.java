@@ -0,0 +1,186 @@
+
+import java.io.PrintStream; // Display target
+
+/**
+ * Common view of a Gomoku board used by the game loop and the AI.
+ * Implementations decide how the stones are stored (a 2D char array in {@link Board},
+ * packed bitsets in {@link BitBoard}) but expose the same coordinate-based operations,
+ * so the Minimax search can run on whichever representation is fastest.
+ */
+public interface GameBoard {
+
+    // --- Shared Constants ---
+
+    /** Character representing an empty slot on the board. */
+    char EMPTY_SLOT = '.';
+    /** Symbol of the first player (Black). */
+    char BLACK = 'B';
+    /** Symbol of the second player (White). */
+    char WHITE = 'W';
+
+    // --- Basic Operations & Checks ---
+
+    /**
+     * Gets the size (dimension) of the square board.
+     * @return The number of rows (and columns).
+     */
+    int getSize();
+
+    /**
+     * Gets the number of symbols in a row that wins (5 in standard Gomoku).
+     * @return The win length.
+     */
+    int getWinLength();
+
+    /**
+     * Checks if the given row and column coordinates are within the valid bounds of the board.
+     * @param r Row index.
+     * @param c Column index.
+     * @return true if coordinates are within the board, false otherwise.
+     */
+    boolean isWithinBounds(int r, int c);
+
+    /**
+     * Checks if the cell at the given coordinates is within bounds and empty.
+     * @param r Row index.
+     * @param c Column index.
+     * @return true if the cell is within bounds and empty, false otherwise.
+     */
+    boolean isEmpty(int r, int c);
+
+    /**
+     * Retrieves the symbol currently at the specified coordinates.
+     * @param r Row index.
+     * @param c Column index.
+     * @return The symbol at (r, c), EMPTY_SLOT if empty, or '\0' if out of bounds.
+     */
+    char getSymbol(int r, int c);
+
+    /**
+     * Places the given player symbol onto the board at the specified coordinates.
+     * The board checks the lines through the new stone, so after a successful call
+     * getWinner() reports whether this move just completed a winning line.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The player's symbol ('B' or 'W').
+     * @return true if the symbol was placed successfully, false if the move was invalid.
+     */
+    boolean placeSymbol(int r, int c, char symbol);
+
+    /**
+     * Removes a symbol from the board, setting the cell back to empty.
+     * Used by the AI for backtracking simulated moves. Removing the stone that made
+     * the winning line rolls the win state back (moves are undone in reverse order).
+     * @param r Row index.
+     * @param c Column index.
+     */
+    void removeSymbol(int r, int c);
+
+    /**
+     * Checks if the board is completely full (draw condition).
+     * Answered from a maintained stone counter, so this is O(1).
+     * @return true if no empty cells remain, false otherwise.
+     */
+    boolean isFull();
+
+    /**
+     * Gets the number of stones currently on the board.
+     * @return The stone count, maintained by placeSymbol/removeSymbol.
+     */
+    int getStoneCount();
+
+    /**
+     * Gets the Zobrist hash of the current position (see {@link Zobrist}).
+     * Maintained incrementally by placeSymbol/removeSymbol, so this is O(1).
+     * @return The 64-bit position hash.
+     */
+    long getHash();
+
+    /**
+     * Gets the Zobrist hash of the position transformed by one of the 8 board symmetries
+     * (see {@link Symmetry}). All 8 are maintained incrementally like getHash(), which equals
+     * getSymmetricHash(0).
+     * @param symmetry The symmetry (0 to Symmetry.COUNT - 1).
+     * @return The hash of the transformed position.
+     */
+    long getSymmetricHash(int symmetry);
+
+    /**
+     * Gets the symmetry that brings the position into its canonical orientation: the one with
+     * the smallest hash. Symmetric positions share the same canonical orientation and hash,
+     * so caches keyed by getCanonicalHash() store them only once.
+     * @return The symmetry to apply to moves before storing them (see Symmetry.toCanonical).
+     */
+    int getCanonicalSymmetry();
+
+    /**
+     * Gets the hash of the position in its canonical orientation.
+     * @return The canonical hash, the same for all 8 symmetric variants of the position.
+     */
+    default long getCanonicalHash() {
+        return getSymmetricHash(getCanonicalSymmetry());
+    }
+
+    // --- Win Condition Checks ---
+
+    /**
+     * Gets the player who has completed a winning line, tracked incrementally as stones
+     * are placed and removed. This is O(1), unlike hasWinningLine.
+     * @return The winner's symbol, or EMPTY_SLOT if nobody has won.
+     */
+    char getWinner();
+
+    /**
+     * Checks if the stone at (r, c) is part of a winning line for the given symbol.
+     * Assumes the symbol was just placed at (r, c).
+     * @param r Row index of the last placed symbol.
+     * @param c Column index of the last placed symbol.
+     * @param symbol The symbol that was just placed.
+     * @return true if the move resulted in a win for the player, false otherwise.
+     */
+    boolean checkWin(int r, int c, char symbol);
+
+    /**
+     * Checks whether placing the given symbol on the empty cell (r, c) would complete a winning line.
+     * Used by the AI to spot immediate wins and forced blocks without making the move.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The symbol that would be placed.
+     * @return true if the cell is empty and the move would win, false otherwise.
+     */
+    boolean isWinningMove(int r, int c, char symbol);
+
+    /**
+     * Gets the length of the longest line of the given symbol that a stone at (r, c) is, or
+     * would be, part of (counting (r, c) itself), capped at the winning length.
+     * The cell's own content is ignored, so this works for both placed and hypothetical stones.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The player's symbol.
+     * @return The line length (1 if no neighbouring stone of that symbol lines up).
+     */
+    int getLineLength(int r, int c, char symbol);
+
+    /**
+     * Checks if the given player has a winning line anywhere on the board.
+     * Used when the last move that led to a position is not known.
+     * @param symbol The player's symbol to check for a win.
+     * @return true if the specified player has a winning line, false otherwise.
+     */
+    boolean hasWinningLine(char symbol);
+
+    // --- Display ---
+
+    /**
+     * Prints the current state of the board to the console.
+     */
+    default void display() {
+        display(System.out);
+    }
+
+    /**
+     * Prints the current state of the board, including row and column numbers.
+     * @param out Where to print (the console, or a network client in server mode).
+     */
+    void display(PrintStream out);
+}
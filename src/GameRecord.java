@@ -0,0 +1,241 @@
+
+import java.nio.BufferUnderflowException; // A record cut short inside a block
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One finished (or abandoned) game: the board it was played on, the players, the result,
+ * when it was played and every move in order, Black first. Records are written to and read
+ * from game record files by {@link GameRecordWriter} and {@link GameRecordReader}.
+ * <p>
+ * Encoding of one record (big-endian, as part of a block, see GameRecordWriter):
+ * <pre>
+ *   byte  board size, byte win length, byte result (Result ordinal)
+ *   long  start time (milliseconds since the epoch), int duration in milliseconds
+ *   byte  length + UTF-8 bytes of Black's name, then the same for White's name
+ *   short move count (unsigned)
+ *   moves: the cell r * size + c of each move, one unsigned byte each on boards up to
+ *          15x15 (225 cells) and two bytes each on larger boards
+ * </pre>
+ * A 9x9 game of 40 moves between "AI" and a short name takes about 70 bytes.
+ */
+public final class GameRecord {
+
+    /** How a game ended. */
+    public enum Result {
+        /** Black made a line. */
+        BLACK_WINS,
+        /** White made a line. */
+        WHITE_WINS,
+        /** The board filled up without a line. */
+        DRAW,
+        /** A player left (or the connection was lost) before the end. */
+        ABANDONED
+    }
+
+    /** Largest board whose moves are stored in one byte each. */
+    static final int MAX_BYTE_MOVE_SIZE = 15;
+    /** Longest player name in UTF-8 bytes; longer names are cut. */
+    static final int MAX_NAME_BYTES = 255;
+    /** Encoded size without the names and the moves. */
+    private static final int FIXED_BYTES = 3 + 8 + 4 + 1 + 1 + 2;
+
+    // --- Instance Variables ---
+    private final int size;
+    private final int winLength;
+    private final String blackName;
+    private final String whiteName;
+    private final Result result;
+    private final long startMillis;
+    private final int durationMillis;
+    /** Moves in play order as cells r * size + c. */
+    private final int[] moves;
+
+    /**
+     * Creates a game record.
+     * @param size The board dimension (up to Board.MAX_SIZE).
+     * @param winLength The number of stones in a row that won.
+     * @param blackName Black's name.
+     * @param whiteName White's name.
+     * @param result How the game ended.
+     * @param startMillis When the game started (milliseconds since the epoch).
+     * @param durationMillis How long the game took in milliseconds.
+     * @param moves The moves as cells r * size + c, Black first (the array is copied).
+     * @param moveCount Number of moves in the array to use.
+     * @throws IllegalArgumentException if the board or a move is out of range.
+     */
+    public GameRecord(int size, int winLength, String blackName, String whiteName, Result result,
+                      long startMillis, int durationMillis, int[] moves, int moveCount) {
+        Board.checkDimensions(size, winLength);
+        if (moveCount > size * size) {
+            throw new IllegalArgumentException("More moves than cells: " + moveCount);
+        }
+        for (int i = 0; i < moveCount; i++) {
+            if (moves[i] < 0 || moves[i] >= size * size) {
+                throw new IllegalArgumentException("Move " + i + " is off the board: " + moves[i]);
+            }
+        }
+        this.size = size;
+        this.winLength = winLength;
+        this.blackName = blackName;
+        this.whiteName = whiteName;
+        this.result = result;
+        this.startMillis = startMillis;
+        this.durationMillis = durationMillis;
+        this.moves = Arrays.copyOf(moves, moveCount);
+    }
+
+    // --- Encoding ---
+
+    /**
+     * @return The number of bytes encode() writes.
+     */
+    int encodedLength() {
+        return FIXED_BYTES + nameBytes(blackName).length + nameBytes(whiteName).length
+                + moves.length * (size <= MAX_BYTE_MOVE_SIZE ? 1 : 2);
+    }
+
+    /**
+     * Writes the record at the buffer's position.
+     * @param out The buffer, with at least encodedLength() bytes remaining.
+     */
+    void encode(ByteBuffer out) {
+        out.put((byte) size).put((byte) winLength).put((byte) result.ordinal());
+        out.putLong(startMillis).putInt(durationMillis);
+        putName(out, blackName);
+        putName(out, whiteName);
+        out.putShort((short) moves.length);
+        boolean oneByte = size <= MAX_BYTE_MOVE_SIZE;
+        for (int move : moves) {
+            if (oneByte) {
+                out.put((byte) move);
+            } else {
+                out.putShort((short) move);
+            }
+        }
+    }
+
+    /**
+     * Reads a record at the buffer's position.
+     * @param in The buffer.
+     * @return The record.
+     * @throws IllegalArgumentException if the bytes are not a valid record.
+     */
+    static GameRecord decode(ByteBuffer in) {
+        try {
+            int size = in.get() & 0xFF;
+            int winLength = in.get() & 0xFF;
+            int resultIndex = in.get() & 0xFF;
+            if (resultIndex >= Result.values().length) {
+                throw new IllegalArgumentException("Unknown game result: " + resultIndex);
+            }
+            long startMillis = in.getLong();
+            int durationMillis = in.getInt();
+            String blackName = getName(in);
+            String whiteName = getName(in);
+            int moveCount = in.getShort() & 0xFFFF;
+            int[] moves = new int[moveCount];
+            boolean oneByte = size <= MAX_BYTE_MOVE_SIZE;
+            for (int i = 0; i < moveCount; i++) {
+                moves[i] = oneByte ? in.get() & 0xFF : in.getShort() & 0xFFFF;
+            }
+            return new GameRecord(size, winLength, blackName, whiteName, Result.values()[resultIndex],
+                    startMillis, durationMillis, moves, moveCount);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Game record runs past the end of its block", e);
+        }
+    }
+
+    /**
+     * Encodes a name as UTF-8, cut to MAX_NAME_BYTES (possibly inside a character).
+     */
+    private static byte[] nameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= MAX_NAME_BYTES ? bytes : Arrays.copyOf(bytes, MAX_NAME_BYTES);
+    }
+
+    private static void putName(ByteBuffer out, String name) {
+        byte[] bytes = nameBytes(name);
+        out.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String getName(ByteBuffer in) {
+        byte[] bytes = new byte[in.get() & 0xFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // --- Replay ---
+
+    /**
+     * Plays the moves on a new board.
+     * @param moveCount Number of moves to play (0 to getMoveCount()).
+     * @return The position after that many moves.
+     */
+    public BitBoard replay(int moveCount) {
+        BitBoard board = new BitBoard(size, winLength);
+        for (int i = 0; i < moveCount; i++) {
+            board.placeSymbol(moves[i] / size, moves[i] % size, getMover(i));
+        }
+        return board;
+    }
+
+    /**
+     * @param index Move number (0 is Black's first move).
+     * @return The symbol of the player who made that move.
+     */
+    public static char getMover(int index) {
+        return (index & 1) == 0 ? GameBoard.BLACK : GameBoard.WHITE;
+    }
+
+    // --- Accessors ---
+
+    /** @return The board dimension. */
+    public int getSize() {
+        return size;
+    }
+
+    /** @return The number of stones in a row that won. */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /** @return Black's name. */
+    public String getBlackName() {
+        return blackName;
+    }
+
+    /** @return White's name. */
+    public String getWhiteName() {
+        return whiteName;
+    }
+
+    /** @return How the game ended. */
+    public Result getResult() {
+        return result;
+    }
+
+    /** @return When the game started (milliseconds since the epoch). */
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    /** @return How long the game took in milliseconds. */
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+
+    /** @return Number of moves played. */
+    public int getMoveCount() {
+        return moves.length;
+    }
+
+    /**
+     * @param index Move number (0 is Black's first move).
+     * @return The move as cell r * size + c.
+     */
+    public int getMove(int index) {
+        return moves[index];
+    }
+}
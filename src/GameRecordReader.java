@@ -0,0 +1,158 @@
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reads the {@link GameRecord}s of a game record file (see {@link GameRecordWriter} for the
+ * layout) one at a time. Only the current block is held in memory, so a corpus of millions
+ * of games is read in constant memory:
+ * <pre>
+ *   try (GameRecordReader reader = GameRecordReader.open(path)) {
+ *       for (GameRecord game = reader.next(); game != null; game = reader.next()) { ... }
+ *   }
+ * </pre>
+ * Every block's checksum is verified before its records are decoded. A torn last block
+ * (from a crash while writing) is treated as the end of the file.
+ */
+public final class GameRecordReader implements Closeable {
+
+    // --- Instance Variables ---
+    private final FileChannel channel;
+    /** File offset of the next block. */
+    private long nextBlockOffset = GameRecordWriter.HEADER_BYTES;
+    /** The current block's payload; grown if a block is larger than the writer's blocks. */
+    private ByteBuffer payload = ByteBuffer.allocateDirect(GameRecordWriter.BLOCK_BYTES);
+    private final ByteBuffer blockHeader = ByteBuffer.allocate(GameRecordWriter.BLOCK_HEADER_BYTES);
+    private final CRC32 crc = new CRC32();
+    /** Records of the current block not read yet. */
+    private int blockRecords;
+    /** Records read so far. */
+    private long recordCount;
+    /** Bytes of a torn last block that were ignored (known once the end is reached). */
+    private long ignoredTailBytes;
+
+    /**
+     * Wraps an open file after checking its header.
+     */
+    private GameRecordReader(FileChannel channel) throws IOException {
+        this.channel = channel;
+        GameRecordWriter.checkHeader(channel);
+        payload.limit(0);
+    }
+
+    /**
+     * Opens a game record file for reading.
+     * @param path The file.
+     * @return The reader, positioned before the first record.
+     * @throws IOException if the file cannot be read or is not a game record file.
+     */
+    public static GameRecordReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new GameRecordReader(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Reads the next record.
+     * @return The record, or null at the end of the file.
+     * @throws IOException if the file cannot be read or a block is corrupt.
+     */
+    public GameRecord next() throws IOException {
+        while (blockRecords == 0) {
+            if (!readBlock()) {
+                return null;
+            }
+        }
+        GameRecord record;
+        try {
+            record = GameRecord.decode(payload);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt game record in the block before offset " + nextBlockOffset, e);
+        }
+        blockRecords--;
+        recordCount++;
+        return record;
+    }
+
+    /**
+     * Loads the next block into the payload buffer and verifies its checksum.
+     * @return false at the end of the file (or at a torn last block).
+     */
+    private boolean readBlock() throws IOException {
+        long fileSize = channel.size();
+        if (nextBlockOffset + GameRecordWriter.BLOCK_HEADER_BYTES > fileSize) {
+            ignoredTailBytes = fileSize - nextBlockOffset;
+            return false;
+        }
+        blockHeader.clear();
+        readFully(blockHeader, nextBlockOffset);
+        int payloadLength = blockHeader.getInt(0);
+        int records = blockHeader.getInt(4);
+        int checksum = blockHeader.getInt(8);
+        long payloadOffset = nextBlockOffset + GameRecordWriter.BLOCK_HEADER_BYTES;
+        if (payloadLength < 0 || records < 0 || payloadOffset + payloadLength > fileSize) {
+            ignoredTailBytes = fileSize - nextBlockOffset; // Torn while writing
+            return false;
+        }
+        if (payload.capacity() < payloadLength) {
+            payload = ByteBuffer.allocateDirect(payloadLength);
+        }
+        payload.clear().limit(payloadLength);
+        readFully(payload, payloadOffset);
+        payload.flip();
+        crc.reset();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Corrupt game record block at offset " + nextBlockOffset);
+        }
+        nextBlockOffset = payloadOffset + payloadLength;
+        blockRecords = records;
+        return true;
+    }
+
+    /**
+     * Fills a buffer from a file position.
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of the game record file at offset " + offset);
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Closes the file.
+     * @throws IOException if closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // --- Accessors ---
+
+    /** @return Records read so far. */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /** @return Bytes of a torn last block that were ignored (0 until the end was reached). */
+    public long getIgnoredTailBytes() {
+        return ignoredTailBytes;
+    }
+}
@@ -0,0 +1,222 @@
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;              // The block being filled
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;              // Checksum of each block
+
+/**
+ * Appends {@link GameRecord}s to a game record file. Records are collected in a block of up
+ * to BLOCK_BYTES, which is written with a single channel write once it is full (or on flush
+ * and close), so a large corpus is written in a few large appends.
+ * <p>
+ * File layout (big-endian):
+ * <pre>
+ *   header: int magic "GMKR", int version
+ *   block:  int payload length, int record count, int CRC32 of the payload,
+ *           then the payload: the records, back to back (see GameRecord)
+ * </pre>
+ * A block is only ever appended whole, so a crash can at most leave a torn last block; the
+ * reader ignores it, and reopening the file for writing cuts it off before appending.
+ * <p>
+ * All methods are synchronized: the games of a server or a tournament can share one writer.
+ */
+public final class GameRecordWriter implements Closeable, Flushable {
+
+    // --- File Format ---
+    /** "GMKR" in ASCII. */
+    static final int MAGIC = 0x474D4B52;
+    /** Format version. */
+    static final int VERSION = 1;
+    /** File header size in bytes. */
+    static final int HEADER_BYTES = 8;
+    /** Block header size in bytes. */
+    static final int BLOCK_HEADER_BYTES = 12;
+    /** Size of a block, header included. */
+    static final int BLOCK_BYTES = 64 * 1024;
+
+    // --- Instance Variables ---
+    /** The file, positioned at its end. */
+    private final FileChannel channel;
+    /** The block being filled: its header is written last, the payload starts after it. */
+    private final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_BYTES);
+    private final CRC32 crc = new CRC32();
+    /** Records in the current block. */
+    private int blockRecords;
+    /** Records written through this writer. */
+    private long recordCount;
+    /** Bytes of a torn last block cut off when the file was opened. */
+    private final long truncatedBytes;
+
+    /**
+     * Wraps an open file after checking (or writing) its header.
+     */
+    private GameRecordWriter(FileChannel channel) throws IOException {
+        this.channel = channel;
+        long fileSize = channel.size();
+        if (fileSize == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            writeFully(header, 0);
+            truncatedBytes = 0;
+        } else {
+            checkHeader(channel);
+            long end = endOfLastBlock(channel);
+            truncatedBytes = fileSize - end;
+            if (truncatedBytes > 0) {
+                channel.truncate(end); // Drop the torn block so new blocks are reachable
+            }
+        }
+        channel.position(channel.size());
+        block.position(BLOCK_HEADER_BYTES);
+    }
+
+    /**
+     * Opens a game record file for appending, creating it if needed.
+     * @param path The file.
+     * @return The writer.
+     * @throws IOException if the file cannot be opened or is not a game record file.
+     */
+    public static GameRecordWriter open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            return new GameRecordWriter(channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // --- Writing ---
+
+    /**
+     * Adds a record. It reaches the file when its block is full, or on flush() or close().
+     * @param record The game.
+     * @throws IOException if a full block could not be written.
+     */
+    public synchronized void write(GameRecord record) throws IOException {
+        int length = record.encodedLength();
+        if (length > BLOCK_BYTES - BLOCK_HEADER_BYTES) {
+            throw new IllegalArgumentException("Game record too large: " + length + " bytes"); // Cannot happen up to 32x32
+        }
+        if (length > block.remaining()) {
+            writeBlock();
+        }
+        record.encode(block);
+        blockRecords++;
+        recordCount++;
+    }
+
+    /**
+     * Writes the records added so far to the file.
+     * @throws IOException if the block could not be written.
+     */
+    @Override
+    public synchronized void flush() throws IOException {
+        writeBlock();
+    }
+
+    /**
+     * Writes the last block and closes the file.
+     * @throws IOException if the block could not be written.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            writeBlock();
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Fills in the current block's header and appends the block, if it holds any records.
+     */
+    private void writeBlock() throws IOException {
+        if (blockRecords == 0) {
+            return;
+        }
+        int payloadLength = block.position() - BLOCK_HEADER_BYTES;
+        ByteBuffer payload = block.duplicate();
+        payload.position(BLOCK_HEADER_BYTES).limit(block.position());
+        crc.reset();
+        crc.update(payload);
+        block.putInt(0, payloadLength).putInt(4, blockRecords).putInt(8, (int) crc.getValue());
+        block.flip();
+        writeFully(block, channel.position());
+        block.clear().position(BLOCK_HEADER_BYTES);
+        blockRecords = 0;
+    }
+
+    /**
+     * Writes all of a buffer at a file position and moves the channel past it.
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // --- File Checks (shared with the reader) ---
+
+    /**
+     * Checks the file header.
+     * @throws IOException if the file is not a game record file of a supported version.
+     */
+    static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // Keep reading until the header is complete or the file ends
+        }
+        if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a game record file");
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported game record version: " + header.getInt(4));
+        }
+    }
+
+    /**
+     * Finds the end of the last complete block by walking the block headers (the payloads
+     * are skipped, not read).
+     * @return The file offset just past the last complete block.
+     */
+    private static long endOfLastBlock(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        long offset = HEADER_BYTES;
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_BYTES);
+        while (offset + BLOCK_HEADER_BYTES <= fileSize) {
+            blockHeader.clear();
+            while (blockHeader.hasRemaining() && channel.read(blockHeader, offset + blockHeader.position()) >= 0) {
+                // Keep reading until the block header is complete
+            }
+            int payloadLength = blockHeader.getInt(0);
+            if (payloadLength < 0 || offset + BLOCK_HEADER_BYTES + payloadLength > fileSize) {
+                break; // Torn (or garbled) block
+            }
+            offset += BLOCK_HEADER_BYTES + payloadLength;
+        }
+        return offset;
+    }
+
+    // --- Accessors ---
+
+    /** @return Records written through this writer (including those not flushed yet). */
+    public synchronized long getRecordCount() {
+        return recordCount;
+    }
+
+    /** @return Bytes of a torn last block that were cut off when the file was opened. */
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+}
@@ -1,12 +1,21 @@
 
 
+import java.io.IOException;              // Network move sources can fail
+import java.io.PrintStream;              // Game output (console or network client)
+import java.io.UncheckedIOException;
+import java.nio.file.Files;              // Optional opening book file
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.InputMismatchException; // Used for handling non-integer input
+import java.util.List;                  // The AI's expected line
 import java.util.Scanner;               // Used for getting user input from console
 
 /**
  * The main class for the Gomoku (Five in a Row) game.
  * It orchestrates the game flow, handles user interaction (setup, moves),
  * manages player turns, and utilizes the Board and MinimaxAI classes.
+ * Moves come from a {@link MoveSource} per player, so the same game loop runs a console game
+ * and, in server mode ({@link GomokuServer}), a game with a remote player.
  */
 public class GomokuGame {
 
@@ -17,14 +26,36 @@ public class GomokuGame {
     private static final char PLAYER2_SYMBOL = 'W';
     /** Default search depth for the Minimax AI. Higher values increase difficulty and computation time. */
     private static final int AI_DEPTH = 3; // Can be adjusted
+    /** Opening book used by the AI if present in the working directory (see OpeningBookBuilder). */
+    private static final String BOOK_FILE = "opening.book";
 
     // --- Instance Variables ---
     /** The game board object, managing the grid state. */
     private final Board board;
     /** The AI opponent object. Initialized only if playing against AI. */
     private MinimaxAI ai;
-    /** Scanner object for reading user input from the console. */
+    /** Lets the console game's AI think while the human does (null in Human vs Human and server games). */
+    private Ponderer ponderer;
+    /** The console AI's last search result, whose principal variation predicts the human's reply. */
+    private SearchResult lastAiResult;
+    /** Where finished games are recorded, or null. */
+    private GameRecordWriter gameRecorder;
+    /** Shape scores of the console AI. */
+    private EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    /** Moves of the current game as cells r * size + c, in play order. */
+    private int[] playedMoves;
+    /** Number of moves in playedMoves. */
+    private int playedMoveCount;
+    /** When the current game started (milliseconds since the epoch). */
+    private long gameStartMillis;
+    /** Scanner object for reading user input from the console (null in server mode). */
     private final Scanner scanner;
+    /** Where the game's messages and the board are printed. */
+    private final PrintStream out;
+    /** Source of the human players' moves. */
+    private final MoveSource humanMoves;
+    /** Source of the AI's moves (set up with the players in Human vs AI mode). */
+    private MoveSource aiMoves;
     /** The symbol ('B' or 'W') of the player whose turn it currently is. */
     private char currentPlayerSymbol;
     /** Flag indicating if the game is Human vs AI (true) or Human vs Human (false). */
@@ -40,14 +71,52 @@ public class GomokuGame {
 
     // --- Constructor ---
     /**
-     * Initializes a new Gomoku game instance.
+     * Initializes a new Gomoku game instance on the default 9x9 board (five in a row wins).
      * Creates the game board and the scanner for user input.
      */
     public GomokuGame() {
-        // Create the board object (which initializes the 9x9 grid)
-        board = new Board();
+        this(Board.BOARD_SIZE, Board.WIN_LENGTH);
+    }
+
+    /**
+     * Initializes a new game on a board of any supported size and win length.
+     * @param boardSize The number of rows (and columns), e.g. 15 or 19.
+     * @param winLength The number of symbols in a row that wins.
+     * @throws IllegalArgumentException if the size or win length is not supported.
+     */
+    public GomokuGame(int boardSize, int winLength) {
+        // Create the board object (which initializes the grid)
+        board = new Board(boardSize, winLength);
         // Create the scanner object to read input from System.in (console)
         scanner = new Scanner(System.in);
+        out = System.out;
+        humanMoves = (position, playerName, symbol) -> {
+            startPondering(position); // The AI thinks on while the human does
+            return getPlayerMove(playerName);
+        };
+    }
+
+    /**
+     * Initializes a Human vs AI game whose players are already set up, for server mode.
+     * @param boardSize The number of rows (and columns).
+     * @param winLength The number of symbols in a row that wins.
+     * @param out Where the game's messages and the board are printed.
+     * @param humanName The human player's name.
+     * @param humanSymbol The human player's symbol ('B' or 'W').
+     * @param humanMoves Source of the human player's moves.
+     * @param aiMoves Source of the AI's moves.
+     * @throws IllegalArgumentException if the size or win length is not supported.
+     */
+    public GomokuGame(int boardSize, int winLength, PrintStream out, String humanName, char humanSymbol,
+                      MoveSource humanMoves, MoveSource aiMoves) {
+        this.board = new Board(boardSize, winLength);
+        this.scanner = null;
+        this.out = out;
+        this.humanMoves = humanMoves;
+        this.aiMoves = aiMoves;
+        this.isVsAI = true;
+        assignPlayers(humanName, humanSymbol);
+        this.currentPlayerSymbol = PLAYER1_SYMBOL;
     }
 
     // --- Main Game Orchestration ---
@@ -56,7 +125,11 @@ public class GomokuGame {
      * player setup, game loop execution, and closing resources.
      */
     public void run() {
-        System.out.println("Welcome to Gomoku (Five in a Row)!");
+        out.println("Welcome to Gomoku (Five in a Row)!");
+        if (board.getSize() != Board.BOARD_SIZE || board.getWinLength() != Board.WIN_LENGTH) {
+            out.println("Playing on a " + board.getSize() + "x" + board.getSize() + " board, "
+                    + board.getWinLength() + " in a row wins.");
+        }
         // Ask user to select game mode (HvH or HvAI)
         selectGameMode();
         // Set up player names and symbols based on the selected mode
@@ -64,10 +137,61 @@ public class GomokuGame {
         // Ensure the board is cleared before starting
         board.initialize();
         // Start the main loop where turns are taken
-        gameLoop();
+        try {
+            gameLoop();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // The console move sources do not throw
+        }
         // Close the scanner resource when the game is finished
         scanner.close();
-        System.out.println("Thank you for playing!");
+        if (ponderer != null) {
+            ponderer.close(); // Stops a search still pondering the human's (winning) reply
+        }
+        out.println("Thank you for playing!");
+    }
+
+    /**
+     * Plays a game that was set up by the server-mode constructor.
+     * @return The winner's symbol, or GameBoard.EMPTY_SLOT for a draw or an abandoned game.
+     * @throws IOException if reading a move failed.
+     */
+    public char play() throws IOException {
+        out.println("Welcome to Gomoku (Five in a Row)!");
+        if (board.getSize() != Board.BOARD_SIZE || board.getWinLength() != Board.WIN_LENGTH) {
+            out.println("Playing on a " + board.getSize() + "x" + board.getSize() + " board, "
+                    + board.getWinLength() + " in a row wins.");
+        }
+        out.println(player1Name + " is " + PLAYER1_SYMBOL + " (Black), " + player2Name + " is " + PLAYER2_SYMBOL + " (White)");
+        board.initialize();
+        try {
+            gameLoop();
+        } catch (IOException e) {
+            // The player's connection failed or timed out: record what was played
+            try {
+                recordGame(GameRecord.Result.ABANDONED);
+            } catch (IOException recordError) {
+                e.addSuppressed(recordError);
+            }
+            throw e;
+        }
+        return board.getWinner();
+    }
+
+    /**
+     * Records every game played from now on, when it ends (including abandoned games).
+     * The writer is not closed by the game.
+     * @param gameRecorder The writer, or null to record nothing (the default).
+     */
+    public void setGameRecorder(GameRecordWriter gameRecorder) {
+        this.gameRecorder = gameRecorder;
+    }
+
+    /**
+     * Sets the shape scores of the console AI, for the games set up from now on.
+     * @param weights The weights (EvaluationWeights.DEFAULT by default).
+     */
+    public void setWeights(EvaluationWeights weights) {
+        this.weights = weights;
     }
 
     // --- Setup Methods ---
@@ -77,23 +201,23 @@ public class GomokuGame {
      * Handles input validation.
      */
     private void selectGameMode() {
-        System.out.println("Select Game Mode:");
-        System.out.println("1. Human vs AI");
-        System.out.println("2. Human vs Human");
+        out.println("Select Game Mode:");
+        out.println("1. Human vs AI");
+        out.println("2. Human vs Human");
         int choice = -1; // Initialize with an invalid choice
         // Loop until a valid choice (1 or 2) is entered
         while (choice != 1 && choice != 2) {
-            System.out.print("Enter choice (1 or 2): ");
+            out.print("Enter choice (1 or 2): ");
             try {
                 // Attempt to read an integer from the input
                 choice = scanner.nextInt();
                 // Check if the entered integer is valid
                 if (choice != 1 && choice != 2) {
-                    System.out.println("Invalid choice. Please enter 1 or 2.");
+                    out.println("Invalid choice. Please enter 1 or 2.");
                 }
             } catch (InputMismatchException e) {
                 // Handle cases where the user enters non-numeric input
-                System.out.println("Invalid input. Please enter a number (1 or 2).");
+                out.println("Invalid input. Please enter a number (1 or 2).");
                 scanner.next(); // IMPORTANT: Consume the invalid token to prevent infinite loop
             }
         }
@@ -110,68 +234,86 @@ public class GomokuGame {
     private void setupPlayers() {
         if (isVsAI) {
             // --- Human vs AI Setup ---
-            System.out.print("Enter your name: ");
+            out.print("Enter your name: ");
             String humanName = scanner.nextLine();
 
             // Ask the human player to choose their symbol ('B' or 'W')
             char choice = ' '; // Initialize with invalid char
             while (choice != 'B' && choice != 'W') {
-                System.out.print(humanName + ", choose your symbol ('B' or 'W'): ");
+                out.print(humanName + ", choose your symbol ('B' or 'W'): ");
                 String input = scanner.nextLine().toUpperCase(); // Read input and convert to uppercase
                 // Validate the input
                 if (input.length() == 1 && (input.charAt(0) == 'B' || input.charAt(0) == 'W')) {
                     choice = input.charAt(0); // Valid choice
                 } else {
-                    System.out.println("Invalid input. Please enter 'B' or 'W'.");
+                    out.println("Invalid input. Please enter 'B' or 'W'.");
                 }
             }
-            humanPlayerSymbol = choice;
-            // Assign the remaining symbol to the AI
-            aiPlayerSymbol = (humanPlayerSymbol == PLAYER1_SYMBOL) ? PLAYER2_SYMBOL : PLAYER1_SYMBOL;
-
-            // Assign player names based on who gets 'B' (Player 1 always starts)
-            if (humanPlayerSymbol == PLAYER1_SYMBOL) {
-                player1Name = humanName; // Human is Player 1 (Black)
-                player2Name = "AI";      // AI is Player 2 (White)
-            } else {
-                player1Name = "AI";      // AI is Player 1 (Black)
-                player2Name = humanName; // Human is Player 2 (White)
-            }
+            assignPlayers(humanName, choice);
 
-            System.out.println(humanName + " is " + humanPlayerSymbol);
-            System.out.println("AI is " + aiPlayerSymbol);
+            out.println(humanName + " is " + humanPlayerSymbol);
+            out.println("AI is " + aiPlayerSymbol);
 
             // Initialize the AI object with the chosen depth and assigned symbols
             ai = new MinimaxAI(AI_DEPTH, aiPlayerSymbol, humanPlayerSymbol);
+            ai.setWeights(weights);
+            ai.setOpeningBook(loadOpeningBook());
+            ponderer = new Ponderer(ai);
+            aiMoves = (position, playerName, symbol) -> searchAiMove();
 
         } else {
             // --- Human vs Human Setup ---
-            System.out.print("Enter Player 1's name (will be Black '" + PLAYER1_SYMBOL + "'): ");
+            out.print("Enter Player 1's name (will be Black '" + PLAYER1_SYMBOL + "'): ");
             player1Name = scanner.nextLine();
-            System.out.print("Enter Player 2's name (will be White '" + PLAYER2_SYMBOL + "'): ");
+            out.print("Enter Player 2's name (will be White '" + PLAYER2_SYMBOL + "'): ");
             player2Name = scanner.nextLine();
             // Display assigned symbols
-            System.out.println(player1Name + " is " + PLAYER1_SYMBOL + " (Black)");
-            System.out.println(player2Name + " is " + PLAYER2_SYMBOL + " (White)");
+            out.println(player1Name + " is " + PLAYER1_SYMBOL + " (Black)");
+            out.println(player2Name + " is " + PLAYER2_SYMBOL + " (White)");
         }
         // Set the starting player (Black always starts)
         currentPlayerSymbol = PLAYER1_SYMBOL;
     }
 
+    /**
+     * Assigns the symbols and names of a Human vs AI game.
+     * @param humanName The human player's name.
+     * @param humanSymbol The symbol chosen by the human player.
+     */
+    private void assignPlayers(String humanName, char humanSymbol) {
+        humanPlayerSymbol = humanSymbol;
+        // Assign the remaining symbol to the AI
+        aiPlayerSymbol = (humanPlayerSymbol == PLAYER1_SYMBOL) ? PLAYER2_SYMBOL : PLAYER1_SYMBOL;
+
+        // Assign player names based on who gets 'B' (Player 1 always starts)
+        if (humanPlayerSymbol == PLAYER1_SYMBOL) {
+            player1Name = humanName; // Human is Player 1 (Black)
+            player2Name = "AI";      // AI is Player 2 (White)
+        } else {
+            player1Name = "AI";      // AI is Player 1 (Black)
+            player2Name = humanName; // Human is Player 2 (White)
+        }
+    }
+
 
     // --- Core Game Loop ---
     /**
-     * Contains the main loop of the game where players take turns until a win or draw occurs.
+     * Contains the main loop of the game where players take turns until a win or draw occurs
+     * (or a player leaves).
+     * @throws IOException if reading a move failed.
      */
-    private void gameLoop() {
+    private void gameLoop() throws IOException {
         boolean gameWon = false;  // Flag to indicate if a player has won
         boolean boardFull = false; // Flag to indicate if the board is full (draw)
         int lastRow = -1, lastCol = -1; // Store coordinates of the last move for win checking
+        playedMoves = new int[board.getSize() * board.getSize()]; // Kept for the game record
+        playedMoveCount = 0;
+        gameStartMillis = System.currentTimeMillis();
 
         // Loop continues as long as no one has won AND the board is not full
         while (!gameWon && !boardFull) {
             // Display the current board state
-            board.display();
+            board.display(out);
             // Get the name of the player whose turn it is
             String currentPlayerName = getCurrentPlayerName();
             // Determine if the current player is the AI
@@ -181,13 +323,18 @@ public class GomokuGame {
 
             // --- Get Move ---
             if (isCurrentPlayerAI) {
-                // If it's the AI's turn, call the AI's method to find the best move
-                move = ai.findBestMove(board);
+                // If it's the AI's turn, ask the AI's move source (it searches)
+                move = aiMoves.nextMove(board, currentPlayerName, currentPlayerSymbol);
                 // Display the AI's chosen move
-                System.out.println(currentPlayerName + " (" + currentPlayerSymbol + ") places at (" + move[0] + ", " + move[1] + ")");
+                out.println(currentPlayerName + " (" + currentPlayerSymbol + ") places at (" + move[0] + ", " + move[1] + ")");
             } else {
                 // If it's a human player's turn, prompt for input
-                move = getPlayerMove(currentPlayerName);
+                move = humanMoves.nextMove(board, currentPlayerName, currentPlayerSymbol);
+                if (move == null) {
+                    out.println("GAME OVER! " + currentPlayerName + " (" + currentPlayerSymbol + ") left the game.");
+                    recordGame(GameRecord.Result.ABANDONED);
+                    return;
+                }
             }
 
             // Store the coordinates of the move made
@@ -200,13 +347,15 @@ public class GomokuGame {
 
             // This check should ideally not fail due to prior validation, but good practice
             if (!moveSuccess) {
-                System.out.println("Error: Invalid move attempted during placement. Turn skipped (THIS SHOULD NOT HAPPEN).");
+                out.println("Error: Invalid move attempted during placement. Turn skipped (THIS SHOULD NOT HAPPEN).");
                 continue; // Skip to the next iteration (potentially problematic, should ideally not be reachable)
             }
+            playedMoves[playedMoveCount++] = lastRow * board.getSize() + lastCol;
 
             // --- Check Game End Conditions ---
             // Check if the move just made resulted in a win for the current player
-            gameWon = board.checkWin(lastRow, lastCol, currentPlayerSymbol);
+            // (placeSymbol already checked the lines through the new stone)
+            gameWon = board.getWinner() == currentPlayerSymbol;
 
             // If no win occurred, check if the board is now full (resulting in a draw)
             if (!gameWon) {
@@ -223,10 +372,96 @@ public class GomokuGame {
         // --- Game Over ---
         // Display the final result (win or draw)
         displayResult(gameWon, boardFull);
+        if (gameWon) {
+            recordGame(currentPlayerSymbol == GameBoard.BLACK ? GameRecord.Result.BLACK_WINS : GameRecord.Result.WHITE_WINS);
+        } else {
+            recordGame(GameRecord.Result.DRAW);
+        }
     } // End of gameLoop method
 
     // --- Helper Methods ---
 
+    /**
+     * Writes the current game to the game recorder, if one is set.
+     * @param result How the game ended.
+     * @throws IOException if the record could not be written.
+     */
+    private void recordGame(GameRecord.Result result) throws IOException {
+        if (gameRecorder == null || playedMoves == null) {
+            return;
+        }
+        long durationMillis = System.currentTimeMillis() - gameStartMillis;
+        gameRecorder.write(new GameRecord(board.getSize(), board.getWinLength(), player1Name, player2Name, result,
+                gameStartMillis, (int) Math.min(durationMillis, Integer.MAX_VALUE), playedMoves, playedMoveCount));
+    }
+
+    /**
+     * Opens the opening book file (BOOK_FILE in the working directory) if there is one.
+     * @return The book, or null to let the AI search every move.
+     */
+    private OpeningBook loadOpeningBook() {
+        Path path = Paths.get(BOOK_FILE);
+        if (!Files.isRegularFile(path) || board.getWinLength() != Board.WIN_LENGTH) {
+            return null; // Books are built from five-in-a-row self-play
+        }
+        try {
+            return OpeningBook.open(path);
+        } catch (IOException e) {
+            out.println("Could not read the opening book (" + e.getMessage() + "); the AI will search every move.");
+            return null;
+        }
+    }
+
+    /**
+     * Lets the console game's AI search the current position and reports how it went.
+     * @return The AI's move `[row, col]`.
+     */
+    private int[] searchAiMove() {
+        // The engine prints nothing itself, so the game reports its progress
+        out.println("AI (" + aiPlayerSymbol + ") is thinking (" + ai.getDefaultLimits() + ")...");
+        long start = System.nanoTime();
+        SearchResult result = ponderer.takeResult(board, ai.getDefaultLimits());
+        boolean pondered = result != null;
+        if (!pondered) {
+            result = ai.search(board, ai.getDefaultLimits());
+        }
+        lastAiResult = result;
+        if (pondered) {
+            out.println("AI predicted your move and thought about it on your time: answered in "
+                    + (System.nanoTime() - start) / 1_000_000L + " ms (depth " + result.getDepth()
+                    + ", score " + result.getScore() + ").");
+        } else if (result.isBookMove()) {
+            out.println("AI played a move from the opening book.");
+        } else if (result.isForcedWin()) {
+            out.println("AI found a forced win by continuous fours.");
+        } else if (result.isCachedMove()) {
+            out.println("AI remembered this position (depth " + result.getDepth() + ", score " + result.getScore() + ").");
+        } else {
+            out.println("AI decision time: " + result.getStats().getTimeNanos() / 1_000_000L
+                    + " ms. Best score evaluated: " + result.getScore() + " (" + result.getStats() + ")");
+            List<int[]> line = result.getPrincipalVariation();
+            if (line.size() > 1) {
+                // The line the AI expects: a hint for the human's reply
+                StringBuilder expected = new StringBuilder("AI expects:");
+                for (int[] move : line) {
+                    expected.append(" (").append(move[0]).append(", ").append(move[1]).append(')');
+                }
+                out.println(expected);
+            }
+        }
+        return result.getMove();
+    }
+
+    /**
+     * Starts pondering the human's predicted reply, if the AI's last search predicted one.
+     * @param position The current position, with the human to move.
+     */
+    private void startPondering(GameBoard position) {
+        if (ponderer != null && lastAiResult != null) {
+            ponderer.start(position, lastAiResult, ai.getDefaultLimits());
+        }
+    }
+
     /**
      * Prompts the current human player for their move (row and column).
      * Includes input validation to ensure the move is within bounds and on an empty cell.
@@ -241,12 +476,12 @@ public class GomokuGame {
 
         // Loop until valid input is received
         while (!validInput) {
-            System.out.println(playerName + "'s (" + currentPlayerSymbol + ") turn.");
-            System.out.print("Enter row (0-" + (boardSize - 1) + "): ");
+            out.println(playerName + "'s (" + currentPlayerSymbol + ") turn.");
+            out.print("Enter row (0-" + (boardSize - 1) + "): ");
             try {
                 // Attempt to read the row number
                 row = scanner.nextInt();
-                System.out.print("Enter column (0-" + (boardSize - 1) + "): ");
+                out.print("Enter column (0-" + (boardSize - 1) + "): ");
                 // Attempt to read the column number
                 col = scanner.nextInt();
 
@@ -257,15 +492,15 @@ public class GomokuGame {
                         validInput = true; // Input is valid! Exit the loop.
                     } else {
                         // Cell is already occupied
-                        System.out.println("Cell (" + row + "," + col + ") is already occupied. Try again.");
+                        out.println("Cell (" + row + "," + col + ") is already occupied. Try again.");
                     }
                 } else {
                     // Coordinates are outside the board boundaries
-                    System.out.println("Invalid coordinates. Row/Col must be between 0 and " + (boardSize - 1) + ". Try again.");
+                    out.println("Invalid coordinates. Row/Col must be between 0 and " + (boardSize - 1) + ". Try again.");
                 }
             } catch (InputMismatchException e) {
                 // Catch errors if the user enters something that's not an integer
-                System.out.println("Invalid input. Please enter numbers for row and column.");
+                out.println("Invalid input. Please enter numbers for row and column.");
                 // scanner.next(); // Consume the invalid token that caused the exception
                 // It's safer to consume the entire line after an error to clear the buffer
                 if(scanner.hasNextLine()) scanner.nextLine();
@@ -279,7 +514,7 @@ public class GomokuGame {
                     String leftover = scanner.nextLine();
                     if (!leftover.trim().isEmpty()) {
                         // If the user typed extra characters after the valid column number (e.g., "3 abc")
-                        System.out.println("Unexpected input after column number. Please enter row and column only.");
+                        out.println("Unexpected input after column number. Please enter row and column only.");
                         validInput = false; // Mark input as invalid again to re-prompt
                     }
                 } else if (!validInput && scanner.hasNextLine()){
@@ -321,19 +556,19 @@ public class GomokuGame {
      * @param draw True if the game ended in a draw (board full, no winner), false otherwise.
      */
     private void displayResult(boolean win, boolean draw) {
-        board.display(); // Show the final board configuration
-        System.out.println("***********************************"); // Separator line
+        board.display(out); // Show the final board configuration
+        out.println("***********************************"); // Separator line
         if (win) {
             // If the 'win' flag is true, display the winner's name and symbol
-            System.out.println("GAME OVER! " + getCurrentPlayerName() + " (" + currentPlayerSymbol + ") wins!");
+            out.println("GAME OVER! " + getCurrentPlayerName() + " (" + currentPlayerSymbol + ") wins!");
         } else if (draw) {
             // If the 'draw' flag is true, declare a draw
-            System.out.println("GAME OVER! It's a draw!");
+            out.println("GAME OVER! It's a draw!");
         } else {
             // This case should ideally not be reached if the game loop logic is correct
-            System.out.println("GAME OVER! (Unexpected state - No win or draw detected)");
+            out.println("GAME OVER! (Unexpected state - No win or draw detected)");
         }
-        System.out.println("***********************************"); // Separator line
+        out.println("***********************************"); // Separator line
     }
 
 
@@ -341,11 +576,23 @@ public class GomokuGame {
     /**
      * The main method where program execution begins.
      * Creates an instance of the GomokuGame and starts the game by calling the run() method.
-     * @param args Command-line arguments (not used in this application).
+     * Usage: java GomokuGame [boardSize] [winLength] [recordFile] (defaults: 9, 5 and no record).
+     * @param args Optional board size, win length and game record file to append the game to.
+     * @throws IOException if the game record file cannot be opened or written.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        int boardSize = args.length > 0 ? Integer.parseInt(args[0]) : Board.BOARD_SIZE;
+        int winLength = args.length > 1 ? Integer.parseInt(args[1]) : Board.WIN_LENGTH;
         // Create a new GomokuGame object
-        GomokuGame game = new GomokuGame();
+        GomokuGame game = new GomokuGame(boardSize, winLength);
+        game.setWeights(EvaluationWeights.loadStartupWeights()); // Tuned weights, if WeightTuner wrote any
+        if (args.length > 2) {
+            try (GameRecordWriter recorder = GameRecordWriter.open(Paths.get(args[2]))) {
+                game.setGameRecorder(recorder);
+                game.run();
+            }
+            return;
+        }
         // Start the game execution flow
         game.run();
     } 
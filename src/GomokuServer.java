@@ -0,0 +1,525 @@
+
+import java.io.BufferedOutputStream; // Buffered client output, flushed per line
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException; // Interrupted while waiting for the AI
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;  // Set of open client connections
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;         // Admission control
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server mode: hosts many Human vs AI games in one process over a line-based TCP protocol.
+ * <p>
+ * Each connection is one game. The server asks for the player's name and symbol, then runs
+ * the normal {@link GomokuGame} loop with the player's moves read from the connection
+ * ({@link SocketMoveSource}) and the board and messages written back to it. Any line-based
+ * client works, e.g. {@code nc localhost 4000}: moves are sent as "row col", "quit" leaves.
+ * <ul>
+ *   <li>Sessions: every game runs on its own virtual thread (Java 21+; the executor is looked
+ *       up by reflection so the code still builds for Java 8). On older runtimes a platform
+ *       thread with a small stack is used instead.</li>
+ *   <li>AI searches: dispatched to a fixed pool with one thread per CPU, so searching games
+ *       cannot starve the threads that serve I/O. The engines live on the pool threads (one
+ *       per symbol), so a game only holds its board and the memory per game stays small.</li>
+ *   <li>Board: all games of a server are played on one board size and win length (the
+ *       default 9x9, five in a row, or e.g. 15x15 Gomoku), and the position cache is opened
+ *       for the same size.</li>
+ *   <li>Admission control: at most maxGames games run at once; further connections are told
+ *       the server is busy and closed.</li>
+ *   <li>Time budgets: each game's AI has a total thinking budget that it spreads over its
+ *       moves; once it is used up, the AI plays shallow fixed-depth moves. A move is charged
+ *       from the moment it is queued for the pool, so time spent waiting for a busy pool
+ *       counts too. The human player's moves are limited by a read timeout.</li>
+ *   <li>Position cache: optionally, all engines share one persistent {@link PositionCache},
+ *       so positions solved in one game (or before a restart) are answered at once.</li>
+ *   <li>Game records: optionally, every game (abandoned ones included) is appended to one
+ *       game record file through a shared {@link GameRecordWriter}.</li>
+ * </ul>
+ *
+ * Usage: java GomokuServer [port] [maxGames] [aiThreads] [aiBudgetMillis] [cacheFile] [recordFile]
+ * [boardSize] [winLength]
+ * (defaults: 4000, 1000 games, one AI thread per processor, 30000 ms per game, no cache, no records,
+ * a 9x9 board with five in a row; "-" for cacheFile or recordFile uses none)
+ */
+public class GomokuServer implements Closeable {
+
+    // --- Defaults ---
+    /** Default TCP port. */
+    public static final int DEFAULT_PORT = 4000;
+    /** Default maximum number of games played at once. */
+    public static final int DEFAULT_MAX_GAMES = 1000;
+    /** Default total AI thinking time per game in milliseconds. */
+    public static final long DEFAULT_AI_BUDGET_MILLIS = 30_000;
+    /** Default time a human player has for each move (and for the setup questions). */
+    public static final int DEFAULT_MOVE_TIMEOUT_MILLIS = 5 * 60_000;
+
+    /** The AI's budget is spread as if this many of its moves were still to come. */
+    private static final int MOVES_TO_PLAN = 20;
+    /** No move gets less thinking time than this while budget is left. */
+    private static final long MIN_MOVE_MILLIS = 20;
+    /** Search depth once a game's budget is used up. */
+    private static final int FALLBACK_DEPTH = 2;
+    /** Entries of each engine's transposition table. */
+    private static final int ENGINE_TABLE_ENTRIES = TranspositionTable.DEFAULT_CAPACITY;
+    /** Stack size of session threads when virtual threads are not available. */
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    // --- Instance Variables ---
+    /** The listening socket. */
+    private final ServerSocket serverSocket;
+    /** Free game slots (admission control). */
+    private final Semaphore gameSlots;
+    /** Total AI thinking time per game in milliseconds. */
+    private final long aiBudgetMillis;
+    /** Read timeout for the human player's input in milliseconds. */
+    private final int moveTimeoutMillis;
+    /** Number of rows (and columns) of every game's board. */
+    private final int boardSize;
+    /** Number of symbols in a row that wins every game. */
+    private final int winLength;
+    /** Runs one session per connection (virtual threads when available). */
+    private final ExecutorService sessions;
+    /** Runs the AI searches (one platform thread per AI thread). */
+    private final ExecutorService aiPool;
+    /** Connections of the games being played, closed by close(). */
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    /** Engines of the current AI pool thread: index 0 plays Black, 1 plays White. */
+    private final ThreadLocal<MinimaxAI[]> engines = ThreadLocal.withInitial(() -> new MinimaxAI[2]);
+    /** Position cache shared by all engines, or null. */
+    private volatile PositionCache positionCache;
+    /** Where all games are recorded, or null. */
+    private volatile GameRecordWriter gameRecorder;
+    /** Shape scores of the engines. */
+    private volatile EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    /** Number of games being played. */
+    private final AtomicInteger activeGames = new AtomicInteger();
+    /** Number of games finished (including abandoned ones). */
+    private final AtomicInteger finishedGames = new AtomicInteger();
+    /** Number of connections turned away because the server was full. */
+    private final AtomicInteger rejectedGames = new AtomicInteger();
+
+    // --- Constructors ---
+
+    /**
+     * Starts listening on the given port (use 0 for any free port, see getPort()), with games
+     * on the default 9x9 board (five in a row wins).
+     * @param port TCP port.
+     * @param maxGames Maximum number of games played at once.
+     * @param aiThreads Number of threads running AI searches (usually the number of CPUs).
+     * @param aiBudgetMillis Total AI thinking time per game in milliseconds.
+     * @param moveTimeoutMillis Time a human player has for each answer in milliseconds.
+     * @throws IOException if the port cannot be bound.
+     */
+    public GomokuServer(int port, int maxGames, int aiThreads, long aiBudgetMillis, int moveTimeoutMillis) throws IOException {
+        this(port, maxGames, aiThreads, aiBudgetMillis, moveTimeoutMillis, Board.BOARD_SIZE, Board.WIN_LENGTH);
+    }
+
+    /**
+     * Starts listening on the given port (use 0 for any free port, see getPort()).
+     * @param port TCP port.
+     * @param maxGames Maximum number of games played at once.
+     * @param aiThreads Number of threads running AI searches (usually the number of CPUs).
+     * @param aiBudgetMillis Total AI thinking time per game in milliseconds.
+     * @param moveTimeoutMillis Time a human player has for each answer in milliseconds.
+     * @param boardSize The number of rows (and columns) of every game's board.
+     * @param winLength The number of symbols in a row that wins.
+     * @throws IOException if the port cannot be bound.
+     * @throws IllegalArgumentException if a setting is invalid or the board is not supported.
+     */
+    public GomokuServer(int port, int maxGames, int aiThreads, long aiBudgetMillis, int moveTimeoutMillis,
+                        int boardSize, int winLength) throws IOException {
+        Board.checkDimensions(boardSize, winLength);
+        if (maxGames < 1 || aiThreads < 1 || aiBudgetMillis < 0 || moveTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Invalid server settings: games " + maxGames + ", AI threads " + aiThreads
+                    + ", budget " + aiBudgetMillis + " ms, move timeout " + moveTimeoutMillis + " ms");
+        }
+        this.gameSlots = new Semaphore(maxGames);
+        this.aiBudgetMillis = aiBudgetMillis;
+        this.moveTimeoutMillis = moveTimeoutMillis;
+        this.boardSize = boardSize;
+        this.winLength = winLength;
+        this.serverSocket = new ServerSocket(port, maxGames);
+        this.sessions = newSessionExecutor();
+        this.aiPool = Executors.newFixedThreadPool(aiThreads, daemonThreads("gomoku-ai-", 0));
+    }
+
+    // --- Serving ---
+
+    /**
+     * Accepts connections until the server is closed. Each accepted connection is played on
+     * its own session thread; connections beyond maxGames are rejected immediately.
+     * @throws IOException if accepting fails for a reason other than close().
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return; // close() was called
+                }
+                throw e;
+            }
+            if (!gameSlots.tryAcquire()) {
+                rejectedGames.incrementAndGet();
+                reject(socket);
+                continue;
+            }
+            sessions.execute(() -> {
+                activeGames.incrementAndGet();
+                try {
+                    playGame(socket);
+                } finally {
+                    activeGames.decrementAndGet();
+                    finishedGames.incrementAndGet();
+                    gameSlots.release();
+                }
+            });
+        }
+    }
+
+    /**
+     * Plays one game over a connection and closes it. Errors end only this game.
+     * @param socket The client connection.
+     */
+    private void playGame(Socket socket) {
+        clients.add(socket);
+        try (Socket client = socket) {
+            if (serverSocket.isClosed()) {
+                return; // close() ran before the connection was registered
+            }
+            client.setSoTimeout(moveTimeoutMillis);
+            client.setTcpNoDelay(true); // Short request/response lines
+            BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            PrintStream out = new PrintStream(new BufferedOutputStream(client.getOutputStream()), true, "UTF-8");
+            SocketMoveSource humanMoves = new SocketMoveSource(in, out);
+
+            // --- Setup: the same questions as the console game ---
+            String name = humanMoves.readLine("Enter your name: ");
+            if (name == null) {
+                return;
+            }
+            char symbol = ' ';
+            while (symbol != GameBoard.BLACK && symbol != GameBoard.WHITE) {
+                String input = humanMoves.readLine(name + ", choose your symbol ('B' or 'W'): ");
+                if (input == null) {
+                    return;
+                }
+                input = input.trim().toUpperCase();
+                if (input.length() == 1) {
+                    symbol = input.charAt(0);
+                }
+            }
+            GomokuGame game = new GomokuGame(boardSize, winLength, out, name, symbol, humanMoves, new PooledAiMoves(out));
+            game.setGameRecorder(gameRecorder);
+            game.play();
+        } catch (SocketTimeoutException e) {
+            // The player did not answer in time; the game is abandoned
+        } catch (InterruptedIOException e) {
+            Thread.currentThread().interrupt(); // Server shutting down
+        } catch (IOException e) {
+            // Connection lost (or closed by close()); only this game ends
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    /**
+     * Tells a client the server is full and closes the connection.
+     */
+    private static void reject(Socket socket) {
+        try (Socket client = socket) {
+            client.getOutputStream().write("Server busy, try again later.\n".getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            // The client is turned away either way
+        }
+    }
+
+    /**
+     * Gets the engine of the current AI pool thread that plays the given symbol, creating it
+     * on first use. An engine keeps its transposition table from game to game.
+     */
+    private MinimaxAI engine(char symbol) {
+        MinimaxAI[] threadEngines = engines.get();
+        int index = symbol == GameBoard.BLACK ? 0 : 1;
+        if (threadEngines[index] == null) {
+            char opponent = symbol == GameBoard.BLACK ? GameBoard.WHITE : GameBoard.BLACK;
+            threadEngines[index] = new MinimaxAI(SearchLimits.depth(FALLBACK_DEPTH), symbol, opponent,
+                    new TranspositionTable(ENGINE_TABLE_ENTRIES, TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+        }
+        if (threadEngines[index].getWeights() != weights) {
+            threadEngines[index].setWeights(weights); // Clears the engine's table, so only when they change
+        }
+        threadEngines[index].setPositionCache(positionCache);
+        return threadEngines[index];
+    }
+
+    /**
+     * One game's AI player: runs each search on the AI pool and keeps the game's time budget.
+     */
+    private final class PooledAiMoves implements MoveSource {
+        /** The game's output. */
+        private final PrintStream out;
+        /** AI thinking time left in this game, in milliseconds. */
+        private long remainingMillis = aiBudgetMillis;
+
+        PooledAiMoves(PrintStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public int[] nextMove(GameBoard board, String playerName, char symbol) throws IOException {
+            // Spread the remaining budget over the moves still to come; once it is used up,
+            // fall back to a shallow fixed-depth search.
+            SearchLimits limits = remainingMillis > 0
+                    ? SearchLimits.time(Math.min(remainingMillis, Math.max(MIN_MOVE_MILLIS, remainingMillis / MOVES_TO_PLAN)))
+                    : SearchLimits.depth(FALLBACK_DEPTH);
+            out.println("AI (" + symbol + ") is thinking (" + limits + ")...");
+            // The game thread waits for the result, so the board is not modified meanwhile
+            long submitNanos = System.nanoTime();
+            PooledSearch pooled = new PooledSearch(board, symbol, limits, submitNanos);
+            Future<SearchResult> search = aiPool.submit(pooled);
+            SearchResult result;
+            try {
+                result = search.get();
+            } catch (InterruptedException e) {
+                pooled.abandon(); // Frees the pool thread: the engine does not check the interrupt flag
+                search.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the AI");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("AI search failed", e.getCause());
+            }
+            // Charge the wall-clock time since the search was queued, not only the search itself
+            long elapsedMillis = (System.nanoTime() - submitNanos) / 1_000_000L;
+            remainingMillis = Math.max(0, remainingMillis - elapsedMillis);
+            out.println("AI decision time: " + elapsedMillis + " ms (" + remainingMillis + " ms left for this game).");
+            return result.getMove();
+        }
+    }
+
+    /**
+     * One AI search on the pool that the waiting game thread can abandon. The engine only
+     * polls its own stop flag, never the thread's interrupt flag, so cancelling the future
+     * alone would leave the search holding its pool thread until it finished; abandon()
+     * stops the engine instead, as Ponderer does. A time-limited search is shortened by the
+     * time it waited in the pool's queue (to no less than MIN_MOVE_MILLIS).
+     */
+    private final class PooledSearch implements Callable<SearchResult> {
+        /** The position to search. */
+        private final GameBoard board;
+        /** The AI's symbol (selects the pool thread's engine). */
+        private final char symbol;
+        /** The search limits, counted from submitNanos. */
+        private final SearchLimits limits;
+        /** When the search was queued (System.nanoTime()). */
+        private final long submitNanos;
+        /** The engine while this search runs on it, otherwise null. */
+        private volatile MinimaxAI engine;
+        /** Set when the game thread no longer waits for the result. */
+        private volatile boolean abandoned;
+
+        PooledSearch(GameBoard board, char symbol, SearchLimits limits, long submitNanos) {
+            this.board = board;
+            this.symbol = symbol;
+            this.limits = limits;
+            this.submitNanos = submitNanos;
+        }
+
+        @Override
+        public SearchResult call() {
+            SearchLimits searchLimits = limits;
+            if (limits.hasTimeLimit()) {
+                long queuedMillis = (System.nanoTime() - submitNanos) / 1_000_000L;
+                searchLimits = SearchLimits.time(Math.max(MIN_MOVE_MILLIS, limits.getTimeMillis() - queuedMillis));
+            }
+            MinimaxAI ai = engine(symbol);
+            ai.clearStop(); // A stop that arrived after this engine's previous search had returned
+            engine = ai;
+            try {
+                // Checked after publishing the engine: abandon() either sees the engine or is seen here
+                return abandoned ? null : ai.search(board, searchLimits);
+            } finally {
+                engine = null;
+            }
+        }
+
+        /**
+         * Stops the search if it is running, and keeps it from starting if it is not.
+         */
+        void abandon() {
+            abandoned = true;
+            MinimaxAI ai = engine;
+            if (ai != null) {
+                ai.stop(); // The search returns its last completed depth, which nobody reads
+            }
+        }
+    }
+
+    // --- Threads ---
+
+    /**
+     * Creates the session executor: one virtual thread per task when the runtime has them
+     * (Java 21+), otherwise one small-stack daemon platform thread per task.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(daemonThreads("gomoku-session-", PLATFORM_STACK_SIZE));
+        }
+    }
+
+    /**
+     * Creates a factory for named daemon threads.
+     * @param prefix Thread name prefix.
+     * @param stackSize Requested stack size in bytes, or 0 for the default.
+     */
+    private static ThreadFactory daemonThreads(String prefix, long stackSize) {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(null, task, prefix + counter.incrementAndGet(), stackSize);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // --- Lifecycle and Accessors ---
+
+    /**
+     * Stops accepting connections and ends the running games: their connections are closed,
+     * which also wakes session threads blocked reading a move (interrupting those is not
+     * enough for platform threads).
+     * @throws IOException if closing the listening socket failed.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket client : clients) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                // The game ends either way
+            }
+        }
+        sessions.shutdownNow();
+        aiPool.shutdownNow();
+    }
+
+    /**
+     * Waits for the running games to end after close().
+     * @param timeoutMillis Maximum time to wait.
+     * @return true if all games ended.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeoutMillis) throws InterruptedException {
+        return sessions.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Shares a position cache between all engines of the server. The cache is not closed by
+     * the server.
+     * @param positionCache The cache, or null to use none (the default).
+     */
+    public void setPositionCache(PositionCache positionCache) {
+        this.positionCache = positionCache;
+    }
+
+    /**
+     * Records the games of the server. The writer is shared by all games and not closed by
+     * the server.
+     * @param gameRecorder The writer, or null to record nothing (the default).
+     */
+    public void setGameRecorder(GameRecordWriter gameRecorder) {
+        this.gameRecorder = gameRecorder;
+    }
+
+    /**
+     * Sets the shape scores of all engines, for the searches started from now on.
+     * @param weights The weights (EvaluationWeights.DEFAULT by default).
+     */
+    public void setWeights(EvaluationWeights weights) {
+        this.weights = weights;
+    }
+
+    /** @return The port the server listens on. */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** @return The number of rows (and columns) of every game's board. */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /** @return The number of symbols in a row that wins. */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    /** @return Number of games being played. */
+    public int getActiveGames() {
+        return activeGames.get();
+    }
+
+    /** @return Number of games finished so far. */
+    public int getFinishedGames() {
+        return finishedGames.get();
+    }
+
+    /** @return Number of connections rejected because the server was full. */
+    public int getRejectedGames() {
+        return rejectedGames.get();
+    }
+
+    // --- Entry Point ---
+
+    /**
+     * Runs the server until the process is stopped.
+     * @param args Optional port, maximum number of games, AI threads, AI budget per game (ms),
+     *             position cache file, game record file, board size and win length.
+     * @throws IOException if the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int maxGames = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_GAMES;
+        int aiThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long budget = args.length > 3 ? Long.parseLong(args[3]) : DEFAULT_AI_BUDGET_MILLIS;
+        int boardSize = args.length > 6 ? Integer.parseInt(args[6]) : Board.BOARD_SIZE;
+        int winLength = args.length > 7 ? Integer.parseInt(args[7]) : Board.WIN_LENGTH;
+        try (GomokuServer server = new GomokuServer(port, maxGames, aiThreads, budget, DEFAULT_MOVE_TIMEOUT_MILLIS,
+                boardSize, winLength);
+             GameRecordWriter recorder = args.length > 5 && !args[5].equals("-") ? GameRecordWriter.open(Paths.get(args[5])) : null) {
+            server.setGameRecorder(recorder);
+            server.setWeights(EvaluationWeights.loadStartupWeights()); // Tuned weights, if WeightTuner wrote any
+            if (args.length > 4 && !args[4].equals("-")) {
+                PositionCache cache = PositionCache.shared(Paths.get(args[4]), boardSize, winLength);
+                server.setPositionCache(cache);
+                System.out.println("Loaded " + cache.getRecordCount() + " cached positions from " + args[4]
+                        + (cache.getIgnoredTailBytes() > 0 ? " (ignored a torn tail of " + cache.getIgnoredTailBytes() + " bytes)" : ""));
+            }
+            System.out.println("Gomoku server listening on port " + server.getPort()
+                    + " (max " + maxGames + " games, " + aiThreads + " AI threads, " + budget + " ms AI time per game, "
+                    + boardSize + "x" + boardSize + " board, " + winLength + " in a row)");
+            server.serve();
+        }
+    }
+}
@@ -1,43 +1,126 @@
 
-import java.util.ArrayList; // Used for storing best moves
+import java.io.Flushable;   // Flushes the statistics log after each search
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList; // Helper task lists
+import java.util.Arrays;    // Copies of the result's moves
 import java.util.List;      // Interface for ArrayList
 import java.util.Random;    // Used for potentially randomizing equally good moves
+import java.util.concurrent.ForkJoinPool; // Runs parallel root searches
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger; // Shared alpha bound and root move cursor
 
 /**
  * Implements the AI opponent logic using the Minimax algorithm with Alpha-Beta Pruning.
  * It evaluates board states and explores possible future moves to determine the optimal move.
+ *
+ * The recursive search itself runs in {@link SearchWorker}s, which all share one lock-free
+ * transposition table. By default one worker searches on the calling thread; with a
+ * ForkJoinPool set (see setSearchPool) one worker runs per pool thread, in one of two modes:
+ * <ul>
+ *   <li>ROOT_SPLIT: the first (best-ordered) root move is searched alone to establish a
+ *       bound, then the remaining moves are handed out to the workers, which share that alpha
+ *       bound so they keep pruning. Every root score that can tie for best is exact, so the
+ *       result is the same as a single-threaded search to the same depth.</li>
+ *   <li>LAZY_SMP: the main worker runs the normal search while helpers search the same
+ *       position at staggered depths, filling the shared table with results the main search
+ *       reuses. Less predictable, but it scales without any coordination between threads.</li>
+ * </ul>
+ * Before the full search, a {@link ThreatSolver} looks for a forced win by continuous fours,
+ * which is often far beyond the reach of the full-width search but takes only microseconds.
  */
 public class MinimaxAI {
 
     // --- Constants for Evaluation ---
     // These scores guide the AI's decision-making. Larger magnitudes indicate higher importance.
     /** Score assigned when the AI achieves a winning state. */
-    private static final int WIN_SCORE = 100000;
+    static final int WIN_SCORE = 100000;
     /** Score assigned when the opponent achieves a winning state (AI loses). Negative value. */
-    private static final int LOSE_SCORE = -100000;
+    static final int LOSE_SCORE = -100000;
     /** Score assigned for a draw state. */
-    private static final int DRAW_SCORE = 0;
-
-    // --- Heuristic Scores (Used when max depth is reached without a win/loss/draw) ---
-    // *** THESE ARE EXAMPLE VALUES! Tuning these is critical for AI strength! ***
-    // A proper heuristic would consider open ends, blocking moves, patterns, etc.
-    /** Example score for having 4 pieces in a row (potential win). */
-    private static final int FOUR_IN_ROW = 5000;
-    /** Example score for having 3 pieces in a row. */
-    private static final int THREE_IN_ROW = 100;
-    /** Example score for having 2 pieces in a row. */
-    private static final int TWO_IN_ROW = 10;
+    static final int DRAW_SCORE = 0;
+    /** Bound beyond every score, for open search windows (its negation is safe too). */
+    static final int INFINITY = Integer.MAX_VALUE;
+
+    // --- Aspiration Windows ---
+    /** Half-width of the first window around the previous iteration's score. */
+    static final int ASPIRATION_WINDOW = 100;
+    /** The window grows by this factor after each failed search. */
+    private static final int ASPIRATION_GROWTH = 4;
+    /** Once the half-width exceeds this, the failing side of the window is opened fully. */
+    private static final int ASPIRATION_LIMIT = 10000;
+
+    // --- Search Limits ---
+    /** The clock and node limits are checked once per this many nodes (power of two). */
+    static final int CLOCK_CHECK_INTERVAL = 1024;
+    /** Searches shallower than this are not worth a PositionCache record (unless proven). */
+    static final int MIN_CACHED_DEPTH = 4;
 
+    /**
+     * How the search uses the threads of the search pool.
+     */
+    public enum ParallelMode {
+        /** Split the root moves between the threads (same result as a single-threaded search). */
+        ROOT_SPLIT,
+        /** Helper threads search the same position at staggered depths through the shared table. */
+        LAZY_SMP
+    }
 
     // --- Instance Variables ---
-    /** The maximum depth the Minimax algorithm will search down the game tree. Higher depth = stronger AI but slower computation. */
-    private final int searchDepth;
+    /** Limits used by findBestMove: a maximum depth (higher depth = stronger AI but slower computation) and/or a time budget. */
+    private final SearchLimits defaultLimits;
     /** The character symbol representing the AI player (e.g., 'B' or 'W'). */
     private final char aiSymbol;
     /** The character symbol representing the Human opponent. */
     private final char humanSymbol;
     /** Optional: Used to randomly select between moves that have the same best score, making the AI less predictable. */
     private final Random random = new Random();
+    /** Heuristic scores of the line shapes (see setWeights()). */
+    private EvaluationWeights weights = EvaluationWeights.DEFAULT;
+    /** Cache of positions already searched, keyed by the board's Zobrist hash. Kept between moves. */
+    private final TranspositionTable transpositionTable;
+    /** Neighbourhood radius used by the workers' move generators. */
+    private int candidateRadius = MoveGenerator.DEFAULT_RADIUS;
+    /** Pool for parallel search, or null to search on the calling thread only. */
+    private ForkJoinPool searchPool;
+    /** How the pool's threads are used. */
+    private ParallelMode parallelMode = ParallelMode.ROOT_SPLIT;
+    /** Forced-win (VCF) solver consulted before the full search, or null if disabled. */
+    private ThreatSolver threatSolver = new ThreatSolver();
+    /** Opening book consulted before searching, or null. */
+    private OpeningBook openingBook;
+    /** Persistent cache of deep and proven results, consulted before searching, or null. */
+    private PositionCache positionCache;
+    /** Search workers: workers[0] runs on the calling thread, the rest on the pool (volatile for stop()). */
+    private volatile SearchWorker[] workers = new SearchWorker[0];
+    /** Set by stop() from another thread; cleared when search() returns. */
+    private volatile boolean stopRequested;
+
+    // --- Per-search State ---
+    /** Root moves of the current search (packed cell indices), best-ordered first. */
+    private int[] rootMoves = new int[0];
+    /** Score of each root move in the current iteration. */
+    private int[] rootScores = new int[0];
+    /** Line (packed cells, starting with the move) found for each root move with an exact score (rows reused). */
+    private int[][] rootLines = new int[0][];
+    /** Length of each root move's line, or 0 if its score was not exact. */
+    private int[] rootLineLengths = new int[0];
+    /** Equally good root moves of the last completed iteration, with their lines. */
+    private RootMoveSet bestMoves = new RootMoveSet();
+    /** Equally good root moves of the running iteration (swapped with bestMoves once it completes). */
+    private RootMoveSet iterationMoves = new RootMoveSet();
+    /** Board copy the threat solver searches (reused between searches). */
+    private BitBoard threatBoard;
+    /** Searches of the first root move repeated because the score fell outside the aspiration window. */
+    private long aspirationReSearches;
+    /** Best root score found so far in the current iteration; the shared alpha bound of the workers. */
+    private final AtomicInteger sharedBest = new AtomicInteger();
+    /** Index of the next root move to hand out to a worker. */
+    private final AtomicInteger nextRootMove = new AtomicInteger();
+
+    // --- Output ---
+    /** Where each search's statistics are written as a JSON line, or null. */
+    private Appendable statsLog;
 
     // --- Constructor ---
     /**
@@ -47,295 +130,720 @@ public class MinimaxAI {
      * @param humanSymbol The symbol ('B' or 'W') used by the opponent.
      */
     public MinimaxAI(int searchDepth, char aiSymbol, char humanSymbol) {
-        this.searchDepth = searchDepth;
+        this(searchDepth, aiSymbol, humanSymbol, new TranspositionTable());
+    }
+
+    /**
+     * Creates a new MinimaxAI instance that uses the given transposition table.
+     * @param searchDepth The maximum lookahead depth for the algorithm.
+     * @param aiSymbol The symbol ('B' or 'W') used by this AI player.
+     * @param humanSymbol The symbol ('B' or 'W') used by the opponent.
+     * @param transpositionTable The table used to cache searched positions (size and replacement policy are up to the caller).
+     */
+    public MinimaxAI(int searchDepth, char aiSymbol, char humanSymbol, TranspositionTable transpositionTable) {
+        this(SearchLimits.depth(searchDepth), aiSymbol, humanSymbol, transpositionTable);
+    }
+
+    /**
+     * Creates a new MinimaxAI instance that searches for a fixed time per move instead of to a fixed depth.
+     * It deepens iteratively and plays the best move of the last depth it completed in time.
+     * @param aiSymbol The symbol ('B' or 'W') used by this AI player.
+     * @param humanSymbol The symbol ('B' or 'W') used by the opponent.
+     * @param timeBudgetMillis Thinking time per move in milliseconds (must be positive).
+     */
+    public MinimaxAI(char aiSymbol, char humanSymbol, long timeBudgetMillis) {
+        this(SearchLimits.time(requirePositive(timeBudgetMillis)), aiSymbol, humanSymbol, new TranspositionTable());
+    }
+
+    /**
+     * Creates a new MinimaxAI instance with the given default search limits and transposition table.
+     * @param defaultLimits Limits used by findBestMove (search() takes its own).
+     * @param aiSymbol The symbol ('B' or 'W') used by this AI player.
+     * @param humanSymbol The symbol ('B' or 'W') used by the opponent.
+     * @param transpositionTable The table used to cache searched positions.
+     */
+    public MinimaxAI(SearchLimits defaultLimits, char aiSymbol, char humanSymbol, TranspositionTable transpositionTable) {
+        this.defaultLimits = defaultLimits;
+        this.transpositionTable = transpositionTable;
         this.aiSymbol = aiSymbol;
         this.humanSymbol = humanSymbol;
     }
 
     // --- Public method to find the best move ---
     /**
-     * Calculates and returns the best move for the AI based on the current board state.
-     * This is the main entry point for the AI's turn.
-     * @param board The current state of the game board.
+     * Calculates and returns the best move for the AI based on the current board state,
+     * using this AI's default limits (see search()).
+     * @param gameBoard The current state of the game board.
      * @return An integer array `[row, col]` representing the best move coordinates.
      */
-    public int[] findBestMove(Board board) {
-        System.out.println("AI (" + aiSymbol + ") is thinking (depth " + searchDepth + ")...");
-        long startTime = System.currentTimeMillis(); // Start timing AI calculation
-
-        int bestScore = Integer.MIN_VALUE; // Initialize best score to the lowest possible value
-        List<int[]> bestMoves = new ArrayList<>(); // Store potentially multiple moves with the same highest score
+    public int[] findBestMove(GameBoard gameBoard) {
+        return search(gameBoard, defaultLimits).getMove();
+    }
 
-        // Iterate through all cells on the board
-        for (int r = 0; r < board.getSize(); r++) {
-            for (int c = 0; c < board.getSize(); c++) {
-                // Check if the current cell is empty (a potential move)
-                if (board.isEmpty(r, c)) {
-                    // --- Simulate making the move ---
-                    board.placeSymbol(r, c, aiSymbol);
-
-                    // --- Call Minimax to evaluate this move ---
-                    // The AI just made a move (maximizing player), so the next turn is the opponent's (minimizing player - hence 'false').
-                    // Alpha starts at MIN_VALUE, Beta starts at MAX_VALUE for the initial call.
-                    int score = minimax(board, searchDepth - 1, false, Integer.MIN_VALUE, Integer.MAX_VALUE);
-
-                    // --- Undo the simulated move (backtrack) ---
-                    board.removeSymbol(r, c);
-
-                    // --- Update tracking of the best move(s) ---
-                    if (score > bestScore) {
-                        // Found a move with a score better than any found so far
-                        bestScore = score;
-                        bestMoves.clear(); // Discard previous list of best moves
-                        bestMoves.add(new int[]{r, c}); // Add the new best move
-                    } else if (score == bestScore) {
-                        // Found a move with a score equal to the current best score
-                        bestMoves.add(new int[]{r, c}); // Add it to the list of equally good moves
-                    }
-                } // End if cell is empty
-            } // End inner loop (columns)
-        } // End outer loop (rows)
-
-        long endTime = System.currentTimeMillis(); // Stop timing
-        System.out.println("AI decision time: " + (endTime - startTime) + " ms. Best score evaluated: " + bestScore);
-
-        // --- Select the final move ---
-        if (bestMoves.isEmpty()) {
-            // This should ideally not happen if there are empty spots on the board.
-            // Provides a fallback just in case minimax somehow fails to find any move.
-            System.err.println("Warning: AI could not find a valid scored move. Picking first available.");
-            return findFirstAvailableMove(board); // Basic fallback
-        }
-        // If multiple moves have the same best score, pick one randomly.
-        // This makes the AI less predictable.
-        int randomIndex = random.nextInt(bestMoves.size());
-        return bestMoves.get(randomIndex);
-    }
-
-
-    // --- Minimax algorithm with Alpha-Beta Pruning ---
-    /**
-     * The recursive core of the Minimax algorithm with Alpha-Beta pruning.
-     * Explores the game tree to a specified depth to find the best score achievable from the current state.
-     *
-     * @param currentBoard The board state being evaluated (potentially after simulated moves).
-     * @param depth The remaining depth to search.
-     * @param isMaximizingPlayer True if the current turn is for the AI (maximizing score), False if for the opponent (minimizing score).
-     * @param alpha The best score found so far for the maximizing player along the current path. Used for pruning.
-     * @param beta The best score found so far for the minimizing player along the current path. Used for pruning.
-     * @return The evaluated score for the board state at the end of the search from this node.
-     */
-    private int minimax(Board currentBoard, int depth, boolean isMaximizingPlayer, int alpha, int beta) {
-
-        // --- Base Cases: Check for Terminal States or Max Depth ---
-
-        // Evaluate the current board for immediate win/loss/draw first.
-        int boardScore = evaluateBoardState(currentBoard);
-        if (boardScore == WIN_SCORE || boardScore == LOSE_SCORE || currentBoard.isFull()) {
-            // If it's a win, loss, or draw, return the corresponding terminal score immediately.
-            return boardScore;
-        }
-        if (depth == 0) {
-            // If we've reached the maximum search depth without a terminal state,
-            // use the heuristic evaluation function to estimate the board's value.
-            return evaluateHeuristic(currentBoard);
-        }
-
-        // --- Recursive Exploration ---
-
-        if (isMaximizingPlayer) { // AI's Turn (Maximize Score)
-            int maxEval = Integer.MIN_VALUE; // Initialize best score for maximizer
-            // Explore all possible moves for the AI
-            for (int r = 0; r < currentBoard.getSize(); r++) {
-                for (int c = 0; c < currentBoard.getSize(); c++) {
-                    if (currentBoard.isEmpty(r, c)) {
-                        currentBoard.placeSymbol(r, c, aiSymbol); // Make the move
-                        // Recursively call minimax for the opponent's turn (minimizing)
-                        int eval = minimax(currentBoard, depth - 1, false, alpha, beta);
-                        currentBoard.removeSymbol(r, c); // Undo the move (backtrack)
-
-                        maxEval = Math.max(maxEval, eval); // Update the maximum score found
-                        alpha = Math.max(alpha, eval);    // Update alpha (best score for maximizer on this path)
-
-                        // Alpha-Beta Pruning: If beta <= alpha, the minimizing player (opponent)
-                        // already has a better option earlier in the tree, so we can prune this branch.
-                        if (beta <= alpha) {
-                            return maxEval; // Prune
-                        }
-                    }
-                } // End inner loop (columns)
-                // Optimization: Check pruning condition also after finishing a row
-                // if (beta <= alpha) { break; } // Not strictly necessary due to inner check, but can be added
-            } // End outer loop (rows)
-            return maxEval; // Return the best score found for the maximizing player
-
-        } else { // Opponent's Turn (Minimize Score)
-            int minEval = Integer.MAX_VALUE; // Initialize best score for minimizer
-            // Explore all possible moves for the opponent
-            for (int r = 0; r < currentBoard.getSize(); r++) {
-                for (int c = 0; c < currentBoard.getSize(); c++) {
-                    if (currentBoard.isEmpty(r, c)) {
-                        currentBoard.placeSymbol(r, c, humanSymbol); // Make the move
-                        // Recursively call minimax for the AI's turn (maximizing)
-                        int eval = minimax(currentBoard, depth - 1, true, alpha, beta);
-                        currentBoard.removeSymbol(r, c); // Undo the move (backtrack)
-
-                        minEval = Math.min(minEval, eval); // Update the minimum score found
-                        beta = Math.min(beta, eval);     // Update beta (best score for minimizer on this path)
-
-                        // Alpha-Beta Pruning: If beta <= alpha, the maximizing player (AI)
-                        // already has a better option earlier in the tree, so we can prune this branch.
-                        if (beta <= alpha) {
-                            return minEval; // Prune
-                        }
-                    }
-                } // End inner loop (columns)
-                // Optimization: Check pruning condition also after finishing a row
-                // if (beta <= alpha) { break; } // Not strictly necessary due to inner check, but can be added
-            } // End outer loop (rows)
-            return minEval; // Return the best score found for the minimizing player (worst for AI)
-        }
-    } // End of minimax method
-
-    // --- Evaluation Functions ---
-
-    /**
-     * Evaluates the current board state for immediate win, loss, or draw conditions.
-     * Used as a primary check within the Minimax base cases.
-     * @param board The board state to evaluate.
-     * @return WIN_SCORE if AI has won, LOSE_SCORE if Human has won, DRAW_SCORE if it's a draw,
-     * or 0 if the game is not in a terminal state yet.
-     */
-    private int evaluateBoardState(Board board) {
-        // Check if AI has a winning line on the current board
-        if (checkWinOverall(board, aiSymbol)) return WIN_SCORE;
-        // Check if Human has a winning line on the current board
-        if (checkWinOverall(board, humanSymbol)) return LOSE_SCORE;
-        // Check if the board is full (draw)
-        if (board.isFull()) return DRAW_SCORE;
-        // If none of the above, the game is not over yet based on this board state.
-        // Return 0 to indicate it's not a terminal win/loss/draw. The heuristic will be used if depth is 0.
-        return 0;
-    }
-
-    /**
-     * Helper method to check if a given player has won on the ENTIRE board.
-     * This is needed for evaluating hypothetical board states within Minimax,
-     * where we don't know the 'last move' that led to this state.
-     * It iterates through all cells containing the player's symbol and uses the
-     * Board's checkWin method starting from that cell.
+    /**
+     * Searches the position for the AI's best move. This is the engine's main entry point:
+     * it writes nothing to the console and never modifies the caller's board (the search runs
+     * on {@link BitBoard} copies, where each probe is a bit test instead of a 2D array access).
      *
-     * @param board The board state to check.
-     * @param symbol The player's symbol to check for a win.
-     * @return true if the specified player has a winning line, false otherwise.
+     * The opening book is consulted first, then the position cache, then a forced win by
+     * continuous fours is looked for. Otherwise the search deepens
+     * iteratively (depth 1, 2, 3, ...), each iteration starting with the previous iteration's
+     * best move, until a limit is reached; the result is that of the last completed depth.
+     * Depth 1 always completes, even when stop() is called or no time is left, so there is
+     * always a searched move to play.
+     * @param position The current position, with the AI to move.
+     * @param limits Depth, time and/or node limits.
+     * @return The chosen move, its score, the principal variation and the search statistics.
+     * @throws IllegalArgumentException if the game in the position is already over.
      */
-    private boolean checkWinOverall(Board board, char symbol) {
-        // Iterate through all cells
-        for (int r = 0; r < board.getSize(); r++) {
-            for (int c = 0; c < board.getSize(); c++) {
-                // If the cell contains the player's symbol...
-                if (board.getSymbol(r, c) == symbol) {
-                    // ...then check if a winning line originates from this cell.
-                    // Reuse the efficient checkWin logic from the Board class.
-                    if (board.checkWin(r, c, symbol)) {
-                        return true; // Found a win for this player
-                    }
+    public SearchResult search(GameBoard position, SearchLimits limits) {
+        try {
+            return searchPosition(position, limits);
+        } finally {
+            stopRequested = false; // A stop request applies to one search only
+        }
+    }
+
+    /**
+     * Asks the search running on another thread (e.g. a {@link Ponderer}'s) to stop as soon
+     * as possible. It then returns the result of the last depth it completed, like a search
+     * that ran out of time; a search still on depth 1 finishes that depth first. A stop
+     * requested before the search starts applies to it as well.
+     */
+    public void stop() {
+        stopRequested = true;
+        for (SearchWorker worker : workers) {
+            worker.requestStop();
+        }
+    }
+
+    /**
+     * Withdraws a stop() request that came too late to stop anything (the search had already
+     * returned), so that it does not stop the next search. Call only while no search runs.
+     */
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Implements search(): book, cache and threat search, then iterative deepening.
+     */
+    private SearchResult searchPosition(GameBoard position, SearchLimits limits) {
+        if (position.getWinner() != GameBoard.EMPTY_SLOT || position.isFull()) {
+            throw new IllegalArgumentException("The game is already over");
+        }
+        long startNanos = System.nanoTime();
+
+        // --- Opening book: early positions are the slowest to search and the most predictable ---
+        if (openingBook != null) {
+            int bookMove = openingBook.lookup(position);
+            if (bookMove != OpeningBook.NO_MOVE) {
+                SearchStats stats = new SearchStats(1);
+                stats.setTimeNanos(System.nanoTime() - startNanos);
+                logStats(stats);
+                int[] moves = {bookMove}; // Never changed, so it can serve as both line and best moves
+                return new SearchResult(position.getSize(), bookMove, openingBook.score(position), 0, moves, moves,
+                        SearchResult.Origin.BOOK, stats);
+            }
+        }
+
+        // --- Position cache: a proven result, or one searched at least as deep as asked ---
+        int maxDepth = limits.getMaxDepth();
+        if (positionCache != null && positionCache.isFor(position)) {
+            int symmetry = position.getCanonicalSymmetry();
+            long cached = positionCache.probe(PositionCache.key(position.getSymmetricHash(symmetry), aiSymbol));
+            int size = position.getSize();
+            int cachedMove = PositionCache.move(cached);
+            if (cached != PositionCache.NO_ENTRY && cachedMove != TranspositionTable.NO_MOVE
+                    && (PositionCache.isProven(cached) || PositionCache.depth(cached) >= maxDepth)) {
+                cachedMove = Symmetry.fromCanonical(symmetry, cachedMove, size);
+                if (position.isEmpty(cachedMove / size, cachedMove % size)) { // Else a hash collision
+                    SearchStats stats = new SearchStats(1);
+                    stats.setTimeNanos(System.nanoTime() - startNanos);
+                    logStats(stats);
+                    int[] moves = {cachedMove};
+                    return new SearchResult(size, cachedMove, PositionCache.score(cached), PositionCache.depth(cached),
+                            moves, moves, SearchResult.Origin.CACHE, stats);
+                }
+            }
+        }
+
+        // --- Forced wins first: a narrow threat search finds them much faster than Minimax ---
+        if (threatSolver != null) {
+            int winningMove = threatSolver.findVcf(threatBoardFor(position), aiSymbol, humanSymbol);
+            if (winningMove != ThreatSolver.NO_MOVE) {
+                storeInCache(position, winningMove, 0, WIN_SCORE);
+                SearchStats stats = new SearchStats(1);
+                stats.addCounters(threatSolver.getNodeCount(), 0, 0, 0, 0, 0, 0);
+                stats.setTimeNanos(System.nanoTime() - startNanos);
+                logStats(stats);
+                int[] moves = {winningMove};
+                return new SearchResult(position.getSize(), winningMove, WIN_SCORE, 0, moves, moves,
+                        SearchResult.Origin.FORCED_WIN, stats);
+            }
+        }
+        ensureWorkers();
+        transpositionTable.newSearch(); // Entries from earlier moves become replaceable
+        for (SearchWorker worker : workers) {
+            worker.startSearch(position, maxDepth); // Each worker gets its own board copy
+            if (stopRequested) {
+                worker.requestStop(); // stop() was called before this search reached its workers
+            }
+        }
+        int cells = position.getSize() * position.getSize();
+        if (rootMoves.length != cells) {
+            rootMoves = new int[cells];
+            rootScores = new int[cells];
+            rootLines = new int[cells][];
+            rootLineLengths = new int[cells];
+        }
+        int maxLineLength = SearchWorker.maxLineLength(maxDepth);
+        bestMoves.clear();
+        iterationMoves.clear();
+
+        // --- Time and node management ---
+        long deadlineNanos = limits.hasTimeLimit() ? startNanos + limits.getTimeMillis() * 1_000_000L : Long.MAX_VALUE;
+        int searching = isLazySmp() ? 1 : workers.length; // Workers that search the main line
+        // Root-split workers share the node budget; Lazy SMP helpers stop with the main worker
+        long nodeLimit = limits.hasNodeLimit() ? Math.max(1, limits.getNodes() / searching) : Long.MAX_VALUE;
+
+        // --- Lazy SMP: start the helpers; they run until the main search is done ---
+        List<ForkJoinTask<?>> helpers = new ArrayList<>();
+        if (isLazySmp()) {
+            for (int i = 1; i < workers.length; i++) {
+                SearchWorker helper = workers[i];
+                int index = i;
+                helper.setLimits(deadlineNanos, Long.MAX_VALUE, true);
+                helpers.add(searchPool.submit(() -> runHelper(helper, index, maxDepth)));
+            }
+        }
+
+        SearchStats stats = new SearchStats(workers.length);
+        int bestScore = Integer.MIN_VALUE; // Best score of the last completed iteration
+        // Best score of the iteration before that. Scores swing between odd and even depths
+        // (the side that moves last looks better), so the aspiration window is centred on this.
+        int parityScore = Integer.MIN_VALUE;
+        int completedDepth = 0;
+        aspirationReSearches = 0;
+
+        // --- Iterative deepening ---
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            if (depth > 1 && stopRequested) {
+                break; // Stopped between iterations
+            }
+            // Depth 1 always completes, with no limits and deaf to stop(), so there is a
+            // searched move to play even with a tiny budget or a stop that came at once
+            for (int i = 0; i < searching; i++) {
+                if (depth == 1) {
+                    workers[i].setLimits(Long.MAX_VALUE, Long.MAX_VALUE, false);
+                } else {
+                    workers[i].setLimits(deadlineNanos, nodeLimit, true);
+                }
+            }
+            long iterationStart = System.nanoTime();
+            long nodesBefore = countSearchNodes();
+            // The previous best line is searched first, within a window around its score
+            workers[0].setPreviousLine(bestMoves.count == 0 ? null : bestMoves.lines[0],
+                    bestMoves.count == 0 ? 0 : bestMoves.lineLengths[0]);
+            int score = searchRoot(depth, parityScore, maxLineLength);
+            if (isAborted()) {
+                break; // Out of time or nodes: keep the result of the last completed depth
+            }
+            stats.addIteration(depth, score, countSearchNodes() - nodesBefore, System.nanoTime() - iterationStart);
+            parityScore = bestScore;
+            bestScore = score;
+            RootMoveSet swap = bestMoves;
+            bestMoves = iterationMoves;
+            iterationMoves = swap;
+            completedDepth = depth;
+
+            if (bestScore == WIN_SCORE || bestScore == LOSE_SCORE) {
+                break; // The outcome is decided; searching deeper cannot change it
+            }
+            // A deeper iteration costs several times more than this one, so don't start
+            // one that is unlikely to finish within the budget.
+            if (limits.hasTimeLimit() && (System.nanoTime() - startNanos) / 1_000_000L > limits.getTimeMillis() / 2) {
+                break;
+            }
+            if (limits.hasNodeLimit() && countSearchNodes() > limits.getNodes() / 2) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < helpers.size(); i++) {
+            workers[i + 1].requestStop();
+        }
+        for (ForkJoinTask<?> helper : helpers) {
+            helper.join(); // Rethrows anything a helper threw
+        }
+        for (SearchWorker worker : workers) {
+            worker.addCountersTo(stats); // All workers have finished, so their counters are stable
+        }
+        stats.addReSearches(aspirationReSearches);
+        stats.setTimeNanos(System.nanoTime() - startNanos);
+        logStats(stats);
+
+        // --- Select the final move (the result is the only thing built per search) ---
+        int move;
+        int[] principalVariation;
+        int[] moves;
+        int size = position.getSize();
+        if (bestMoves.count == 0) {
+            // This should not happen while there are empty cells; fall back to the first one
+            int[] first = findFirstAvailableMove(position);
+            move = first[0] * size + first[1];
+            principalVariation = new int[]{move};
+            moves = new int[0];
+        } else {
+            // If multiple moves have the same best score, pick one randomly.
+            // This makes the AI less predictable.
+            int choice = random.nextInt(bestMoves.count);
+            moves = Arrays.copyOf(bestMoves.cells, bestMoves.count);
+            move = moves[choice];
+            principalVariation = Arrays.copyOf(bestMoves.lines[choice], bestMoves.lineLengths[choice]);
+            storeInCache(position, move, completedDepth, bestScore);
+        }
+        return new SearchResult(size, move, bestScore, completedDepth, principalVariation, moves,
+                SearchResult.Origin.SEARCH, stats);
+    }
+
+    /**
+     * Copies a position onto the threat solver's board, reusing it if the dimensions match.
+     */
+    private BitBoard threatBoardFor(GameBoard position) {
+        if (threatBoard == null || threatBoard.getSize() != position.getSize()
+                || threatBoard.getWinLength() != position.getWinLength()) {
+            threatBoard = BitBoard.copyOf(position);
+        } else {
+            threatBoard.copyFrom(position);
+        }
+        return threatBoard;
+    }
+
+    /**
+     * Remembers a search result in the position cache if it is worth keeping: a proven win
+     * or loss, or a search of at least MIN_CACHED_DEPTH plies.
+     * @param position The searched position.
+     * @param move The chosen move (packed cell index).
+     * @param depth The depth the result comes from.
+     * @param score The score of the move.
+     */
+    private void storeInCache(GameBoard position, int move, int depth, int score) {
+        boolean proven = score == WIN_SCORE || score == LOSE_SCORE;
+        if (positionCache == null || !positionCache.isFor(position) || (!proven && depth < MIN_CACHED_DEPTH)) {
+            return;
+        }
+        int size = position.getSize();
+        int symmetry = position.getCanonicalSymmetry();
+        try {
+            positionCache.store(PositionCache.key(position.getSymmetricHash(symmetry), aiSymbol), depth, score,
+                    Symmetry.toCanonical(symmetry, move, size), proven);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write to the position cache", e);
+        }
+    }
+
+    /**
+     * Gets a reusable line buffer: the row at an index, (re)allocated only if it is missing
+     * or too short, which happens during the first searches only.
+     */
+    private static int[] lineBuffer(int[][] rows, int index, int length) {
+        if (rows[index] == null || rows[index].length < length) {
+            rows[index] = new int[length];
+        }
+        return rows[index];
+    }
+
+    /**
+     * Equally good root moves (packed cells) and the line each leads to, in buffers that are
+     * kept from search to search.
+     */
+    private static final class RootMoveSet {
+        /** The moves as packed cell indices. */
+        int[] cells = new int[0];
+        /** The line of each move (packed cells, starting with the move). */
+        int[][] lines = new int[0][];
+        /** Length of each line. */
+        int[] lineLengths = new int[0];
+        /** Number of moves in the set. */
+        int count;
+
+        /** Empties the set. */
+        void clear() {
+            count = 0;
+        }
+
+        /**
+         * Adds a move and copies its line.
+         * @param cell The move.
+         * @param line The line, starting with the move.
+         * @param lineLength Length of the line.
+         * @param capacity Most moves the set must hold (the board's cell count).
+         * @param maxLineLength Longest line of the search.
+         */
+        void add(int cell, int[] line, int lineLength, int capacity, int maxLineLength) {
+            if (cells.length < capacity) {
+                cells = new int[capacity];
+                lines = new int[capacity][];
+                lineLengths = new int[capacity];
+            }
+            cells[count] = cell;
+            System.arraycopy(line, 0, lineBuffer(lines, count, maxLineLength), 0, lineLength);
+            lineLengths[count] = lineLength;
+            count++;
+        }
+    }
+
+    /**
+     * Searches every root move to the given depth (one iteration of iterative deepening).
+     * The first move is searched within an aspiration window around the score found two
+     * iterations ago. Every other move is then searched with a null window just below the best score
+     * found so far (principal variation search): a move that cannot reach that score fails
+     * low cheaply, while every move that ties or beats it is searched again for its exact
+     * score. That keeps the set of equally good moves identical however the moves are
+     * distributed over the workers.
+     * @param depth The depth of this iteration.
+     * @param previousScore The best score of the iteration two plies shallower, or Integer.MIN_VALUE if none.
+     * @param maxLineLength Longest line the workers can return (sizes the line buffers).
+     * @return The best score, or an unusable value if the search was aborted (check isAborted()).
+     *         The moves sharing it are left in iterationMoves.
+     */
+    private int searchRoot(int depth, int previousScore, int maxLineLength) {
+        SearchWorker mainWorker = workers[0];
+        // Only try empty cells near existing stones, the previous iteration's best move first
+        int moveCount = mainWorker.generateRootMoves(rootMoves);
+        iterationMoves.clear();
+        if (moveCount == 0) {
+            return Integer.MIN_VALUE;
+        }
+
+        // --- Search the first move alone: it is usually the best and sets the bound for the rest ---
+        rootScores[0] = searchFirstMove(mainWorker, depth, previousScore);
+        if (mainWorker.isAborted()) {
+            return Integer.MIN_VALUE;
+        }
+        rootLineLengths[0] = mainWorker.rootLine(rootMoves[0], lineBuffer(rootLines, 0, maxLineLength));
+        sharedBest.set(rootScores[0]);
+        nextRootMove.set(1);
+
+        // --- Search the remaining moves, in parallel if a pool is set ---
+        if (workers.length == 1 || isLazySmp() || moveCount == 2) {
+            searchRootMoves(mainWorker, depth, moveCount, maxLineLength);
+        } else {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>(workers.length);
+            for (SearchWorker worker : workers) {
+                tasks.add(searchPool.submit(() -> searchRootMoves(worker, depth, moveCount, maxLineLength)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join(); // Rethrows anything a worker threw
+            }
+        }
+        if (isAborted()) {
+            return Integer.MIN_VALUE; // Out of time: this iteration's result is incomplete
+        }
+
+        // --- Collect the moves sharing the best score (all of them are exact) ---
+        int bestScore = sharedBest.get();
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < moveCount; i++) {
+            if (rootScores[i] == bestScore) {
+                if (bestMove == TranspositionTable.NO_MOVE) {
+                    bestMove = rootMoves[i];
                 }
+                iterationMoves.add(rootMoves[i], rootLines[i], rootLineLengths[i], rootMoves.length, maxLineLength);
+            }
+        }
+        mainWorker.storeRootResult(depth, bestScore, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Searches the first root move within an aspiration window: a narrow window around an
+     * earlier iteration's score prunes much more than an open one. If the score falls
+     * outside, the window is widened on that side and the move searched again.
+     * @param worker The main worker.
+     * @param depth The depth of this iteration.
+     * @param previousScore The score to centre the window on, or Integer.MIN_VALUE if none.
+     * @return The move's exact score, or an unusable value if the search was aborted.
+     */
+    private int searchFirstMove(SearchWorker worker, int depth, int previousScore) {
+        int move = rootMoves[0];
+        if (previousScore == Integer.MIN_VALUE || previousScore >= WIN_SCORE || previousScore <= LOSE_SCORE) {
+            return worker.searchMove(move, depth, -INFINITY, INFINITY); // Nothing to centre a window on
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previousScore - delta;
+        int beta = previousScore + delta;
+        while (true) {
+            int score = worker.searchMove(move, depth, alpha, beta);
+            if (worker.isAborted() || (score > alpha && score < beta)) {
+                return score;
+            }
+            aspirationReSearches++;
+            delta *= ASPIRATION_GROWTH;
+            if (score <= alpha) {
+                alpha = delta > ASPIRATION_LIMIT ? -INFINITY : previousScore - delta;
+            } else {
+                beta = delta > ASPIRATION_LIMIT ? INFINITY : previousScore + delta;
+            }
+        }
+    }
+
+    /**
+     * Worker loop of the root search: takes root moves from the shared cursor until none are
+     * left, scoring each against the shared best score.
+     * @param worker The worker doing the searching (its board mirrors the root position).
+     * @param depth The depth of this iteration.
+     * @param moveCount Number of root moves.
+     * @param maxLineLength Longest line the worker can return.
+     */
+    private void searchRootMoves(SearchWorker worker, int depth, int moveCount, int maxLineLength) {
+        for (int i = nextRootMove.getAndIncrement(); i < moveCount; i = nextRootMove.getAndIncrement()) {
+            int best = sharedBest.get();
+            int score = worker.searchMoveAgainst(rootMoves[i], depth, best);
+            if (worker.isAborted()) {
+                return;
+            }
+            rootScores[i] = score;
+            // Exact scores only; each index is handed to one worker, so its buffer is this worker's
+            rootLineLengths[i] = score >= best ? worker.rootLine(rootMoves[i], lineBuffer(rootLines, i, maxLineLength)) : 0;
+            sharedBest.accumulateAndGet(score, Math::max); // Tighten the bound for every worker
+        }
+    }
+
+    /**
+     * Lazy SMP helper loop: deepens iteratively on the root position until the main search
+     * asks it to stop or the deadline passes. Odd helpers run one ply ahead of even ones, so
+     * the helpers do not all search the same tree at the same time.
+     * @param helper The helper's worker.
+     * @param index The helper's number (1 and up).
+     * @param maxDepth The deepest iteration to run.
+     */
+    private void runHelper(SearchWorker helper, int index, int maxDepth) {
+        for (int depth = 1 + (index & 1); depth <= maxDepth; depth++) {
+            helper.helperSearch(depth, index);
+            if (helper.isAborted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Counts the nodes visited so far by the workers searching the main line (all workers in
+     * ROOT_SPLIT mode, only the main worker in LAZY_SMP mode, whose helpers are still running).
+     * Only called between iterations, when those workers are idle.
+     * @return The node count.
+     */
+    private long countSearchNodes() {
+        long nodes = 0;
+        int searching = isLazySmp() ? 1 : workers.length;
+        for (int i = 0; i < searching; i++) {
+            nodes += workers[i].getNodeCount();
+        }
+        return nodes;
+    }
+
+    /**
+     * Writes a search's statistics to the statistics log, if one is set.
+     * @param stats The statistics.
+     */
+    private void logStats(SearchStats stats) {
+        if (statsLog == null) {
+            return;
+        }
+        try {
+            statsLog.append(stats.toJson()).append('\n');
+            if (statsLog instanceof Flushable) {
+                ((Flushable) statsLog).flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write search statistics", e);
+        }
+    }
+
+    /**
+     * Checks whether the current iteration ran out of time.
+     * In Lazy SMP mode only the main worker's result counts, so helpers are ignored.
+     * @return true if the iteration was aborted.
+     */
+    private boolean isAborted() {
+        int searching = isLazySmp() ? 1 : workers.length;
+        for (int i = 0; i < searching; i++) {
+            if (workers[i].isAborted()) {
+                return true;
             }
         }
-        // If no winning line found after checking all relevant cells
         return false;
     }
 
     /**
-     * Heuristic evaluation function for non-terminal states (used when Minimax reaches its depth limit).
-     * Estimates the "goodness" of the current board position for the AI.
-     *
-     * *** CRITICAL NOTE: This is a VERY BASIC placeholder heuristic! ***
-     * A strong Gomoku AI requires a much more sophisticated heuristic function that considers:
-     * - Open-ended lines (e.g., `_XXX_` is more valuable than `OXXX_`)
-     * - Threats (forcing moves for the opponent)
-     * - Blocking opponent's threats
-     * - Captured patterns (if rules included captures)
-     * - Center control or strategic positions
-     *
-     * The current implementation provides a minimal starting point.
-     *
-     * @param board The board state to evaluate heuristically.
-     * @return An integer score representing the estimated advantage for the AI (positive) or disadvantage (negative).
+     * Checks whether the search runs in Lazy SMP mode with at least one helper.
      */
-    private int evaluateHeuristic(Board board) {
-        int aiScore = 0;      // Accumulate score based on AI's potential lines
-        int humanScore = 0;   // Accumulate score based on Human's potential lines
+    private boolean isLazySmp() {
+        return parallelMode == ParallelMode.LAZY_SMP && workers.length > 1;
+    }
+
+    /**
+     * Creates the search workers, one per pool thread (or one for single-threaded search).
+     * All workers share this AI's transposition table.
+     */
+    private void ensureWorkers() {
+        int count = searchPool == null ? 1 : searchPool.getParallelism();
+        if (workers.length == count && workers[0].getCandidateRadius() == candidateRadius) {
+            return;
+        }
+        int[] shapeScores = weights.toShapeScores();
+        workers = new SearchWorker[count];
+        for (int i = 0; i < count; i++) {
+            workers[i] = new SearchWorker(aiSymbol, humanSymbol, shapeScores, candidateRadius, transpositionTable);
+        }
+    }
 
-        // --- Example: Simple scoring based on counts of 2, 3, 4 in a row ---
-        // This calls a helper function to evaluate lines for each player.
-        aiScore += scoreLines(board, aiSymbol);
-        humanScore += scoreLines(board, humanSymbol);
 
-        // The final heuristic score is the difference, representing the AI's relative advantage.
-        return aiScore - humanScore;
+    /**
+     * Checks a time budget argument.
+     */
+    private static long requirePositive(long timeBudgetMillis) {
+        if (timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive: " + timeBudgetMillis);
+        }
+        return timeBudgetMillis;
     }
 
     /**
-     * Helper function for the *basic* heuristic evaluation.
-     * Scans the board and assigns scores based on finding streaks of a given player's symbol.
-     *
-     * *** NOTE: This is overly simplistic. It does NOT check if lines are blocked ("open ends"). ***
-     * For example, it scores `OXXX.` the same as `.XXX.` or `.XXXO`. A real heuristic needs to differentiate.
-     *
-     * @param board The board state.
-     * @param symbol The player's symbol to score lines for.
-     * @return An accumulated score based on detected streaks.
-     */
-    private int scoreLines(Board board, char symbol) {
-        int score = 0;
-        int size = board.getSize();
-
-        // Define directions to check (horizontal, vertical, diagonal\, diagonal/)
-        int[] dr = {0, 1, 1, 1};
-        int[] dc = {1, 0, 1, -1};
-
-        // Iterate through each cell as a potential starting point of a line
-        for (int r = 0; r < size; r++) {
-            for (int c = 0; c < size; c++) {
-                // Only start checking from cells occupied by the current player's symbol
-                if (board.getSymbol(r, c) == symbol) {
-                    // Check in all 4 directions starting from this cell
-                    for(int i=0; i<4; ++i) {
-                        int streak = 1; // Start with the symbol at (r, c)
-                        // Count consecutive symbols in this direction (up to 4 more steps, for a total of 5)
-                        for(int k=1; k < 5; ++k){
-                            int nr = r + dr[i]*k; // Next row in this direction
-                            int nc = c + dc[i]*k; // Next column in this direction
-                            // Check bounds and if the next cell contains the same symbol
-                            if(board.isWithinBounds(nr, nc) && board.getSymbol(nr, nc) == symbol){
-                                streak++;
-                            } else {
-                                break; // Stop counting in this direction if boundary or different symbol
-                            }
-                        }
-                        // Add score based on the length of the streak found
-                        // (Using predefined constants - these would need tuning)
-                        if (streak == 4) score += FOUR_IN_ROW; // Add score for a 4-in-a-row
-                        else if (streak == 3) score += THREE_IN_ROW; // Add score for a 3-in-a-row
-                        else if (streak == 2) score += TWO_IN_ROW; // Add score for a 2-in-a-row
-                    } // End direction check loop
-                } // End if cell contains symbol
-            } // End column loop
-        } // End row loop
-        return score; // Return the total heuristic score for this player based on line counts
-    } // End scoreLines method
-
-
-    /**
-     * Fallback method used if the primary `findBestMove` logic somehow fails
+     * Checks whether this AI searches for a fixed time rather than to a fixed depth.
+     * @return true in time-limited mode.
+     */
+    public boolean isTimeLimited() {
+        return defaultLimits.hasTimeLimit();
+    }
+
+    /**
+     * Gets the limits findBestMove searches with.
+     * @return The default search limits.
+     */
+    public SearchLimits getDefaultLimits() {
+        return defaultLimits;
+    }
+
+    /**
+     * Sets how far (in rows/columns) from existing stones the AI considers moves.
+     * Smaller radii search faster but may miss distant tactics.
+     * @param radius The candidate radius (at least 1; the default is MoveGenerator.DEFAULT_RADIUS).
+     */
+    public void setCandidateRadius(int radius) {
+        new MoveGenerator(radius); // Validates the radius
+        candidateRadius = radius;
+    }
+
+    /**
+     * Sets the heuristic scores of the line shapes. The transposition table is cleared,
+     * because the scores stored in it were computed with the old weights.
+     * @param weights The new weights (EvaluationWeights.DEFAULT initially).
+     */
+    public void setWeights(EvaluationWeights weights) {
+        this.weights = weights;
+        workers = new SearchWorker[0]; // Rebuilt with the new scores on the next search
+        transpositionTable.clear();
+    }
+
+    /**
+     * Gets the heuristic scores of the line shapes.
+     * @return The current weights.
+     */
+    public EvaluationWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Seeds the random generator that chooses between equally good moves. With a seed (and a
+     * fixed depth or node limit on a single thread) the AI plays reproducibly; without one it
+     * varies its play.
+     * @param seed The seed.
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * Sets the opening book consulted before each search. A book can be shared by any
+     * number of AIs.
+     * @param openingBook The book, or null to always search (the default).
+     */
+    public void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Sets the persistent position cache. Proven wins and losses and results of searches of
+     * at least MIN_CACHED_DEPTH plies are stored in it; a position found there with a proven
+     * result, or one searched at least as deep as the limits ask, is answered without
+     * searching. A cache can be shared by any number of AIs with the same weights.
+     * @param positionCache The cache, or null to use none (the default).
+     */
+    public void setPositionCache(PositionCache positionCache) {
+        this.positionCache = positionCache;
+    }
+
+    /**
+     * Enables or disables the forced-win (VCF) threat search run before the full search.
+     * It is enabled by default.
+     * @param enabled true to consult the ThreatSolver first.
+     */
+    public void setThreatSearch(boolean enabled) {
+        threatSolver = enabled ? new ThreatSolver() : null;
+    }
+
+    /**
+     * Sets the pool used for parallel search: one search worker runs per pool thread.
+     * The pool is not shut down by the AI.
+     * @param searchPool The pool, or null to search on the calling thread only (the default).
+     */
+    public void setSearchPool(ForkJoinPool searchPool) {
+        this.searchPool = searchPool;
+    }
+
+    /**
+     * Sets how the threads of the search pool are used (ROOT_SPLIT by default).
+     * @param parallelMode The parallel search mode.
+     */
+    public void setParallelMode(ParallelMode parallelMode) {
+        this.parallelMode = parallelMode;
+    }
+
+    /**
+     * Gets the number of threads the search runs on.
+     * @return The pool's parallelism, or 1 without a pool.
+     */
+    public int getSearchThreads() {
+        return searchPool == null ? 1 : searchPool.getParallelism();
+    }
+
+    /**
+     * Sets where the statistics of every search are written, one JSON object per line
+     * (see SearchStats.toJson()). The log is flushed after each line if it is Flushable.
+     * @param statsLog The log (e.g. a Writer or PrintStream), or null to disable logging (the default).
+     */
+    public void setStatsLog(Appendable statsLog) {
+        this.statsLog = statsLog;
+    }
+
+    /**
+     * Gets the transposition table used by this AI, e.g. to read its hit/miss/overwrite counters.
+     * @return The transposition table.
+     */
+    public TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Fallback method used if the primary `search` logic somehow fails
      * to identify any valid move (e.g., if all evaluated scores were Integer.MIN_VALUE).
      * Simply finds the first available empty slot on the board.
      * @param board The current board state.
      * @return Coordinates `[row, col]` of the first found empty slot, or `[-1, -1]` if board is full.
      */
-    private int[] findFirstAvailableMove(Board board){
+    private int[] findFirstAvailableMove(GameBoard board){
         for (int r = 0; r < board.getSize(); r++) {
             for (int c = 0; c < board.getSize(); c++) {
                 if (board.isEmpty(r,c)) {
@@ -0,0 +1,199 @@
+
+import java.util.Arrays; // Used for Arrays.fill()
+
+/**
+ * Generates candidate moves for the Minimax search.
+ * Only empty cells within a given radius (Chebyshev distance) of an existing stone are
+ * worth trying in Gomoku, which cuts the branching factor from "every empty cell" to the
+ * area around the fight. The candidate set is maintained incrementally: placing or
+ * removing a stone only touches the (2 * radius + 1)^2 square around it, instead of
+ * rescanning the board at every node.
+ *
+ * Moves are returned as packed cell indices (r * size + c).
+ */
+public class MoveGenerator {
+
+    // --- Constants ---
+
+    /** Default neighbourhood radius: cells up to two steps away from a stone. */
+    public static final int DEFAULT_RADIUS = 2;
+
+    // --- Instance Variables ---
+
+    /** Neighbourhood radius used to select candidates. */
+    private final int radius;
+    /** Board size the arrays below were allocated for (0 = not attached yet). */
+    private int size;
+    /** Number of stones on the board. */
+    private int stoneCount;
+    /** Per cell: true if a stone is on it. */
+    private boolean[] occupied;
+    /** Per cell: number of stones within the radius. */
+    private int[] neighbourCount;
+    /** Dense list of the current candidate cells (first candidateCount entries are valid). */
+    private int[] candidates;
+    /** Per cell: index in candidates, or -1 if the cell is not a candidate. */
+    private int[] candidateIndex;
+    /** Number of valid entries in candidates. */
+    private int candidateCount;
+
+    // --- Constructors ---
+
+    /**
+     * Creates a generator with the default radius.
+     */
+    public MoveGenerator() {
+        this(DEFAULT_RADIUS);
+    }
+
+    /**
+     * Creates a generator with the given neighbourhood radius.
+     * @param radius How far (in rows/columns) from an existing stone a candidate may be; at least 1.
+     */
+    public MoveGenerator(int radius) {
+        if (radius < 1) {
+            throw new IllegalArgumentException("Candidate radius must be at least 1: " + radius);
+        }
+        this.radius = radius;
+    }
+
+    // --- Setup ---
+
+    /**
+     * Builds the candidate set for the given board from scratch.
+     * Afterwards the generator must be kept in sync through place() and remove().
+     * @param board The board to mirror.
+     */
+    public void attach(GameBoard board) {
+        if (board.getSize() != size) {
+            size = board.getSize();
+            int cells = size * size;
+            occupied = new boolean[cells];
+            neighbourCount = new int[cells];
+            candidates = new int[cells];
+            candidateIndex = new int[cells];
+        }
+        Arrays.fill(occupied, false);
+        Arrays.fill(neighbourCount, 0);
+        Arrays.fill(candidateIndex, -1);
+        candidateCount = 0;
+        stoneCount = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (!board.isEmpty(r, c)) {
+                    place(r, c);
+                }
+            }
+        }
+    }
+
+    // --- Incremental Updates ---
+
+    /**
+     * Records a stone placed at (r, c).
+     * @param r Row index.
+     * @param c Column index.
+     */
+    public void place(int r, int c) {
+        int cell = r * size + c;
+        occupied[cell] = true;
+        stoneCount++;
+        removeCandidate(cell); // An occupied cell is never a candidate
+        int rowEnd = Math.min(size - 1, r + radius);
+        int colEnd = Math.min(size - 1, c + radius);
+        for (int nr = Math.max(0, r - radius); nr <= rowEnd; nr++) {
+            for (int nc = Math.max(0, c - radius); nc <= colEnd; nc++) {
+                int neighbour = nr * size + nc;
+                // The first stone nearby turns an empty cell into a candidate
+                if (++neighbourCount[neighbour] == 1 && !occupied[neighbour]) {
+                    addCandidate(neighbour);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records that the stone at (r, c) was removed.
+     * @param r Row index.
+     * @param c Column index.
+     */
+    public void remove(int r, int c) {
+        int cell = r * size + c;
+        occupied[cell] = false;
+        stoneCount--;
+        int rowEnd = Math.min(size - 1, r + radius);
+        int colEnd = Math.min(size - 1, c + radius);
+        for (int nr = Math.max(0, r - radius); nr <= rowEnd; nr++) {
+            for (int nc = Math.max(0, c - radius); nc <= colEnd; nc++) {
+                int neighbour = nr * size + nc;
+                // The last stone nearby is gone: the cell is no longer a candidate
+                if (--neighbourCount[neighbour] == 0) {
+                    removeCandidate(neighbour);
+                }
+            }
+        }
+        // The freed cell itself is a candidate again if other stones are still nearby
+        if (neighbourCount[cell] > 0) {
+            addCandidate(cell);
+        }
+    }
+
+    /**
+     * Adds a cell to the dense candidate list (no-op if already present).
+     */
+    private void addCandidate(int cell) {
+        if (candidateIndex[cell] < 0) {
+            candidateIndex[cell] = candidateCount;
+            candidates[candidateCount++] = cell;
+        }
+    }
+
+    /**
+     * Removes a cell from the dense candidate list by moving the last entry into its slot.
+     */
+    private void removeCandidate(int cell) {
+        int index = candidateIndex[cell];
+        if (index >= 0) {
+            int last = candidates[--candidateCount];
+            candidates[index] = last;
+            candidateIndex[last] = index;
+            candidateIndex[cell] = -1;
+        }
+    }
+
+    // --- Generation ---
+
+    /**
+     * Copies the current candidate moves into the given buffer.
+     * On an empty board the only candidate is the centre cell. If every cell near the stones
+     * is taken but the board is not full, all remaining empty cells are returned instead.
+     * @param moves Output buffer of at least size * size entries (packed cell indices).
+     * @return The number of moves written.
+     */
+    public int generate(int[] moves) {
+        if (stoneCount == 0) {
+            moves[0] = (size / 2) * size + size / 2; // Opening move: the centre
+            return 1;
+        }
+        if (candidateCount == 0) {
+            // Rare: the neighbourhood is full, so fall back to every empty cell
+            int count = 0;
+            for (int cell = 0; cell < occupied.length; cell++) {
+                if (!occupied[cell]) {
+                    moves[count++] = cell;
+                }
+            }
+            return count;
+        }
+        System.arraycopy(candidates, 0, moves, 0, candidateCount);
+        return candidateCount;
+    }
+
+    /**
+     * Gets the neighbourhood radius.
+     * @return The radius used to select candidates.
+     */
+    public int getRadius() {
+        return radius;
+    }
+}
@@ -0,0 +1,172 @@
+
+import java.util.Arrays; // Used for Arrays.fill()
+
+/**
+ * Orders candidate moves so that Alpha-Beta pruning cuts off as early as possible.
+ * Moves are ranked, best first:
+ * <ol>
+ *   <li>the transposition-table (or previous iteration's) best move;</li>
+ *   <li>immediate wins for the side to move;</li>
+ *   <li>forced blocks of the opponent's immediate wins;</li>
+ *   <li>killer moves: quiet moves that caused a cutoff at the same ply elsewhere in the tree;</li>
+ *   <li>the rest by static threat (longest line formed for either side), then by history score.</li>
+ * </ol>
+ * Only quiet moves (neither wins nor forced blocks) are learned as killers or in the
+ * history: a win or block is found by its own rank anyway, and would push the quiet moves
+ * that refute elsewhere out of the killer slots.
+ * Killers, history and the per-ply score buffers are primitive arrays indexed by ply and
+ * cell, and moves are sorted in place, so ordering never allocates during the search.
+ */
+public class MoveOrderer {
+
+    // --- Ordering Ranks ---
+
+    /** Rank of the transposition-table move (plus RANK_WIN or RANK_BLOCK if it is one). */
+    private static final int RANK_TT_MOVE = 1 << 30;
+    /** Rank of a move that wins immediately. */
+    private static final int RANK_WIN = 1 << 29;
+    /** Rank of a move that blocks the opponent's immediate win. */
+    private static final int RANK_BLOCK = 1 << 28;
+    /** Rank bits that mark a win or a forced block (no other rank sets them). */
+    private static final int TACTICAL_BITS = RANK_WIN | RANK_BLOCK;
+    /** Rank of the first killer move (the second killer is one step lower). */
+    private static final int RANK_KILLER = 1 << 27;
+    /** Static threat scores are shifted above the history score by this many bits. */
+    private static final int THREAT_SHIFT = 16;
+    /** History scores are halved when one reaches this value, keeping them below the threat bits. */
+    private static final int HISTORY_LIMIT = 1 << THREAT_SHIFT;
+
+    /** Number of killer moves remembered per ply. */
+    private static final int KILLERS_PER_PLY = 2;
+
+    // --- Instance Variables ---
+
+    /** Number of plies the buffers are sized for. */
+    private int maxPly;
+    /** Number of cells the buffers are sized for. */
+    private int cells;
+    /** Killer moves: killers[ply * KILLERS_PER_PLY + slot], NO_MOVE if empty. */
+    private int[] killers = new int[0];
+    /** History scores per side (0 = AI, 1 = opponent) and cell: history[side * cells + cell]. */
+    private int[] history = new int[0];
+    /** Per-ply scratch buffers holding the rank of each move being sorted. */
+    private int[][] ranks = new int[0][];
+
+    // --- Setup ---
+
+    /**
+     * Makes sure the buffers fit the given search and clears the killer moves.
+     * History scores are kept (but halved) so that knowledge carries over between searches.
+     * @param plies Maximum number of plies that will be ordered.
+     * @param boardCells Number of cells on the board.
+     */
+    public void newSearch(int plies, int boardCells) {
+        if (plies > maxPly || boardCells != cells) {
+            if (boardCells != cells) {
+                history = new int[2 * boardCells];
+            }
+            maxPly = Math.max(plies, maxPly);
+            cells = boardCells;
+            killers = new int[maxPly * KILLERS_PER_PLY];
+            ranks = new int[maxPly][cells];
+        }
+        Arrays.fill(killers, TranspositionTable.NO_MOVE);
+        // Age the history so old cutoffs matter less than new ones
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    // --- Ordering ---
+
+    /**
+     * Sorts the moves in place, best first.
+     * @param board The current search board.
+     * @param moves Candidate moves (packed cell indices); the first count entries are sorted.
+     * @param count Number of moves.
+     * @param ply Distance from the root.
+     * @param ttMove Best move from the transposition table or previous iteration, or NO_MOVE.
+     * @param side 0 if the AI is to move, 1 for the opponent.
+     * @param mover Symbol of the side to move.
+     * @param opponent Symbol of the other side.
+     */
+    public void order(GameBoard board, int[] moves, int count, int ply, int ttMove,
+                      int side, char mover, char opponent) {
+        int size = board.getSize();
+        int winLength = board.getWinLength();
+        int[] rank = ranks[ply];
+        int killer1 = killers[ply * KILLERS_PER_PLY];
+        int killer2 = killers[ply * KILLERS_PER_PLY + 1];
+        int historyBase = side * cells;
+
+        // --- Assign a rank to every move ---
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int r = move / size;
+            int c = move % size;
+            int attack = board.getLineLength(r, c, mover);
+            int defence = board.getLineLength(r, c, opponent);
+            if (move == ttMove) {
+                // Still first, but keeps the win/block mark for recordCutoff()
+                rank[i] = RANK_TT_MOVE + (attack >= winLength ? RANK_WIN : defence >= winLength ? RANK_BLOCK : 0);
+            } else if (attack >= winLength) {
+                rank[i] = RANK_WIN;
+            } else if (defence >= winLength) {
+                rank[i] = RANK_BLOCK;
+            } else if (move == killer1) {
+                rank[i] = RANK_KILLER;
+            } else if (move == killer2) {
+                rank[i] = RANK_KILLER - 1;
+            } else {
+                // Longer own lines first, then longer opponent lines (blocking), then history
+                int threat = attack * 8 + defence;
+                rank[i] = (threat << THREAT_SHIFT) + history[historyBase + move];
+            }
+        }
+
+        // --- Insertion sort by descending rank (short lists, no allocation) ---
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int key = rank[i];
+            int j = i - 1;
+            while (j >= 0 && rank[j] < key) {
+                rank[j + 1] = rank[j];
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            rank[j + 1] = key;
+            moves[j + 1] = move;
+        }
+    }
+
+    // --- Learning from Cutoffs ---
+
+    /**
+     * Records a move that caused an Alpha-Beta cutoff: a quiet move becomes a killer for
+     * this ply and its history score grows with the square of the remaining depth. Wins
+     * and forced blocks are not recorded.
+     * @param move The move that caused the cutoff.
+     * @param orderIndex The move's position in the list that order() sorted for this ply.
+     * @param ply Distance from the root.
+     * @param depth Remaining depth at the node.
+     * @param side 0 if the AI made the move, 1 for the opponent.
+     */
+    public void recordCutoff(int move, int orderIndex, int ply, int depth, int side) {
+        if ((ranks[ply][orderIndex] & TACTICAL_BITS) != 0) {
+            return; // A win or block: ordered first wherever it occurs, so nothing to learn
+        }
+        int slot = ply * KILLERS_PER_PLY;
+        if (killers[slot] != move) {
+            killers[slot + 1] = killers[slot]; // Keep the previous killer as the second one
+            killers[slot] = move;
+        }
+        int index = side * cells + move;
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            // Rescale all scores so none overflows into the threat bits
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+}
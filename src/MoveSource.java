@@ -0,0 +1,21 @@
+
+import java.io.IOException; // Network sources can fail while waiting for a move
+
+/**
+ * Where a player's moves come from. The game loop asks the source of the player to move
+ * for each move, so the same loop serves a human at the console, a remote client over a
+ * socket ({@link SocketMoveSource}) or the AI.
+ */
+public interface MoveSource {
+
+    /**
+     * Gets the next move of a player. Implementations validate the move: the returned cell
+     * is on the board and empty.
+     * @param board The current position (must not be modified).
+     * @param playerName The name of the player to move.
+     * @param symbol The symbol ('B' or 'W') of the player to move.
+     * @return An integer array `[row, col]`, or null if the player left the game.
+     * @throws IOException if reading the move failed (for example a network timeout).
+     */
+    int[] nextMove(GameBoard board, String playerName, char symbol) throws IOException;
+}
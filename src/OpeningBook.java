@@ -0,0 +1,184 @@
+
+import java.io.IOException;
+import java.nio.ByteBuffer;              // Record layout when writing
+import java.nio.MappedByteBuffer;        // The book is read straight from the mapped file
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Opening book: the best move for positions that occur early in the game, where the
+ * search is slowest (an almost empty board offers the most moves) and the answers are the
+ * most predictable. {@link MinimaxAI} consults it before searching.
+ * <p>
+ * Positions are stored in their canonical orientation (see {@link Symmetry}), so one entry
+ * covers all 8 symmetric variants. The file is a 16-byte header followed by fixed-size
+ * 16-byte records sorted by key:
+ * <pre>
+ *   header: int magic "GMKB", int version, int board size, int record count
+ *   record: long canonical hash, short move (canonical cell r * size + c),
+ *           short games (how often the position was reached, saturated), int score
+ * </pre>
+ * The file is memory-mapped, so opening a book costs the same whatever its size, and a
+ * lookup is a binary search over the mapped records that allocates nothing.
+ */
+public final class OpeningBook {
+
+    // --- File Format ---
+    /** "GMKB" in ASCII. */
+    static final int MAGIC = 0x474D4B42;
+    /** Format version. */
+    static final int VERSION = 1;
+    /** Header size in bytes. */
+    static final int HEADER_BYTES = 16;
+    /** Record size in bytes. */
+    static final int RECORD_BYTES = 16;
+
+    /** Returned when the book has no move for a position. */
+    public static final int NO_MOVE = TranspositionTable.NO_MOVE;
+
+    // --- Instance Variables ---
+    /** The mapped file. Only absolute reads are used, so sharing it between threads is safe. */
+    private final MappedByteBuffer buffer;
+    /** Board size the book was built for. */
+    private final int boardSize;
+    /** Number of records. */
+    private final int recordCount;
+
+    /**
+     * Wraps a mapped book file after checking its header.
+     */
+    private OpeningBook(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an opening book file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported opening book version: " + buffer.getInt(4));
+        }
+        this.buffer = buffer;
+        this.boardSize = buffer.getInt(8);
+        this.recordCount = buffer.getInt(12);
+        if ((long) HEADER_BYTES + (long) recordCount * RECORD_BYTES > buffer.capacity()) {
+            throw new IOException("Truncated opening book: " + recordCount + " records expected");
+        }
+    }
+
+    /**
+     * Opens a book file by mapping it into memory (read-only).
+     * @param path The book file.
+     * @return The book.
+     * @throws IOException if the file cannot be read or is not a valid book.
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new OpeningBook(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // --- Lookup ---
+
+    /**
+     * Looks up the book move for the side to move.
+     * @param board The position.
+     * @return The move as a cell index (r * size + c) on the actual board, or NO_MOVE.
+     */
+    public int lookup(GameBoard board) {
+        int size = board.getSize();
+        if (size != boardSize || recordCount == 0) {
+            return NO_MOVE;
+        }
+        int symmetry = board.getCanonicalSymmetry();
+        int record = find(board.getSymmetricHash(symmetry));
+        if (record < 0) {
+            return NO_MOVE;
+        }
+        int canonicalMove = buffer.getShort(HEADER_BYTES + record * RECORD_BYTES + 8);
+        int move = Symmetry.fromCanonical(symmetry, canonicalMove, size);
+        if (!board.isEmpty(move / size, move % size)) {
+            return NO_MOVE; // Hash collision with a different position
+        }
+        return move;
+    }
+
+    /**
+     * Gets the stored score of the book position, from the side to move's point of view.
+     * @param board The position.
+     * @return The score, or 0 if the position is not in the book.
+     */
+    public int score(GameBoard board) {
+        if (board.getSize() != boardSize) {
+            return 0;
+        }
+        int record = find(board.getCanonicalHash());
+        return record < 0 ? 0 : buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + 12);
+    }
+
+    /**
+     * Binary search for a canonical hash.
+     * @return The record index, or -1 if absent.
+     */
+    private int find(long key) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midKey = buffer.getLong(HEADER_BYTES + mid * RECORD_BYTES);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // --- Writing ---
+
+    /**
+     * Writes a book file. The records must already be sorted by key, with unique keys.
+     * @param path The file to create (or replace).
+     * @param boardSize Board size the book is for.
+     * @param keys Canonical hashes, ascending.
+     * @param moves Canonical moves (r * size + c).
+     * @param games How often each position was reached.
+     * @param scores Score of each position for the side to move.
+     * @param count Number of records.
+     * @throws IOException if the file cannot be written.
+     */
+    static void write(Path path, int boardSize, long[] keys, int[] moves, int[] games, int[] scores, int count)
+            throws IOException {
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + count * RECORD_BYTES);
+        out.putInt(MAGIC).putInt(VERSION).putInt(boardSize).putInt(count);
+        for (int i = 0; i < count; i++) {
+            if (i > 0 && keys[i] <= keys[i - 1]) {
+                throw new IllegalArgumentException("Book keys must be sorted and unique");
+            }
+            out.putLong(keys[i])
+               .putShort((short) moves[i])
+               .putShort((short) Math.min(games[i], 0xFFFF))
+               .putInt(scores[i]);
+        }
+        out.flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+    }
+
+    // --- Accessors ---
+
+    /** @return Board size the book was built for. */
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    /** @return Number of positions in the book. */
+    public int size() {
+        return recordCount;
+    }
+}
@@ -0,0 +1,158 @@
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;     // Seeded opening variety
+import java.util.TreeMap;    // Sorts the records by key
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds an {@link OpeningBook} from self-play. Each game is played by two AIs searching
+ * deeper than a normal game would; for every position of the first few plies, the move the
+ * searching AI chose is recorded in the position's canonical orientation. To cover more than
+ * one line, the first RANDOM_PLIES moves of every game are then played at random near the
+ * centre instead (the AI's answer is still recorded). Games run in parallel and are seeded
+ * like the {@link Tournament}'s, so a seed always produces the same book.
+ *
+ * Usage: java OpeningBookBuilder [bookFile] [games] [plies] [depth] [threads] [seed]
+ * (defaults: opening.book, 200 games, 8 plies, depth 4, all processors, seed 1)
+ */
+public class OpeningBookBuilder {
+
+    /** Plies played at random (after recording the AI's answer) to vary the lines. */
+    private static final int RANDOM_PLIES = 2;
+    /** Random moves are placed at most this many rows/columns from the centre. */
+    private static final int RANDOM_RADIUS = 2;
+
+    /**
+     * One book position: canonical hash, canonical move and score, as found in one game.
+     */
+    private static final class BookRecord {
+        final long key;
+        final int move;
+        final int score;
+
+        BookRecord(long key, int move, int score) {
+            this.key = key;
+            this.move = move;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Aggregated book entry: the first move recorded for a position and how often it occurred.
+     */
+    private static final class BookEntry {
+        final int move;
+        final int score;
+        int games;
+
+        BookEntry(int move, int score) {
+            this.move = move;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Builds the book and writes it.
+     * @param args Optional book file, game count, book depth in plies, search depth, threads and seed.
+     * @throws IOException if the book cannot be written.
+     * @throws InterruptedException if interrupted while waiting for games.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path bookFile = Paths.get(args.length > 0 ? args[0] : "opening.book");
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+
+        EvaluationWeights weights = EvaluationWeights.loadStartupWeights(); // The weights the book will play with
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<List<BookRecord>>> scheduled = new ArrayList<>(games);
+        for (int game = 0; game < games; game++) {
+            long gameSeed = seed * 0x9E3779B97F4A7C15L + game;
+            scheduled.add(pool.submit(() -> playGame(plies, depth, weights, gameSeed)));
+        }
+
+        // --- Merge in game order: the first move recorded for a position wins ---
+        Map<Long, BookEntry> entries = new TreeMap<>();
+        try {
+            for (Future<List<BookRecord>> game : scheduled) {
+                for (BookRecord record : game.get()) {
+                    BookEntry entry = entries.get(record.key);
+                    if (entry == null) {
+                        entry = new BookEntry(record.move, record.score);
+                        entries.put(record.key, entry);
+                    }
+                    entry.games++;
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Self-play game failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int count = entries.size();
+        long[] keys = new long[count];
+        int[] moves = new int[count];
+        int[] counts = new int[count];
+        int[] scores = new int[count];
+        int i = 0;
+        for (Map.Entry<Long, BookEntry> entry : entries.entrySet()) {
+            keys[i] = entry.getKey(); // TreeMap order: ascending keys
+            moves[i] = entry.getValue().move;
+            counts[i] = entry.getValue().games;
+            scores[i] = entry.getValue().score;
+            i++;
+        }
+        OpeningBook.write(bookFile, new Board().getSize(), keys, moves, counts, scores, count);
+        System.out.println(String.format("Wrote %d positions from %d games (depth %d, %d plies) to %s in %.1f s",
+                count, games, depth, plies, bookFile, (System.nanoTime() - start) / 1e9));
+    }
+
+    /**
+     * Plays the first plies of one self-play game and records the AI's move in each position.
+     */
+    private static List<BookRecord> playGame(int plies, int depth, EvaluationWeights weights, long seed) {
+        Random random = new Random(seed);
+        MinimaxAI black = new MinimaxAI(depth, GameBoard.BLACK, GameBoard.WHITE);
+        MinimaxAI white = new MinimaxAI(depth, GameBoard.WHITE, GameBoard.BLACK);
+        black.setWeights(weights);
+        white.setWeights(weights);
+        black.setSeed(random.nextLong());
+        white.setSeed(random.nextLong());
+
+        Board board = new Board();
+        int size = board.getSize();
+        int centre = size / 2;
+        List<BookRecord> records = new ArrayList<>(plies);
+        char toMove = GameBoard.BLACK;
+        for (int ply = 0; ply < plies && board.getWinner() == GameBoard.EMPTY_SLOT && !board.isFull(); ply++) {
+            MinimaxAI engine = toMove == GameBoard.BLACK ? black : white;
+            SearchResult result = engine.search(board, engine.getDefaultLimits());
+            int symmetry = board.getCanonicalSymmetry();
+            int move = result.getRow() * size + result.getCol();
+            records.add(new BookRecord(board.getSymmetricHash(symmetry), Symmetry.toCanonical(symmetry, move, size),
+                    result.getScore()));
+
+            if (ply < RANDOM_PLIES) {
+                do {
+                    move = (centre - RANDOM_RADIUS + random.nextInt(2 * RANDOM_RADIUS + 1)) * size
+                            + centre - RANDOM_RADIUS + random.nextInt(2 * RANDOM_RADIUS + 1);
+                } while (!board.isEmpty(move / size, move % size));
+            }
+            board.placeSymbol(move / size, move % size, toMove);
+            toMove = toMove == GameBoard.BLACK ? GameBoard.WHITE : GameBoard.BLACK;
+        }
+        return records;
+    }
+}
@@ -0,0 +1,456 @@
+
+import java.util.Arrays; // Used for Arrays.fill()
+
+/**
+ * Incremental, pattern-based heuristic evaluation for the Minimax AI.
+ * Every row, column and diagonal of the board is a "line". The evaluator keeps two bitmasks
+ * per line (one per player) and a cached score for each line, plus the running total.
+ * When a stone is placed or removed only the four lines through that cell are re-scored,
+ * so reading the evaluation at a leaf is O(1).
+ *
+ * A line is scored per player. The opponent's stones and the ends of the line cut it into
+ * segments; a segment shorter than the win length can never hold a winning line and scores
+ * nothing. Inside a segment, stones at most one empty cell apart form one shape (so the
+ * broken three `.X.XX.` is one shape, not a three plus a two). Each shape is classified
+ * exactly once into real Gomoku shapes (open/closed fours, open/closed and broken threes,
+ * twos) from its stones and the free room on either side of it, through a precomputed
+ * lookup table. The classification only looks at the shape the same way from both ends,
+ * so a shape and its mirror image score the same, and so do all eight rotations and
+ * reflections of a position (the transposition table relies on this, see Symmetry).
+ *
+ * The shape names are those of five in a row; for other win lengths they are relative to
+ * the winning line ("four" = one stone short, "three" = two short, ...). There is one table
+ * per win length, built on first use and shared; the standard five-in-a-row table is built
+ * up front, so the common case never waits for it.
+ */
+public class PatternEvaluator {
+
+    // --- Shape Identifiers (index into the weight array) ---
+
+    /** No useful shape. */
+    public static final int SHAPE_NONE = 0;
+    /** Two stones that can still grow into five, but not into an open three, e.g. `OXX...`. */
+    public static final int SHAPE_TWO = 1;
+    /** Two stones that one more stone turns into an open three, e.g. `..XX..`. */
+    public static final int SHAPE_OPEN_TWO = 2;
+    /** Three stones inside a five-cell window that can still become five, e.g. `OXXX..`. */
+    public static final int SHAPE_THREE = 3;
+    /** Three stones that one more stone turns into an open four, e.g. `.XXX..` or the broken `.XX.X.`. */
+    public static final int SHAPE_OPEN_THREE = 4;
+    /** Four stones with exactly one way to make five, e.g. `OXXXX.` or `XX.XX`. */
+    public static final int SHAPE_FOUR = 5;
+    /** Four stones with two ways to make five, e.g. `.XXXX.` or `X.XXX.X` (cannot be blocked). */
+    public static final int SHAPE_OPEN_FOUR = 6;
+    /** Five (or more) in a row. */
+    public static final int SHAPE_FIVE = 7;
+    /** Number of shape identifiers. */
+    public static final int SHAPE_COUNT = 8;
+
+    // --- Pattern Table ---
+
+    /** Longest shape (first to last stone) classified through the table; longer ones are classified directly. */
+    private static final int MAX_TABLE_SPAN = 12;
+    /** Bits of the free room on one side of a shape (the room is capped at win length - 1). */
+    private static final int ROOM_BITS = 3;
+    /**
+     * Shape lookup tables by win length, indexed by
+     * (shape bits) | (room before << MAX_TABLE_SPAN) | (room after << MAX_TABLE_SPAN + ROOM_BITS).
+     * The shape bits hold the stones from the first (bit 0) to the last; the rooms are the
+     * empty or own cells up to the segment's ends.
+     */
+    private static final byte[][] SHAPE_TABLES = new byte[Board.MAX_WIN_LENGTH + 1][];
+
+    static {
+        SHAPE_TABLES[Board.WIN_LENGTH] = buildShapeTable(Board.WIN_LENGTH);
+    }
+
+    /** Longest line supported: a line's cells and the blocked cell past its end must fit in one long. */
+    private static final int MAX_LINE = 63;
+
+    // --- Instance Variables ---
+
+    /** Score of each shape (indexed by the SHAPE_ constants). */
+    private final int[] shapeScores;
+    /** The player whose shapes count positively (the AI). */
+    private final char firstSymbol;
+    /** The player whose shapes count negatively (the opponent). */
+    private final char secondSymbol;
+
+    /** Board size the line geometry below was built for (0 = not attached yet). */
+    private int size;
+    /** Win length of the attached board. */
+    private int winLength;
+    /** The shape table for winLength. */
+    private byte[] shapeTable;
+    /** For each direction (0..3) and cell: the id of the line through that cell. */
+    private int[] cellLine;
+    /** For each direction (0..3) and cell: the bit position of the cell within its line. */
+    private int[] cellPos;
+    /** Length (number of cells) of each line. */
+    private int[] lineLength;
+    /** Per line: bitmask of the first player's stones. */
+    private long[] firstBits;
+    /** Per line: bitmask of the second player's stones. */
+    private long[] secondBits;
+    /** Per line: cached score (first player's shapes minus second player's). */
+    private int[] lineScore;
+    /** Sum of all line scores. */
+    private int total;
+
+    // --- Constructor ---
+
+    /**
+     * Creates an evaluator that scores positions from the first player's point of view.
+     * @param firstSymbol The symbol whose shapes are scored positively (usually the AI).
+     * @param secondSymbol The symbol whose shapes are scored negatively.
+     * @param shapeScores Score per shape, indexed by the SHAPE_ constants (length SHAPE_COUNT).
+     */
+    public PatternEvaluator(char firstSymbol, char secondSymbol, int[] shapeScores) {
+        if (shapeScores.length != SHAPE_COUNT) {
+            throw new IllegalArgumentException("Expected " + SHAPE_COUNT + " shape scores");
+        }
+        this.firstSymbol = firstSymbol;
+        this.secondSymbol = secondSymbol;
+        this.shapeScores = shapeScores.clone();
+    }
+
+    // --- Setup ---
+
+    /**
+     * Loads the given board into the evaluator and scores every line from scratch.
+     * This is the only O(N^2) operation; afterwards the evaluator must be kept in sync
+     * through place() and remove().
+     * @param board The board to mirror.
+     */
+    public void attach(GameBoard board) {
+        if (board.getSize() != size) {
+            buildGeometry(board.getSize());
+        }
+        if (board.getWinLength() != winLength) {
+            winLength = board.getWinLength();
+            shapeTable = shapeTable(winLength);
+        }
+        Arrays.fill(firstBits, 0L);
+        Arrays.fill(secondBits, 0L);
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                char symbol = board.getSymbol(r, c);
+                if (symbol == firstSymbol || symbol == secondSymbol) {
+                    setStone(r * size + c, symbol == firstSymbol ? firstBits : secondBits);
+                }
+            }
+        }
+        // Score every line once
+        total = 0;
+        for (int line = 0; line < lineScore.length; line++) {
+            lineScore[line] = scoreLine(line);
+            total += lineScore[line];
+        }
+    }
+
+    /**
+     * Precomputes, for a board of the given size, which line each cell belongs to in each
+     * direction and where in that line it sits.
+     */
+    private void buildGeometry(int newSize) {
+        if (newSize > MAX_LINE) {
+            throw new IllegalArgumentException("Board size " + newSize + " exceeds " + MAX_LINE);
+        }
+        size = newSize;
+        int cells = size * size;
+        int diagonals = 2 * size - 1;
+        // Lines: rows, columns, diagonals (\) and anti-diagonals (/)
+        int lines = 2 * size + 2 * diagonals;
+        cellLine = new int[4 * cells];
+        cellPos = new int[4 * cells];
+        lineLength = new int[lines];
+        firstBits = new long[lines];
+        secondBits = new long[lines];
+        lineScore = new int[lines];
+
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                int cell = r * size + c;
+                // Row r, position c
+                cellLine[cell] = r;
+                cellPos[cell] = c;
+                // Column c, position r
+                cellLine[cells + cell] = size + c;
+                cellPos[cells + cell] = r;
+                // Diagonal (\): cells with the same c - r
+                cellLine[2 * cells + cell] = 2 * size + (c - r + size - 1);
+                cellPos[2 * cells + cell] = Math.min(r, c);
+                // Anti-diagonal (/): cells with the same r + c
+                int sum = r + c;
+                cellLine[3 * cells + cell] = 2 * size + diagonals + sum;
+                cellPos[3 * cells + cell] = r - Math.max(0, sum - (size - 1));
+            }
+        }
+        for (int line = 0; line < lines; line++) {
+            if (line < 2 * size) {
+                lineLength[line] = size;
+            } else {
+                int k = (line - 2 * size) % diagonals; // Index within the diagonal family
+                lineLength[line] = Math.min(k, 2 * size - 2 - k) + 1;
+            }
+        }
+    }
+
+    // --- Incremental Updates ---
+
+    /**
+     * Records a stone placed at (r, c) and re-scores the four lines through it.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The symbol placed.
+     */
+    public void place(int r, int c, char symbol) {
+        setStone(r * size + c, symbol == firstSymbol ? firstBits : secondBits);
+        rescoreLines(r * size + c);
+    }
+
+    /**
+     * Records that the stone at (r, c) was removed and re-scores the four lines through it.
+     * @param r Row index.
+     * @param c Column index.
+     */
+    public void remove(int r, int c) {
+        int cell = r * size + c;
+        int cells = size * size;
+        for (int d = 0; d < 4; d++) {
+            int line = cellLine[d * cells + cell];
+            long mask = ~(1L << cellPos[d * cells + cell]);
+            firstBits[line] &= mask;
+            secondBits[line] &= mask;
+        }
+        rescoreLines(cell);
+    }
+
+    /**
+     * Sets the bit of a cell in all four lines through it.
+     */
+    private void setStone(int cell, long[] bits) {
+        int cells = size * size;
+        for (int d = 0; d < 4; d++) {
+            bits[cellLine[d * cells + cell]] |= 1L << cellPos[d * cells + cell];
+        }
+    }
+
+    /**
+     * Replaces the cached scores of the four lines through a cell and updates the total.
+     */
+    private void rescoreLines(int cell) {
+        int cells = size * size;
+        for (int d = 0; d < 4; d++) {
+            int line = cellLine[d * cells + cell];
+            int score = scoreLine(line);
+            total += score - lineScore[line];
+            lineScore[line] = score;
+        }
+    }
+
+    // --- Evaluation ---
+
+    /**
+     * Gets the current evaluation (first player's shapes minus second player's).
+     * @return The running total of all line scores.
+     */
+    public int evaluate() {
+        return total;
+    }
+
+    /**
+     * Scores one line for both players.
+     */
+    private int scoreLine(int line) {
+        int length = lineLength[line];
+        if (length < winLength) {
+            return 0; // Too short to ever hold a winning line
+        }
+        long first = firstBits[line];
+        long second = secondBits[line];
+        if ((first | second) == 0) {
+            return 0; // Empty line
+        }
+        return scoreShapes(first, second, length, null, 0) - scoreShapes(second, first, length, null, 0);
+    }
+
+    /**
+     * Finds every shape of one player in a line and sums their scores (or counts them).
+     * @param own The player's stones.
+     * @param other The opponent's stones (they block, like the ends of the line).
+     * @param length The line length.
+     * @param counts If not null, each shape found is counted here at [offset + shape].
+     * @param offset Index of SHAPE_NONE in counts.
+     * @return The sum of the shape scores.
+     */
+    private int scoreShapes(long own, long other, int length, int[] counts, int offset) {
+        long blocked = other | (-1L << length); // Cells past the end block too (length < 64)
+        int score = 0;
+        long stones = own;
+        while (stones != 0) {
+            // --- The shape: stones from start on, at most one empty cell apart ---
+            int start = Long.numberOfTrailingZeros(stones);
+            int end = start;
+            while (true) {
+                long next = stones & (-1L << (end + 1)) & ~(-1L << (end + 3)); // Stone 1 or 2 cells on
+                if (next == 0 || (blocked & (1L << (end + 1))) != 0) {
+                    break; // Two empty cells, or an opponent stone in the gap, end the shape
+                }
+                end = 63 - Long.numberOfLeadingZeros(next);
+            }
+            int span = end - start + 1;
+            long shape = (stones >>> start) & ((1L << span) - 1);
+            stones &= -1L << end << 1; // Drop the shape's stones
+
+            // --- Free room up to the blockers on both sides ---
+            long before = blocked & ((1L << start) - 1);
+            int roomBefore = before == 0 ? start : start - (64 - Long.numberOfLeadingZeros(before));
+            int roomAfter = Long.numberOfTrailingZeros(blocked >>> end >>> 1);
+            if (roomBefore + span + roomAfter < winLength) {
+                continue; // Boxed in: can never become a winning line
+            }
+            roomBefore = Math.min(roomBefore, winLength - 1);
+            roomAfter = Math.min(roomAfter, winLength - 1);
+            int type = span <= MAX_TABLE_SPAN
+                    ? shapeTable[(int) shape | roomBefore << MAX_TABLE_SPAN | roomAfter << (MAX_TABLE_SPAN + ROOM_BITS)]
+                    : classify(shape << roomBefore, roomBefore + span + roomAfter, winLength); // Rare: very long shapes
+            if (counts != null) {
+                counts[offset + type]++;
+            }
+            score += shapeScores[type];
+        }
+        return score;
+    }
+
+    // --- Shape Counts ---
+
+    /**
+     * Counts the shapes on the attached board, for each player. The evaluation is the sum of
+     * the shape scores over these shapes, which is what weight tuning fits (see WeightTuner).
+     * @param counts Receives, indexed by the SHAPE_ constants, the first player's shapes at
+     *               [shape] and the second player's at [SHAPE_COUNT + shape] (length at least
+     *               2 * SHAPE_COUNT; it is cleared first).
+     */
+    public void countShapes(int[] counts) {
+        Arrays.fill(counts, 0, 2 * SHAPE_COUNT, 0);
+        for (int line = 0; line < lineLength.length; line++) {
+            int length = lineLength[line];
+            long first = firstBits[line];
+            long second = secondBits[line];
+            if (length < winLength || (first | second) == 0) {
+                continue; // Scores nothing, see scoreLine()
+            }
+            scoreShapes(first, second, length, counts, 0);
+            scoreShapes(second, first, length, counts, SHAPE_COUNT);
+        }
+    }
+
+    // --- Pattern Table Construction ---
+
+    /**
+     * Gets the shared shape table of a win length, building it on first use.
+     */
+    private static byte[] shapeTable(int winLength) {
+        synchronized (SHAPE_TABLES) {
+            if (SHAPE_TABLES[winLength] == null) {
+                SHAPE_TABLES[winLength] = buildShapeTable(winLength);
+            }
+            return SHAPE_TABLES[winLength];
+        }
+    }
+
+    /**
+     * Builds the shape table of a win length: every shape up to MAX_TABLE_SPAN cells (first
+     * and last cell a stone, no two empty cells in a row) with every room on either side.
+     */
+    private static byte[] buildShapeTable(int winLength) {
+        byte[] table = new byte[1 << (MAX_TABLE_SPAN + 2 * ROOM_BITS)];
+        for (int shape = 1; shape < (1 << MAX_TABLE_SPAN); shape += 2) {
+            int span = 32 - Integer.numberOfLeadingZeros(shape);
+            int gaps = ~shape & ((1 << span) - 1);
+            if ((gaps & (gaps >>> 1)) != 0) {
+                continue; // Two empty cells in a row split it into two shapes
+            }
+            for (int before = 0; before < winLength; before++) {
+                for (int after = 0; after < winLength; after++) {
+                    table[shape | before << MAX_TABLE_SPAN | after << (MAX_TABLE_SPAN + ROOM_BITS)] =
+                            (byte) classify((long) shape << before, before + span + after, winLength);
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Classifies a strip of cells: a shape's stones with the free room around it, every cell
+     * own or empty (the strip ends where blocked cells start). A shape is graded by the most
+     * stones in any winning-length window, and counts as "open" when a single stone can
+     * make the next open shape (or, for a four, when two different cells would make five).
+     * Each rule reads the strip the same way from both ends, so mirrored strips classify
+     * alike. The examples are for five in a row (k = 5).
+     * @param own Bit i set if strip cell i holds an own stone.
+     * @param length Cells in the strip.
+     * @param k The win length.
+     * @return One of the SHAPE_ constants.
+     */
+    static int classify(long own, int length, int k) {
+        if (length < k) {
+            return SHAPE_NONE;
+        }
+        int most = mostInWindow(own, length, k);
+        if (most == k) {
+            return SHAPE_FIVE;
+        }
+        if (most == k - 1) {
+            // .XXXX. and X.XXX.X have two ways to make five, OXXXX. and XX.XX one
+            return winningCells(own, length, k) >= 2 ? SHAPE_OPEN_FOUR : SHAPE_FOUR;
+        }
+        if (most == k - 2) {
+            return canBecome(own, length, k, SHAPE_OPEN_FOUR) ? SHAPE_OPEN_THREE : SHAPE_THREE;
+        }
+        if (most == k - 3 && most > 0) {
+            return canBecome(own, length, k, SHAPE_OPEN_THREE) ? SHAPE_OPEN_TWO : SHAPE_TWO;
+        }
+        return SHAPE_NONE;
+    }
+
+    /**
+     * Gets the most own stones in any k-cell window of a strip.
+     */
+    private static int mostInWindow(long own, int length, int k) {
+        long window = (1L << k) - 1;
+        int most = 0;
+        for (int from = 0; from + k <= length; from++) {
+            most = Math.max(most, Long.bitCount(own & (window << from)));
+        }
+        return most;
+    }
+
+    /**
+     * Counts the empty cells of a strip that complete a k-cell window of own stones.
+     */
+    private static int winningCells(long own, int length, int k) {
+        int cells = 0;
+        for (int cell = 0; cell < length; cell++) {
+            long filled = own | (1L << cell);
+            if (filled != own && mostInWindow(filled, length, k) == k) {
+                cells++;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Checks whether one more stone on an empty cell of a strip makes the given shape.
+     */
+    private static boolean canBecome(long own, int length, int k, int shape) {
+        for (int cell = 0; cell < length; cell++) {
+            long filled = own | (1L << cell);
+            if (filled != own && classify(filled, length, k) == shape) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Pondering: lets an AI think on the opponent's time. After the AI has moved, its principal
+ * variation predicts the opponent's reply; while the opponent is thinking, the position after
+ * that reply is searched on a background thread. When the actual reply arrives:
+ * <ul>
+ *   <li>if it is the predicted one (a hit), the pondering search simply continues as the AI's
+ *       real search, and its result is usually ready at once;</li>
+ *   <li>otherwise (a miss) the pondering search is stopped and its result discarded. The
+ *       transposition table it filled is shared with the real search, so the time still
+ *       helps wherever the two trees overlap.</li>
+ * </ul>
+ * The pondering search runs on the AI itself, so the AI must not be used by anyone else
+ * while a pondering search may be running: callers go through {@link #takeResult} before
+ * every search of their own.
+ */
+public final class Ponderer implements AutoCloseable {
+
+    // --- Instance Variables ---
+    /** The AI that ponders (and plays). */
+    private final MinimaxAI ai;
+    /** Runs the pondering searches, one at a time. */
+    private final ExecutorService thread;
+    /** The running (or finished) pondering search, or null if none was started. */
+    private Future<SearchResult> pondering;
+    /** Zobrist hash of the position being pondered. */
+    private long ponderedHash;
+    /** Stone count of the position being pondered (tells apart the side to move). */
+    private int ponderedStones;
+    /** When the pondering search started (System.nanoTime()). */
+    private long ponderStartNanos;
+    /** Predictions that were right / wrong since this ponderer was created. */
+    private int hits;
+    private int misses;
+
+    /**
+     * Creates a ponderer for an AI.
+     * @param ai The AI; it searches on the pondering thread while the opponent thinks.
+     */
+    public Ponderer(MinimaxAI ai) {
+        this.ai = ai;
+        this.thread = Executors.newSingleThreadExecutor(task -> {
+            Thread ponderThread = new Thread(task, "gomoku-ponder");
+            ponderThread.setDaemon(true); // Never keeps the program alive
+            return ponderThread;
+        });
+    }
+
+    // --- Pondering ---
+
+    /**
+     * Starts pondering after the AI's move, if its search predicted the opponent's reply.
+     * Any pondering still running is stopped first.
+     * @param position The current position, with the opponent to move (not modified).
+     * @param aiResult The result of the search that chose the AI's last move.
+     * @param limits The limits the AI's next search would use; pondering is not bound by
+     *               their time limit, since it runs on the opponent's time.
+     * @return true if a pondering search was started.
+     */
+    public boolean start(GameBoard position, SearchResult aiResult, SearchLimits limits) {
+        cancel();
+        List<int[]> line = aiResult.getPrincipalVariation();
+        if (line.size() < 2) {
+            return false; // No prediction (book, cache or forced-win moves have no line)
+        }
+        int[] reply = line.get(1);
+        if (!position.isWithinBounds(reply[0], reply[1]) || !position.isEmpty(reply[0], reply[1])) {
+            return false; // The line does not fit this position
+        }
+        BitBoard predicted = BitBoard.copyOf(position);
+        // Black moves first, so the stone count tells whose turn it is
+        predicted.placeSymbol(reply[0], reply[1], predicted.getStoneCount() % 2 == 0 ? GameBoard.BLACK : GameBoard.WHITE);
+        if (predicted.getWinner() != GameBoard.EMPTY_SLOT || predicted.isFull()) {
+            return false; // Nothing left to search after the predicted reply
+        }
+        ponderedHash = predicted.getHash();
+        ponderedStones = predicted.getStoneCount();
+        SearchLimits ponderLimits = limits.hasTimeLimit()
+                ? (limits.getDepth() == SearchLimits.NO_LIMIT && !limits.hasNodeLimit()
+                        ? SearchLimits.depth(SearchLimits.MAX_DEPTH) // Deepen until stopped
+                        : new SearchLimits(limits.getDepth(), SearchLimits.NO_LIMIT, limits.getNodes()))
+                : limits;
+        ponderStartNanos = System.nanoTime();
+        pondering = thread.submit(() -> ai.search(predicted, ponderLimits));
+        return true;
+    }
+
+    /**
+     * Ends pondering before the AI's own search: returns the pondering result if the
+     * position is the one that was pondered, and stops the pondering search otherwise.
+     * After this call the AI is idle and may be used on the calling thread.
+     * @param position The current position, with the AI to move.
+     * @param limits The limits of the AI's search. On a hit with a time limit, the time
+     *               already spent pondering counts towards it: the pondering search goes on
+     *               until it has run that long in total, and is stopped right away if it has.
+     * @return The pondering result on a hit, or null if there was nothing to reuse.
+     */
+    public SearchResult takeResult(GameBoard position, SearchLimits limits) {
+        if (pondering == null) {
+            return null;
+        }
+        boolean hit = position.getHash() == ponderedHash && position.getStoneCount() == ponderedStones;
+        if (!hit) {
+            misses++;
+            cancel();
+            return null;
+        }
+        hits++;
+        Future<SearchResult> search = pondering;
+        pondering = null;
+        if (limits.hasTimeLimit() && !search.isDone()) {
+            long remainingNanos = limits.getTimeMillis() * 1_000_000L - (System.nanoTime() - ponderStartNanos);
+            try {
+                return search.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS); // Finished in time
+            } catch (TimeoutException e) {
+                return stopAndAwait(search); // Out of time: the last completed depth is the answer
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return stopAndAwait(search);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Pondering search failed", e.getCause());
+            }
+        }
+        return await(search);
+    }
+
+    /**
+     * Stops the pondering search, if one is running, and discards its result.
+     */
+    public void cancel() {
+        if (pondering != null) {
+            stopAndAwait(pondering);
+            pondering = null;
+        }
+    }
+
+    /**
+     * Stops a pondering search and waits for it to return.
+     */
+    private SearchResult stopAndAwait(Future<SearchResult> search) {
+        ai.stop();
+        SearchResult result = await(search);
+        ai.clearStop(); // In case the search had already returned when it was stopped
+        return result;
+    }
+
+    /**
+     * Waits for a pondering search to return.
+     */
+    private static SearchResult await(Future<SearchResult> search) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return search.get();
+                } catch (InterruptedException e) {
+                    interrupted = true; // The search uses the AI, so it must end before we return
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Pondering search failed", e.getCause());
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Stops any pondering and ends the pondering thread.
+     */
+    @Override
+    public void close() {
+        cancel();
+        thread.shutdown();
+    }
+
+    // --- Accessors ---
+
+    /** @return How often the opponent played the predicted reply. */
+    public int getHits() {
+        return hits;
+    }
+
+    /** @return How often the opponent played something else. */
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,485 @@
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;        // Records are appended straight into the mapped file
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap; // One shared instance per file
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;              // Per-record checksums
+
+/**
+ * Persistent cache of search results, shared by all AIs of a JVM and kept across restarts.
+ * It remembers proven wins and losses and the results of deep searches, keyed by the
+ * position's canonical hash (see {@link Symmetry}) and the side to move, so a position that
+ * was solved once - in any game, in any orientation - is answered without searching.
+ * <p>
+ * <b>File:</b> an append-only log of fixed-size records behind a 16-byte header, written
+ * through a memory-mapped buffer:
+ * <pre>
+ *   header: int magic "GMKC", int version, int board size, int win length
+ *   record: long key, long packed result, int CRC32 of the 16 bytes before it
+ * </pre>
+ * Opening the cache replays the log into the in-memory index (warm load); a later record
+ * for the same key replaces an earlier one. A record whose checksum does not match marks
+ * the end of the valid log: a tail torn by a crash is ignored and overwritten by the next
+ * append. When the log holds far more records than the index, it is compacted on open.
+ * <p>
+ * <b>Index:</b> a fixed number of 4-slot buckets, evicted with the clock (second chance)
+ * algorithm: every hit marks its slot as referenced, and a full bucket replaces the first
+ * slot whose mark is clear, clearing marks as the bucket's hand passes them. Lookups are
+ * lock-free (each slot stores key ^ data, verified on read like the TranspositionTable);
+ * stores are synchronized, which suits the read-mostly use.
+ * <p>
+ * Scores depend on the evaluation weights, so a cache should only be shared between AIs
+ * with the same weights.
+ */
+public final class PositionCache implements Closeable {
+
+    // --- File Format ---
+    /** "GMKC" in ASCII. */
+    static final int MAGIC = 0x474D4B43;
+    /** Format version. */
+    static final int VERSION = 1;
+    /** Header size in bytes. */
+    static final int HEADER_BYTES = 16;
+    /** Record size in bytes. */
+    static final int RECORD_BYTES = 20;
+    /** The mapping grows by this many bytes at a time. */
+    private static final int GROWTH_BYTES = 1 << 20;
+    /** The log is compacted on open when it holds more than this many records per index slot. */
+    private static final int COMPACT_RATIO = 4;
+
+    // --- Packed Result Layout ---
+    // bits 32..63 score, 16..31 move (canonical cell, 0xFFFF = none), 8..15 depth, 0..7 flags
+    /** Returned by probe() when the position is not cached. */
+    public static final long NO_ENTRY = 0L;
+    /** Flag: set in every stored result, so a stored result is never 0. */
+    private static final int FLAG_VALID = 0x80;
+    /** Flag: the score is a proven win or loss. */
+    private static final int FLAG_PROVEN = 0x01;
+
+    // --- Index ---
+    /** Default number of index slots. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** Slots per bucket. */
+    private static final int BUCKET_SIZE = 4;
+    /** Key component for "White to move" (keys for Black to move use the plain hash). */
+    private static final long WHITE_TO_MOVE = 0x5851F42D4C957F2DL;
+
+    /** Caches opened through shared(), by absolute file path. */
+    private static final ConcurrentMap<Path, PositionCache> SHARED = new ConcurrentHashMap<>();
+
+    // --- Instance Variables ---
+    /** The log file. */
+    private final Path path;
+    /** Board size the cache is for. */
+    private final int boardSize;
+    /** Win length the cache is for. */
+    private final int winLength;
+    /** Open channel to the log file. */
+    private FileChannel channel;
+    /** Mapping of the log file (grown as records are appended). */
+    private MappedByteBuffer buffer;
+    /** Byte offset where the next record is appended. */
+    private int appendOffset;
+    /** Number of records in the log. */
+    private int recordCount;
+    /** Bytes of an invalid tail ignored when the log was loaded. */
+    private final long ignoredTailBytes;
+    /** Checksum calculator and scratch bytes (used under the store lock, or during loading). */
+    private final CRC32 crc = new CRC32();
+    private final byte[] recordBytes = new byte[16];
+
+    /** Per slot: key ^ data (0 = empty). */
+    private final long[] keys;
+    /** Per slot: packed result (0 = empty). */
+    private final long[] data;
+    /** Per slot: clock reference mark, set on every hit. */
+    private final boolean[] referenced;
+    /** Per bucket: the clock hand (next slot to consider for eviction). */
+    private final byte[] hands;
+    /** Bucket index mask (bucket count - 1). */
+    private final int bucketMask;
+
+    /** Lookups that found their position. */
+    private final LongAdder hits = new LongAdder();
+    /** Lookups that did not. */
+    private final LongAdder misses = new LongAdder();
+
+    // --- Opening ---
+
+    /**
+     * Opens (or creates) a cache file and loads its records.
+     * @param path The log file.
+     * @param boardSize Board size the cache is for (must match an existing file).
+     * @param winLength Win length the cache is for (must match an existing file).
+     * @param capacity Number of index slots (rounded up to a multiple of the bucket size, power of two).
+     * @return The cache.
+     * @throws IOException if the file cannot be used.
+     */
+    public static PositionCache open(Path path, int boardSize, int winLength, int capacity) throws IOException {
+        return new PositionCache(path, boardSize, winLength, capacity);
+    }
+
+    /**
+     * Gets the JVM-wide cache for a file, opening it with DEFAULT_CAPACITY on first use.
+     * Every caller gets the same instance, so all game sessions share one index.
+     * @param path The log file.
+     * @param boardSize Board size the cache is for.
+     * @param winLength Win length the cache is for.
+     * @return The shared cache.
+     * @throws IOException if the file cannot be used.
+     */
+    public static PositionCache shared(Path path, int boardSize, int winLength) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        synchronized (SHARED) {
+            PositionCache cache = SHARED.get(key);
+            if (cache == null) {
+                cache = open(key, boardSize, winLength, DEFAULT_CAPACITY);
+                SHARED.put(key, cache);
+            } else if (cache.boardSize != boardSize || cache.winLength != winLength) {
+                throw new IOException("Cache " + path + " is for board size " + cache.boardSize
+                        + ", win length " + cache.winLength);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Opens the log, sizes the index and warm-loads it.
+     */
+    private PositionCache(Path path, int boardSize, int winLength, int capacity) throws IOException {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid cache capacity: " + capacity);
+        }
+        int buckets = Integer.highestOneBit(Math.max(1, (capacity + BUCKET_SIZE - 1) / BUCKET_SIZE));
+        if (buckets * BUCKET_SIZE < capacity) {
+            buckets <<= 1;
+        }
+        this.path = path;
+        this.boardSize = boardSize;
+        this.winLength = winLength;
+        this.keys = new long[buckets * BUCKET_SIZE];
+        this.data = new long[buckets * BUCKET_SIZE];
+        this.referenced = new boolean[buckets * BUCKET_SIZE];
+        this.hands = new byte[buckets];
+        this.bucketMask = buckets - 1;
+
+        openLog();
+        this.ignoredTailBytes = load();
+        if (recordCount > COMPACT_RATIO * keys.length) {
+            compact();
+        }
+    }
+
+    /**
+     * Opens and maps the log file, writing the header of a new file.
+     */
+    private void openLog() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE - GROWTH_BYTES) {
+            channel.close();
+            throw new IOException("Cache file too large: " + path);
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, HEADER_BYTES + GROWTH_BYTES));
+        if (size == 0) {
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, boardSize).putInt(12, winLength);
+        } else if (size < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException("Not a position cache file (or unsupported version): " + path);
+        } else if (buffer.getInt(8) != boardSize || buffer.getInt(12) != winLength) {
+            int fileSize = buffer.getInt(8);
+            int fileLength = buffer.getInt(12);
+            channel.close();
+            throw new IOException("Cache " + path + " is for board size " + fileSize + ", win length " + fileLength);
+        }
+    }
+
+    /**
+     * Replays the log into the index (warm load), stopping at the first invalid record.
+     * @return Number of bytes after the valid log that were ignored.
+     */
+    private long load() {
+        buffer.load(); // Read the file in one go rather than page by page during the scan
+        int offset = HEADER_BYTES;
+        int limit = buffer.capacity();
+        recordCount = 0;
+        while (offset + RECORD_BYTES <= limit) {
+            long key = buffer.getLong(offset);
+            long result = buffer.getLong(offset + 8);
+            if ((result & FLAG_VALID) == 0 || buffer.getInt(offset + 16) != checksum(key, result)) {
+                break; // End of the log: never written, or torn by a crash
+            }
+            insert(key, result);
+            recordCount++;
+            offset += RECORD_BYTES;
+        }
+        appendOffset = offset;
+        int end = limit;
+        while (end > offset && buffer.get(end - 1) == 0) {
+            end--; // Zeros after the log are space reserved by the mapping, not data
+        }
+        for (int i = offset; i < end; i++) {
+            buffer.put(i, (byte) 0); // Wipe the torn tail, so no stale record follows later appends
+        }
+        return end - offset;
+    }
+
+    /**
+     * Rewrites the log with only the entries in the index, replacing the file atomically.
+     * @throws IOException if the new file cannot be written.
+     */
+    public synchronized void compact() throws IOException {
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        int live = 0;
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer target = out.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) keys.length * RECORD_BYTES);
+            target.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, boardSize).putInt(12, winLength);
+            for (int slot = 0; slot < keys.length; slot++) {
+                long result = data[slot];
+                if (result != NO_ENTRY) {
+                    writeRecord(target, HEADER_BYTES + live * RECORD_BYTES, keys[slot] ^ result, result);
+                    live++;
+                }
+            }
+            target.force();
+        }
+        buffer.force();
+        channel.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        openLog();
+        appendOffset = HEADER_BYTES + live * RECORD_BYTES;
+        recordCount = live;
+    }
+
+    // --- Lookup and Store ---
+
+    /**
+     * Checks whether the cache was made for positions like the given one.
+     * @param board A position.
+     * @return true if the board size and win length match.
+     */
+    public boolean isFor(GameBoard board) {
+        return board.getSize() == boardSize && board.getWinLength() == winLength;
+    }
+
+    /**
+     * Builds the cache key of a position.
+     * @param canonicalHash The position's canonical hash (GameBoard.getCanonicalHash()).
+     * @param sideToMove The symbol of the player to move.
+     * @return The key.
+     */
+    public static long key(long canonicalHash, char sideToMove) {
+        return sideToMove == GameBoard.WHITE ? canonicalHash ^ WHITE_TO_MOVE : canonicalHash;
+    }
+
+    /**
+     * Looks up a position. Lock-free and allocation-free.
+     * @param key The position's key (see key()).
+     * @return The packed result, or NO_ENTRY.
+     */
+    public long probe(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            misses.increment();
+            return NO_ENTRY;
+        }
+        long result = data[slot];
+        referenced[slot] = true; // Second chance for recently used entries
+        hits.increment();
+        return (keys[slot] ^ result) == key ? result : NO_ENTRY; // Re-check: the slot may have changed
+    }
+
+    /**
+     * Finds the slot holding a key.
+     * @return The slot, or -1 if the key is not in the index.
+     */
+    private int find(long key) {
+        int base = bucket(key) * BUCKET_SIZE;
+        for (int slot = base; slot < base + BUCKET_SIZE; slot++) {
+            long result = data[slot];
+            if (result != NO_ENTRY && (keys[slot] ^ result) == key) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Stores a search result: appends it to the log and adds it to the index. A result for
+     * a position already cached replaces it unless the cached one is proven or deeper.
+     * @param key The position's key (see key()).
+     * @param depth The search depth the result comes from.
+     * @param score The score for the side to move.
+     * @param move The best move in canonical orientation.
+     * @param proven true for a proven win or loss.
+     * @throws IOException if the log cannot be extended.
+     */
+    public synchronized void store(long key, int depth, int score, int move, boolean proven) throws IOException {
+        // find(), not probe(): looking at the old result is not a use of the entry, so it
+        // counts neither as a hit nor a miss and does not give the slot a second chance
+        int slot = find(key);
+        long existing = NO_ENTRY;
+        if (slot >= 0) {
+            long cached = data[slot];
+            existing = (keys[slot] ^ cached) == key ? cached : NO_ENTRY; // Re-check, as in probe()
+        }
+        if (existing != NO_ENTRY && (isProven(existing) || (!proven && depth(existing) > depth))) {
+            return; // Keep the better result
+        }
+        long result = pack(depth, score, move, proven);
+        if (appendOffset + RECORD_BYTES > buffer.capacity()) {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) buffer.capacity() + GROWTH_BYTES);
+        }
+        writeRecord(buffer, appendOffset, key, result);
+        appendOffset += RECORD_BYTES;
+        recordCount++;
+        insert(key, result);
+    }
+
+    /**
+     * Puts a result into the index, evicting with the bucket's clock hand if it is full.
+     */
+    private void insert(long key, long result) {
+        int bucket = bucket(key);
+        int base = bucket * BUCKET_SIZE;
+        int target = -1;
+        for (int slot = base; slot < base + BUCKET_SIZE; slot++) {
+            if (data[slot] == NO_ENTRY || (keys[slot] ^ data[slot]) == key) {
+                target = slot; // Free slot, or the same position
+                break;
+            }
+        }
+        if (target < 0) {
+            // Clock: skip (and clear) referenced slots; at most one full turn plus one
+            int hand = hands[bucket];
+            while (referenced[base + hand]) {
+                referenced[base + hand] = false;
+                hand = (hand + 1) % BUCKET_SIZE;
+            }
+            target = base + hand;
+            hands[bucket] = (byte) ((hand + 1) % BUCKET_SIZE);
+        }
+        referenced[target] = false;
+        data[target] = result;
+        keys[target] = key ^ result;
+    }
+
+    /**
+     * Writes one record (key, result, checksum) at a byte offset.
+     */
+    private void writeRecord(MappedByteBuffer target, int offset, long key, long result) {
+        target.putLong(offset, key);
+        target.putLong(offset + 8, result);
+        target.putInt(offset + 16, checksum(key, result));
+    }
+
+    /**
+     * Computes the CRC32 of a record's 16 data bytes (big-endian, as stored).
+     */
+    private int checksum(long key, long result) {
+        for (int i = 0; i < 8; i++) {
+            recordBytes[i] = (byte) (key >>> (56 - 8 * i));
+            recordBytes[8 + i] = (byte) (result >>> (56 - 8 * i));
+        }
+        crc.reset();
+        crc.update(recordBytes, 0, recordBytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Maps a key to its bucket (the high bits are mixed in, the low bits alone are too regular).
+     */
+    private int bucket(long key) {
+        return (int) (key ^ (key >>> 32)) & bucketMask;
+    }
+
+    // --- Packed Results ---
+
+    /**
+     * Packs a result.
+     */
+    static long pack(int depth, int score, int move, boolean proven) {
+        return ((long) score << 32)
+                | ((long) (move & 0xFFFF) << 16)
+                | ((long) (depth & 0xFF) << 8)
+                | FLAG_VALID | (proven ? FLAG_PROVEN : 0);
+    }
+
+    /** @return The score stored in a packed result (for the side to move). */
+    public static int score(long result) {
+        return (int) (result >> 32);
+    }
+
+    /** @return The move stored in a packed result (canonical cell), or TranspositionTable.NO_MOVE. */
+    public static int move(long result) {
+        int move = (int) (result >>> 16) & 0xFFFF;
+        return move == 0xFFFF ? TranspositionTable.NO_MOVE : move;
+    }
+
+    /** @return The search depth stored in a packed result. */
+    public static int depth(long result) {
+        return (int) (result >>> 8) & 0xFF;
+    }
+
+    /** @return true if the packed result is a proven win or loss. */
+    public static boolean isProven(long result) {
+        return (result & FLAG_PROVEN) != 0;
+    }
+
+    // --- Lifecycle and Accessors ---
+
+    /**
+     * Writes outstanding changes to disk (records are visible to a reload even without this,
+     * unless the whole machine crashes).
+     */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes and closes the file. A shared cache is removed from the registry.
+     * @throws IOException if closing failed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        SHARED.remove(path.toAbsolutePath().normalize(), this);
+        buffer.force();
+        channel.close();
+    }
+
+    /** @return Number of records in the log file. */
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /** @return Bytes of a torn tail ignored when the file was loaded (0 after a clean shutdown). */
+    public long getIgnoredTailBytes() {
+        return ignoredTailBytes;
+    }
+
+    /** @return Number of index slots. */
+    public int getCapacity() {
+        return keys.length;
+    }
+
+    /** @return Lookups that found their position. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** @return Lookups that did not find their position. */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,115 @@
+
+/**
+ * Limits for one MinimaxAI search: maximum depth, thinking time and number of nodes.
+ * Any combination can be set; the search stops at whichever limit is reached first and
+ * returns the result of the last depth it completed. A value of NO_LIMIT (0) leaves that
+ * dimension unlimited, but at least one limit must be set.
+ *
+ * Instances are immutable, so one can be shared by any number of games and threads.
+ */
+public final class SearchLimits {
+
+    /** Value meaning "no limit" for any of the three limits. */
+    public static final int NO_LIMIT = 0;
+    /** Deepest iteration ever searched, whatever the limits. */
+    public static final int MAX_DEPTH = 32;
+
+    /** Maximum depth in plies, or NO_LIMIT. */
+    private final int depth;
+    /** Maximum thinking time in milliseconds, or NO_LIMIT. */
+    private final long timeMillis;
+    /** Maximum number of nodes, or NO_LIMIT. */
+    private final long nodes;
+
+    /**
+     * Creates search limits.
+     * @param depth Maximum depth in plies (1 to MAX_DEPTH), or NO_LIMIT.
+     * @param timeMillis Maximum thinking time in milliseconds, or NO_LIMIT.
+     * @param nodes Maximum number of nodes to search, or NO_LIMIT.
+     */
+    public SearchLimits(int depth, long timeMillis, long nodes) {
+        if (depth < 0 || depth > MAX_DEPTH || timeMillis < 0 || nodes < 0) {
+            throw new IllegalArgumentException("Invalid search limits: depth " + depth
+                    + ", time " + timeMillis + " ms, nodes " + nodes);
+        }
+        if (depth == NO_LIMIT && timeMillis == NO_LIMIT && nodes == NO_LIMIT) {
+            throw new IllegalArgumentException("At least one search limit must be set");
+        }
+        this.depth = depth;
+        this.timeMillis = timeMillis;
+        this.nodes = nodes;
+    }
+
+    /**
+     * @param depth Maximum depth in plies.
+     * @return Limits that search to exactly this depth.
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, NO_LIMIT, NO_LIMIT);
+    }
+
+    /**
+     * @param timeMillis Thinking time in milliseconds.
+     * @return Limits that deepen until the time is used up.
+     */
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(NO_LIMIT, timeMillis, NO_LIMIT);
+    }
+
+    /**
+     * @param nodes Node budget.
+     * @return Limits that deepen until about this many nodes have been searched.
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(NO_LIMIT, NO_LIMIT, nodes);
+    }
+
+    /** @return The maximum depth, or NO_LIMIT. */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** @return The deepest iteration the search may run (the depth limit, or MAX_DEPTH). */
+    public int getMaxDepth() {
+        return depth == NO_LIMIT ? MAX_DEPTH : depth;
+    }
+
+    /** @return The thinking time in milliseconds, or NO_LIMIT. */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /** @return The node budget, or NO_LIMIT. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** @return true if a time limit is set. */
+    public boolean hasTimeLimit() {
+        return timeMillis != NO_LIMIT;
+    }
+
+    /** @return true if a node limit is set. */
+    public boolean hasNodeLimit() {
+        return nodes != NO_LIMIT;
+    }
+
+    /**
+     * Describes the limits, e.g. "depth 4" or "1000 ms".
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        if (depth != NO_LIMIT) {
+            text.append("depth ").append(depth);
+        }
+        if (timeMillis != NO_LIMIT) {
+            text.append(text.length() > 0 ? ", " : "").append(timeMillis).append(" ms");
+        }
+        if (nodes != NO_LIMIT) {
+            text.append(text.length() > 0 ? ", " : "").append(nodes).append(" nodes");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,163 @@
+
+import java.util.ArrayList;   // Fresh move lists for the callers
+import java.util.List;
+
+/**
+ * Result of one MinimaxAI search: the chosen move, its score, the principal variation (the
+ * line of play both sides are expected to follow) and the search statistics.
+ * Scores are from the searching AI's point of view; WIN_SCORE / LOSE_SCORE mean a forced win
+ * or loss within the search horizon. Instances are immutable: the moves are kept as packed
+ * cell indices (r * size + c) in private arrays, and every getter returns a new array or list.
+ */
+public final class SearchResult {
+
+    /**
+     * Where the chosen move came from.
+     */
+    public enum Origin {
+        /** The full Minimax search. */
+        SEARCH,
+        /** A forced win by continuous fours found by the threat search. */
+        FORCED_WIN,
+        /** The opening book. */
+        BOOK,
+        /** A result of an earlier search, from the PositionCache. */
+        CACHE
+    }
+
+    /** Board dimension, to unpack the cells. */
+    private final int size;
+    /** The chosen move (packed cell index). */
+    private final int move;
+    /** Score of the chosen move. */
+    private final int score;
+    /** Depth of the last completed iteration (0 for a forced win or a book move). */
+    private final int depth;
+    /** Moves starting with the chosen move, alternating between the two sides (packed cells). */
+    private final int[] principalVariation;
+    /** All moves that shared the best score (packed cells; the chosen move is one of them). */
+    private final int[] bestMoves;
+    /** Where the move came from. */
+    private final Origin origin;
+    /** Statistics of the search. */
+    private final SearchStats stats;
+
+    /**
+     * Creates a search result (done by MinimaxAI). The result takes over the arrays, so the
+     * caller must pass arrays of its own and not change them afterwards.
+     * @param size The board dimension.
+     * @param move The chosen move (packed cell index).
+     * @param score Its score.
+     * @param depth The depth the score comes from.
+     * @param principalVariation The expected line, starting with the chosen move (packed cells).
+     * @param bestMoves All moves sharing the best score (packed cells).
+     * @param origin Where the move came from.
+     * @param stats The search statistics.
+     */
+    SearchResult(int size, int move, int score, int depth, int[] principalVariation, int[] bestMoves,
+                 Origin origin, SearchStats stats) {
+        this.size = size;
+        this.move = move;
+        this.score = score;
+        this.depth = depth;
+        this.principalVariation = principalVariation;
+        this.bestMoves = bestMoves;
+        this.origin = origin;
+        this.stats = stats;
+    }
+
+    /** @return The chosen move as a new `[row, col]` array. */
+    public int[] getMove() {
+        return new int[]{getRow(), getCol()};
+    }
+
+    /** @return Row of the chosen move. */
+    public int getRow() {
+        return move / size;
+    }
+
+    /** @return Column of the chosen move. */
+    public int getCol() {
+        return move % size;
+    }
+
+    /** @return Score of the chosen move, from the AI's point of view. */
+    public int getScore() {
+        return score;
+    }
+
+    /** @return Depth of the last completed iteration (0 for a forced win or a book move). */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** @return The principal variation as a new list of new `[row, col]` moves, starting with the chosen move. */
+    public List<int[]> getPrincipalVariation() {
+        return toMoves(principalVariation);
+    }
+
+    /** @return Number of moves in the principal variation. */
+    public int getPrincipalVariationLength() {
+        return principalVariation.length;
+    }
+
+    /** @return All moves that shared the best score, as a new list of new `[row, col]` moves. */
+    public List<int[]> getBestMoves() {
+        return toMoves(bestMoves);
+    }
+
+    /** @return Number of moves that shared the best score. */
+    public int getBestMoveCount() {
+        return bestMoves.length;
+    }
+
+    /** @return true if the threat search found a forced win by continuous fours. */
+    public boolean isForcedWin() {
+        return origin == Origin.FORCED_WIN;
+    }
+
+    /** @return true if the move was taken from the opening book. */
+    public boolean isBookMove() {
+        return origin == Origin.BOOK;
+    }
+
+    /** @return true if the move was taken from the position cache. */
+    public boolean isCachedMove() {
+        return origin == Origin.CACHE;
+    }
+
+    /** @return Where the move came from. */
+    public Origin getOrigin() {
+        return origin;
+    }
+
+    /** @return The search statistics. */
+    public SearchStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Describes the result, e.g. "(4, 5) score 120, pv (4,5) (3,3) (5,5)".
+     * @return The description.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append('(').append(getRow()).append(", ").append(getCol()).append(") score ").append(score).append(", pv");
+        for (int cell : principalVariation) {
+            text.append(" (").append(cell / size).append(',').append(cell % size).append(')');
+        }
+        return text.toString();
+    }
+
+    /**
+     * Unpacks cells into a new list of new `[row, col]` moves.
+     */
+    private List<int[]> toMoves(int[] cells) {
+        List<int[]> moves = new ArrayList<>(cells.length);
+        for (int cell : cells) {
+            moves.add(new int[]{cell / size, cell % size});
+        }
+        return moves;
+    }
+}
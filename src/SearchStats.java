@@ -0,0 +1,320 @@
+
+import java.util.Arrays;  // Used to grow the per-iteration arrays
+import java.util.Locale;  // Fixed number format for JSON output
+
+/**
+ * Statistics of one MinimaxAI search: how much work it did and how well the pruning worked.
+ * <ul>
+ *   <li>nodes visited, heuristic leaf evaluations and Alpha-Beta cutoffs;</li>
+ *   <li>first-move cutoff rate: the share of cutoffs caused by the first move tried, a
+ *       direct measure of move ordering quality (ideal is close to 1);</li>
+ *   <li>effective branching factor: how many times more nodes each extra ply costs;</li>
+ *   <li>transposition table hits, misses and overwrites;</li>
+ *   <li>depth, score, nodes and time of every completed iteration.</li>
+ * </ul>
+ * Each search thread counts into plain fields of its own worker, without locks or shared
+ * writes; the totals are gathered here once the threads have finished.
+ */
+public class SearchStats {
+
+    // --- Totals ---
+
+    /** Number of threads that searched. */
+    private final int threads;
+    /** Wall-clock time of the whole search in nanoseconds. */
+    private long timeNanos;
+    /** Nodes visited by all threads (including nodes of an aborted last iteration). */
+    private long nodes;
+    /** Heuristic evaluations at the depth limit. */
+    private long leaves;
+    /** Alpha-Beta cutoffs. */
+    private long cutoffs;
+    /** Cutoffs caused by the first move tried at the node. */
+    private long firstMoveCutoffs;
+    /** Transposition table probes. */
+    private long ttProbes;
+    /** Transposition table probes that found their position. */
+    private long ttHits;
+    /** Transposition table stores that evicted a different position. */
+    private long ttOverwrites;
+    /** Searches repeated with a wider window (null-window fail highs and aspiration failures). */
+    private long reSearches;
+
+    // --- Per Iteration ---
+
+    /** Number of completed iterations. */
+    private int iterationCount;
+    /** Depth of each completed iteration. */
+    private int[] iterationDepths = new int[8];
+    /** Best score of each completed iteration. */
+    private int[] iterationScores = new int[8];
+    /** Nodes searched in each completed iteration. */
+    private long[] iterationNodes = new long[8];
+    /** Time of each completed iteration in nanoseconds. */
+    private long[] iterationNanos = new long[8];
+
+    /**
+     * Creates empty statistics; MinimaxAI fills them in as the search runs.
+     * @param threads Number of threads that search.
+     */
+    SearchStats(int threads) {
+        this.threads = threads;
+    }
+
+    // --- Recording (package-private: filled in by the search) ---
+
+    /**
+     * Records a completed iteration.
+     * @param depth The iteration's depth.
+     * @param score Its best score.
+     * @param iterationNodeCount Nodes it visited.
+     * @param nanos Its wall-clock time.
+     */
+    void addIteration(int depth, int score, long iterationNodeCount, long nanos) {
+        if (iterationCount == iterationDepths.length) {
+            int length = iterationCount * 2;
+            iterationDepths = Arrays.copyOf(iterationDepths, length);
+            iterationScores = Arrays.copyOf(iterationScores, length);
+            iterationNodes = Arrays.copyOf(iterationNodes, length);
+            iterationNanos = Arrays.copyOf(iterationNanos, length);
+        }
+        iterationDepths[iterationCount] = depth;
+        iterationScores[iterationCount] = score;
+        iterationNodes[iterationCount] = iterationNodeCount;
+        iterationNanos[iterationCount] = nanos;
+        iterationCount++;
+    }
+
+    /**
+     * Adds one thread's counters to the totals.
+     */
+    void addCounters(long nodeCount, long leafCount, long cutoffCount, long firstMoveCutoffCount,
+                     long ttProbeCount, long ttHitCount, long ttOverwriteCount) {
+        nodes += nodeCount;
+        leaves += leafCount;
+        cutoffs += cutoffCount;
+        firstMoveCutoffs += firstMoveCutoffCount;
+        ttProbes += ttProbeCount;
+        ttHits += ttHitCount;
+        ttOverwrites += ttOverwriteCount;
+    }
+
+    /**
+     * Adds searches that had to be repeated with a wider window.
+     * @param reSearchCount Number of repeated searches.
+     */
+    void addReSearches(long reSearchCount) {
+        reSearches += reSearchCount;
+    }
+
+    /**
+     * Sets the wall-clock time of the whole search.
+     * @param timeNanos Elapsed nanoseconds.
+     */
+    void setTimeNanos(long timeNanos) {
+        this.timeNanos = timeNanos;
+    }
+
+    // --- Derived Figures ---
+
+    /**
+     * Gets the share of cutoffs caused by the first move tried.
+     * @return A value between 0 and 1, or 0 if there were no cutoffs.
+     */
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /**
+     * Gets the effective branching factor: the node count of the last completed iteration
+     * divided by that of the one before. With a single iteration it falls back to the
+     * depth-th root of the node count.
+     * @return The effective branching factor, or 0 if no iteration completed.
+     */
+    public double getEffectiveBranchingFactor() {
+        if (iterationCount >= 2 && iterationNodes[iterationCount - 2] > 0) {
+            return (double) iterationNodes[iterationCount - 1] / iterationNodes[iterationCount - 2];
+        }
+        if (iterationCount == 1 && iterationDepths[0] > 0) {
+            return Math.pow(iterationNodes[0], 1.0 / iterationDepths[0]);
+        }
+        return 0.0;
+    }
+
+    /**
+     * Gets the transposition table hit rate.
+     * @return A value between 0 and 1, or 0 if the table was never probed.
+     */
+    public double getTtHitRate() {
+        return ttProbes == 0 ? 0.0 : (double) ttHits / ttProbes;
+    }
+
+    /**
+     * Gets the search speed.
+     * @return Nodes per second over the whole search.
+     */
+    public double getNodesPerSecond() {
+        return timeNanos == 0 ? 0.0 : nodes * 1e9 / timeNanos;
+    }
+
+    // --- Getters ---
+
+    /** @return Number of threads that searched. */
+    public int getThreads() {
+        return threads;
+    }
+
+    /** @return Wall-clock time of the search in nanoseconds. */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /** @return Nodes visited by all threads. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** @return Heuristic evaluations at the depth limit. */
+    public long getLeaves() {
+        return leaves;
+    }
+
+    /** @return Alpha-Beta cutoffs. */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /** @return Cutoffs caused by the first move tried. */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /** @return Transposition table probes. */
+    public long getTtProbes() {
+        return ttProbes;
+    }
+
+    /** @return Transposition table probes that found their position. */
+    public long getTtHits() {
+        return ttHits;
+    }
+
+    /** @return Transposition table probes that did not find their position. */
+    public long getTtMisses() {
+        return ttProbes - ttHits;
+    }
+
+    /** @return Transposition table stores that evicted a different position. */
+    public long getTtOverwrites() {
+        return ttOverwrites;
+    }
+
+    /** @return Number of completed iterations. */
+    public int getIterationCount() {
+        return iterationCount;
+    }
+
+    /** @return Depth of the last completed iteration, or 0 if none completed. */
+    public int getDepth() {
+        return iterationCount == 0 ? 0 : iterationDepths[iterationCount - 1];
+    }
+
+    /**
+     * @param iteration Index of a completed iteration (0 = the first).
+     * @return Its depth.
+     */
+    public int getIterationDepth(int iteration) {
+        checkIteration(iteration);
+        return iterationDepths[iteration];
+    }
+
+    /**
+     * @param iteration Index of a completed iteration.
+     * @return Its best score.
+     */
+    public int getIterationScore(int iteration) {
+        checkIteration(iteration);
+        return iterationScores[iteration];
+    }
+
+    /**
+     * @param iteration Index of a completed iteration.
+     * @return Nodes it visited.
+     */
+    public long getIterationNodes(int iteration) {
+        checkIteration(iteration);
+        return iterationNodes[iteration];
+    }
+
+    /**
+     * @param iteration Index of a completed iteration.
+     * @return Its wall-clock time in nanoseconds.
+     */
+    public long getIterationNanos(int iteration) {
+        checkIteration(iteration);
+        return iterationNanos[iteration];
+    }
+
+    /**
+     * Validates an iteration index.
+     */
+    private void checkIteration(int iteration) {
+        if (iteration < 0 || iteration >= iterationCount) {
+            throw new IndexOutOfBoundsException("Iteration " + iteration + " of " + iterationCount);
+        }
+    }
+
+    // --- Output ---
+
+    /**
+     * Formats the statistics as one line of JSON (suitable for a JSON-lines log).
+     * @return The JSON object, without a trailing newline.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(256 + iterationCount * 64);
+        json.append("{\"threads\":").append(threads)
+            .append(",\"timeMs\":").append(format(timeNanos / 1e6))
+            .append(",\"depth\":").append(getDepth())
+            .append(",\"nodes\":").append(nodes)
+            .append(",\"nodesPerSecond\":").append(format(getNodesPerSecond()))
+            .append(",\"leaves\":").append(leaves)
+            .append(",\"cutoffs\":").append(cutoffs)
+            .append(",\"reSearches\":").append(reSearches)
+            .append(",\"firstMoveCutoffRate\":").append(format(getFirstMoveCutoffRate()))
+            .append(",\"effectiveBranchingFactor\":").append(format(getEffectiveBranchingFactor()))
+            .append(",\"ttProbes\":").append(ttProbes)
+            .append(",\"ttHitRate\":").append(format(getTtHitRate()))
+            .append(",\"ttOverwrites\":").append(ttOverwrites)
+            .append(",\"iterations\":[");
+        for (int i = 0; i < iterationCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"depth\":").append(iterationDepths[i])
+                .append(",\"score\":").append(iterationScores[i])
+                .append(",\"nodes\":").append(iterationNodes[i])
+                .append(",\"timeMs\":").append(format(iterationNanos[i] / 1e6))
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    /**
+     * Formats a number for JSON: three decimals, '.' as separator.
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * Gets a one-line human-readable summary.
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "depth %d, %d nodes (%.0f/s), %d leaves, %d cutoffs (%.0f%% first move), %d re-searches, EBF %.2f, TT hit rate %.0f%%",
+                getDepth(), nodes, getNodesPerSecond(), leaves, cutoffs, getFirstMoveCutoffRate() * 100, reSearches,
+                getEffectiveBranchingFactor(), getTtHitRate() * 100);
+    }
+}
@@ -0,0 +1,587 @@
+
+/**
+ * One thread's share of a MinimaxAI search.
+ * A worker owns everything the recursive search mutates: its own copy of the board, the
+ * incremental evaluator and move generator mirroring that copy, the move orderer
+ * (killers and history) and the per-ply move buffers. Several workers can therefore
+ * search different root moves of the same position at the same time without sharing any
+ * mutable state except what the coordinating MinimaxAI passes in (alpha bound, deadline)
+ * and the transposition table, which is lock-free and shared by all workers.
+ *
+ * The recursion is a negamax with principal variation search: every node scores the
+ * position for the side to move, tries its first (best-ordered) move with the full window
+ * and the others with a null window, re-searching only a move that turns out better. The
+ * best line found is collected in a triangular PV table. The root methods take and return
+ * scores from the AI's point of view.
+ */
+class SearchWorker {
+
+    // --- Instance Variables ---
+
+    /** The character symbol representing the AI player. */
+    private final char aiSymbol;
+    /** The character symbol representing the opponent. */
+    private final char humanSymbol;
+    /** Incremental pattern evaluator, kept in sync with the worker's board by makeMove/undoMove. */
+    private final PatternEvaluator evaluator;
+    /** Candidate move generator (empty cells near stones), kept in sync by makeMove/undoMove. */
+    private final MoveGenerator moveGenerator;
+    /** Ranks candidate moves (TT move, wins, blocks, killers, history) so Alpha-Beta prunes early. */
+    private final MoveOrderer moveOrderer = new MoveOrderer();
+    /** Cache of positions already searched, keyed by Zobrist hash (shared between workers). */
+    private final TranspositionTable transpositionTable;
+    /** The worker's private copy of the position being searched. */
+    private GameBoard board;
+    /** Preallocated move list per ply, so generating moves does not allocate during the search. */
+    private int[][] moveBuffers = new int[0][];
+    /**
+     * Triangular PV table: row ply holds the best line found from that ply, in cells
+     * ply .. pvLength[ply] - 1 (each node copies its best child's row behind its own move).
+     */
+    private int[][] pvTable = new int[0][];
+    /** End (exclusive) of each row of pvTable. */
+    private int[] pvLength = new int[0];
+    /** The previous iteration's principal variation (from the root), tried first along its path. */
+    private int[] previousPv = new int[0];
+    /** Length of previousPv. */
+    private int previousPvLength;
+    /** True while the search is still on the path of previousPv. */
+    private boolean followingPv;
+    // --- Statistics (plain fields: only this worker's thread writes them) ---
+    /** Nodes visited since the last startSearch (also drives the periodic clock check). */
+    private long nodeCount;
+    /** Heuristic evaluations at the depth limit. */
+    private long leafCount;
+    /** Alpha-Beta cutoffs. */
+    private long cutoffCount;
+    /** Cutoffs caused by the first move tried at the node. */
+    private long firstMoveCutoffCount;
+    /** Transposition table probes. */
+    private long ttProbeCount;
+    /** Transposition table probes that found their position. */
+    private long ttHitCount;
+    /** Transposition table stores that evicted a different position. */
+    private long ttOverwriteCount;
+    /** Null-window searches that failed high and were searched again with the full window. */
+    private long reSearchCount;
+
+    /** System.nanoTime() value at which the running iteration must stop. */
+    private long deadlineNanos = Long.MAX_VALUE;
+    /** Node count (since startSearch) at which the running iteration must stop. */
+    private long nodeLimit = Long.MAX_VALUE;
+    /** Set when a limit was reached or a stop was requested; the search unwinds and its result is discarded. */
+    private boolean aborted;
+    /** Set by another thread to stop this worker (Lazy SMP helpers stop when the main search ends). */
+    private volatile boolean stopRequested;
+    /** False while a stop request is ignored (the first iteration, which must complete). */
+    private boolean stoppable = true;
+
+    // --- Constructor ---
+
+    /**
+     * Creates a worker.
+     * @param aiSymbol The symbol used by the AI player (the maximizing side).
+     * @param humanSymbol The symbol used by the opponent.
+     * @param shapeScores Shape scores for the PatternEvaluator, indexed by its SHAPE_ constants.
+     * @param candidateRadius Neighbourhood radius for the move generator.
+     * @param transpositionTable The table this worker probes and stores into.
+     */
+    SearchWorker(char aiSymbol, char humanSymbol, int[] shapeScores, int candidateRadius,
+                 TranspositionTable transpositionTable) {
+        this.aiSymbol = aiSymbol;
+        this.humanSymbol = humanSymbol;
+        this.evaluator = new PatternEvaluator(aiSymbol, humanSymbol, shapeScores);
+        this.moveGenerator = new MoveGenerator(candidateRadius);
+        this.transpositionTable = transpositionTable;
+    }
+
+    // --- Setup ---
+
+    /**
+     * Prepares the worker for a new search of the given position.
+     * The worker takes its own {@link BitBoard} copy, so the caller's board is never modified.
+     * The copy and all buffers are kept for the next search, so once the worker has searched
+     * a board of this size to this depth, searching again allocates nothing.
+     * @param position The position to search (AI to move).
+     * @param maxDepth The deepest iteration that will be run.
+     */
+    void startSearch(GameBoard position, int maxDepth) {
+        if (board instanceof BitBoard && board.getSize() == position.getSize()
+                && board.getWinLength() == position.getWinLength()) {
+            ((BitBoard) board).copyFrom(position); // Reuse the packed copy of the last search
+        } else {
+            board = BitBoard.copyOf(position); // Packed private copy used for the search
+        }
+        evaluator.attach(board); // Score all lines once; later moves update only 4 lines each
+        moveGenerator.attach(board); // Build the candidate set once; later moves update it incrementally
+        int cells = board.getSize() * board.getSize();
+        if (moveBuffers.length < maxDepth + 1 || moveBuffers[0].length < cells) {
+            moveBuffers = new int[maxDepth + 1][cells];
+        }
+        if (pvLength.length < maxDepth + 2) {
+            pvTable = new int[maxDepth + 2][maxDepth + 2];
+            pvLength = new int[maxDepth + 2];
+            previousPv = new int[maxDepth + 2];
+        }
+        previousPvLength = 0;
+        moveOrderer.newSearch(maxDepth + 1, cells);
+        nodeCount = 0;
+        leafCount = 0;
+        cutoffCount = 0;
+        firstMoveCutoffCount = 0;
+        ttProbeCount = 0;
+        ttHitCount = 0;
+        ttOverwriteCount = 0;
+        reSearchCount = 0;
+        aborted = false;
+        stopRequested = false;
+        stoppable = true;
+        deadlineNanos = Long.MAX_VALUE;
+        nodeLimit = Long.MAX_VALUE;
+    }
+
+    /**
+     * Asks the worker to stop. Safe to call from any thread; the worker notices within
+     * CLOCK_CHECK_INTERVAL nodes and its current search reports isAborted(). While the worker
+     * is not stoppable (see setLimits()), the request waits until it is.
+     */
+    void requestStop() {
+        stopRequested = true;
+    }
+
+    /**
+     * Sets when the running iteration must stop. Both limits are checked every
+     * CLOCK_CHECK_INTERVAL nodes, so the node limit may be overshot by that much.
+     * @param deadlineNanos A System.nanoTime() value, or Long.MAX_VALUE for no limit.
+     * @param nodeLimit Node count since startSearch, or Long.MAX_VALUE for no limit.
+     * @param stoppable false to ignore requestStop() during the iteration (it is honoured
+     *                  once the worker is made stoppable again).
+     */
+    void setLimits(long deadlineNanos, long nodeLimit, boolean stoppable) {
+        this.deadlineNanos = deadlineNanos;
+        this.nodeLimit = nodeLimit;
+        this.stoppable = stoppable;
+    }
+
+    // --- Root Search ---
+
+    /**
+     * Generates and orders the moves of the root position.
+     * @param moves Output buffer of at least size * size entries (packed cell indices).
+     * @return The number of moves written, best-ordered first (the stored root move leads).
+     */
+    int generateRootMoves(int[] moves) {
+        int moveCount = moveGenerator.generate(moves);
+        int symmetry = board.getCanonicalSymmetry();
+        long rootEntry = transpositionTable.probe(board.getSymmetricHash(symmetry));
+        int rootTtMove = rootEntry == TranspositionTable.NO_ENTRY
+                ? TranspositionTable.NO_MOVE : fromTableMove(symmetry, TranspositionTable.move(rootEntry));
+        moveOrderer.order(board, moves, moveCount, 0, rootTtMove, 0, aiSymbol, humanSymbol);
+        return moveCount;
+    }
+
+    /**
+     * Scores one root move within a window, from the AI's point of view.
+     * Scores strictly between alpha and beta are exact; a score at or below alpha only means
+     * "no better than alpha", one at or above beta "at least beta".
+     * After an exact score, rootLine() returns the line the move leads to.
+     * @param move The AI's move (packed cell index).
+     * @param depth The depth of the current iteration (the move itself counts as one ply).
+     * @param alpha Lower bound of the search window.
+     * @param beta Upper bound of the search window.
+     * @return The move's score, or an unusable value if isAborted() became true.
+     */
+    int searchMove(int move, int depth, int alpha, int beta) {
+        int size = board.getSize();
+        int r = move / size;
+        int c = move % size;
+        // Follow the previous iteration's line only below its own first move
+        followingPv = previousPvLength > 0 && previousPv[0] == move;
+        // The AI just moved, so the opponent is next: its best score is the AI's worst
+        makeMove(r, c, aiSymbol);
+        int score = -negamax(depth - 1, 1, -clampBound(beta), -clampBound(alpha));
+        undoMove(r, c);
+        return score;
+    }
+
+    /**
+     * Searches one root move with a null window just below the given score, and again with
+     * the open window above it if the move reaches that score (principal variation search
+     * at the root). Moves that cannot reach the score are refuted cheaply; every move that
+     * ties or beats it gets an exact score.
+     * @param move The AI's move (packed cell index).
+     * @param depth The depth of the current iteration.
+     * @param bestScore The score the move has to reach.
+     * @return The exact score if it is at least bestScore, otherwise a value below bestScore.
+     */
+    int searchMoveAgainst(int move, int depth, int bestScore) {
+        int alpha = bestScore - 1;
+        int score = searchMove(move, depth, alpha, alpha + 1);
+        if (score > alpha && !aborted) {
+            reSearchCount++;
+            score = searchMove(move, depth, alpha, MinimaxAI.INFINITY);
+        }
+        return score;
+    }
+
+    /**
+     * Copies the line found for the root move searched last: the move followed by the best
+     * reply, the best answer to that, and so on. Only meaningful after an exact score.
+     * @param move The root move that was searched.
+     * @param line Receives the line as packed cell indices (at least maxLineLength(maxDepth) entries).
+     * @return The length of the line.
+     */
+    int rootLine(int move, int[] line) {
+        line[0] = move;
+        System.arraycopy(pvTable[1], 1, line, 1, pvLength[1] - 1);
+        return pvLength[1];
+    }
+
+    /**
+     * Gets the longest line rootLine() can return.
+     * @param maxDepth The deepest iteration of the search.
+     * @return The maximum line length.
+     */
+    static int maxLineLength(int maxDepth) {
+        return maxDepth + 1;
+    }
+
+    /**
+     * Sets the line to try first in the next iteration (the previous iteration's best line).
+     * @param line The line from the root (packed cell indices), or null for none.
+     * @param length Number of moves of the line to use.
+     */
+    void setPreviousLine(int[] line, int length) {
+        previousPvLength = line == null ? 0 : Math.min(length, previousPv.length);
+        if (line != null) {
+            System.arraycopy(line, 0, previousPv, 0, previousPvLength);
+        }
+    }
+
+    /**
+     * Keeps a window bound inside [-INFINITY, INFINITY], so it can be negated safely.
+     */
+    private static int clampBound(int bound) {
+        return Math.max(-MinimaxAI.INFINITY, Math.min(MinimaxAI.INFINITY, bound));
+    }
+
+    /**
+     * Lazy SMP helper search: searches the root position to the given depth only to fill the
+     * shared transposition table with results the main search can reuse. Helpers start
+     * their root loop at different moves, so they work on different subtrees first.
+     * @param depth The depth of this iteration.
+     * @param firstMove Index (modulo the move count) of the root move to search first.
+     */
+    void helperSearch(int depth, int firstMove) {
+        int[] moves = moveBuffers[0]; // Ply 0 is free: searchMove only uses plies 1 and deeper
+        int moveCount = generateRootMoves(moves);
+        int bestScore = -MinimaxAI.INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[(firstMove + i) % moveCount];
+            int score = searchMove(move, depth, bestScore, MinimaxAI.INFINITY);
+            if (aborted) {
+                return;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        if (bestMove != TranspositionTable.NO_MOVE) {
+            storeRootResult(depth, bestScore, bestMove);
+        }
+    }
+
+    /**
+     * Remembers the root result, so the next iteration (or search) tries its best move first.
+     * @param depth The completed depth.
+     * @param score The best score.
+     * @param move The best move (packed cell index).
+     */
+    void storeRootResult(int depth, int score, int move) {
+        int symmetry = board.getCanonicalSymmetry();
+        if (transpositionTable.store(board.getSymmetricHash(symmetry), depth, TranspositionTable.BOUND_EXACT, score,
+                toTableMove(symmetry, move))) {
+            ttOverwriteCount++;
+        }
+    }
+
+    // --- Symmetry ---
+    // The table is keyed by the canonical hash, so all 8 symmetric variants of a position
+    // share one entry; its move is stored in the canonical orientation.
+
+    /**
+     * Maps a move of this board into the canonical orientation for storing.
+     * @param symmetry The position's canonical symmetry.
+     * @param move The move (packed cell index), or NO_MOVE.
+     */
+    private int toTableMove(int symmetry, int move) {
+        return move == TranspositionTable.NO_MOVE ? move : Symmetry.toCanonical(symmetry, move, board.getSize());
+    }
+
+    /**
+     * Maps a stored move back onto this board.
+     * @param symmetry The position's canonical symmetry.
+     * @param move The stored move (canonical orientation), or NO_MOVE.
+     */
+    private int fromTableMove(int symmetry, int move) {
+        return move == TranspositionTable.NO_MOVE ? move : Symmetry.fromCanonical(symmetry, move, board.getSize());
+    }
+
+    // --- Negamax with Alpha-Beta Pruning and Principal Variation Search ---
+    /**
+     * The recursive core of the search: negamax with Alpha-Beta pruning.
+     * Scores are from the point of view of the side to move (the AI at even plies, the
+     * opponent at odd ones), so a child's score is negated to become its parent's, and one
+     * code path serves both players.
+     * <p>
+     * Principal variation search: the first move (the best by move ordering) is searched
+     * with the full window; every other move is first searched with a null window
+     * (alpha, alpha + 1), which only proves it is no better. If it is better after all, it is
+     * searched again with the full window for its exact score.
+     *
+     * @param depth The remaining depth to search.
+     * @param ply Distance from the root (selects the move buffer and the PV table row).
+     * @param alpha The score the side to move is already guaranteed elsewhere.
+     * @param beta The score above which the opponent avoids this position.
+     * @return The score of the position for the side to move.
+     */
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply; // No line below this node until a move raises alpha
+        boolean onPv = followingPv;
+        followingPv = false; // Only the first move of a PV node continues the previous line
+
+        // --- Limit Check ---
+        // Reading the clock (or the volatile stop flag) is relatively slow, so only do it every CLOCK_CHECK_INTERVAL nodes.
+        if ((++nodeCount & (MinimaxAI.CLOCK_CHECK_INTERVAL - 1)) == 0
+                && ((stopRequested && stoppable) || nodeCount >= nodeLimit || System.nanoTime() >= deadlineNanos)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0; // Unwind quickly; the caller discards this value
+        }
+
+        // --- Base Cases: Check for Terminal States or Max Depth ---
+        char mover = (ply & 1) == 0 ? aiSymbol : humanSymbol;
+        int side = (ply & 1) == 0 ? 1 : -1; // Converts AI-perspective scores to the mover's
+
+        // A win was completed by the previous move, i.e. by the opponent of the side to move
+        int boardScore = side * evaluateBoardState();
+        if (board.getWinner() != GameBoard.EMPTY_SLOT || board.isFull()) {
+            // If it's a win, loss, or draw, return the corresponding terminal score immediately.
+            return boardScore;
+        }
+        if (depth == 0) {
+            // If we've reached the maximum search depth without a terminal state,
+            // use the heuristic evaluation function to estimate the board's value.
+            leafCount++;
+            return side * evaluateHeuristic();
+        }
+
+        // --- Transposition Table Lookup ---
+        // The same position is often reached through different move orders;
+        // reuse its stored result if it was searched at least as deep as needed now.
+        // Symmetric positions are equally good, so they share the entry of the canonical orientation.
+        int symmetry = board.getCanonicalSymmetry();
+        long key = board.getSymmetricHash(symmetry);
+        long entry = transpositionTable.probe(key);
+        ttProbeCount++;
+        int ttMove = TranspositionTable.NO_MOVE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            ttHitCount++;
+            ttMove = fromTableMove(symmetry, TranspositionTable.move(entry)); // Worth trying first even if the entry is too shallow
+        }
+        if (onPv && ply < previousPvLength) {
+            ttMove = previousPv[ply]; // The previous iteration's line is the best guess on its own path
+        }
+        if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.depth(entry) >= depth && !onPv) {
+            // (Not on the previous line, so the line reported for it is searched through)
+            int storedScore = TranspositionTable.score(entry);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.BOUND_EXACT) {
+                return storedScore;
+            } else if (bound == TranspositionTable.BOUND_LOWER) {
+                alpha = Math.max(alpha, storedScore);
+            } else {
+                beta = Math.min(beta, storedScore);
+            }
+            if (beta <= alpha) {
+                return storedScore; // The stored bound alone is enough to prune
+            }
+        }
+        int originalAlpha = alpha; // Kept to classify the result as exact or a bound
+        int size = board.getSize();
+        int bestMove = TranspositionTable.NO_MOVE;
+        int bestScore = -MinimaxAI.INFINITY;
+        // Candidate moves: empty cells near existing stones
+        int[] moves = moveBuffers[ply];
+        int moveCount = moveGenerator.generate(moves);
+        // Order them: TT move, wins, blocks, killers, then static threats and history
+        char opponent = mover == aiSymbol ? humanSymbol : aiSymbol;
+        int historySide = (ply & 1);
+        moveOrderer.order(board, moves, moveCount, ply, ttMove, historySide, mover, opponent);
+
+        // --- Recursive Exploration ---
+        for (int i = 0; i < moveCount; i++) {
+            int move = moves[i];
+            int r = move / size;
+            int c = move % size;
+            makeMove(r, c, mover); // Make the move
+            int score;
+            if (i == 0) {
+                followingPv = onPv && ply < previousPvLength && move == previousPv[ply];
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                // Null window: only prove that this move is no better than the best so far
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta && !aborted) {
+                    reSearchCount++;
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha); // Better after all: get its exact score
+                }
+            }
+            undoMove(r, c); // Undo the move (backtrack)
+            if (aborted) {
+                return 0; // Out of time: the result is incomplete, so don't store it
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                // New best line: this move followed by the child's line
+                int[] line = pvTable[ply];
+                line[ply] = move;
+                int childLength = pvLength[ply + 1];
+                System.arraycopy(pvTable[ply + 1], ply + 1, line, ply + 1, childLength - ply - 1);
+                pvLength[ply] = childLength;
+            }
+
+            // Alpha-Beta Pruning: the opponent already has a better option earlier in the
+            // tree, so it will never let this position happen.
+            if (alpha >= beta) {
+                moveOrderer.recordCutoff(move, i, ply, depth, historySide); // Try this move early elsewhere
+                countCutoff(i);
+                break; // Prune
+            }
+        }
+
+        // --- Transposition Table Store ---
+        // A result outside the original window is only a bound on the true score.
+        int bound;
+        if (bestScore <= originalAlpha) {
+            bound = TranspositionTable.BOUND_UPPER;
+        } else if (bestScore >= beta) {
+            bound = TranspositionTable.BOUND_LOWER;
+        } else {
+            bound = TranspositionTable.BOUND_EXACT;
+        }
+        if (transpositionTable.store(key, depth, bound, bestScore, toTableMove(symmetry, bestMove))) {
+            ttOverwriteCount++;
+        }
+        return bestScore;
+    } // End of negamax method
+
+    /**
+     * Counts an Alpha-Beta cutoff.
+     * @param moveIndex Position of the cutoff move in the ordered move list.
+     */
+    private void countCutoff(int moveIndex) {
+        cutoffCount++;
+        if (moveIndex == 0) {
+            firstMoveCutoffCount++;
+        }
+    }
+
+    /**
+     * Makes a simulated move on the worker's board and updates the incremental evaluator and generator.
+     * @param r Row index.
+     * @param c Column index.
+     * @param symbol The symbol to place.
+     */
+    private void makeMove(int r, int c, char symbol) {
+        board.placeSymbol(r, c, symbol);
+        evaluator.place(r, c, symbol);
+        moveGenerator.place(r, c);
+    }
+
+    /**
+     * Undoes a simulated move made with makeMove (backtracking).
+     * @param r Row index.
+     * @param c Column index.
+     */
+    private void undoMove(int r, int c) {
+        board.removeSymbol(r, c);
+        evaluator.remove(r, c);
+        moveGenerator.remove(r, c);
+    }
+
+    // --- Evaluation Functions ---
+
+    /**
+     * Evaluates the worker's board for immediate win, loss, or draw conditions.
+     * @return WIN_SCORE if AI has won, LOSE_SCORE if Human has won, DRAW_SCORE if it's a draw,
+     * or 0 if the game is not in a terminal state yet.
+     */
+    private int evaluateBoardState() {
+        // The board tracks wins incrementally as moves are made and undone, so this is O(1)
+        char winner = board.getWinner();
+        if (winner == aiSymbol) return MinimaxAI.WIN_SCORE;
+        if (winner == humanSymbol) return MinimaxAI.LOSE_SCORE;
+        // Check if the board is full (draw) - answered from the board's stone counter
+        if (board.isFull()) return MinimaxAI.DRAW_SCORE;
+        return 0;
+    }
+
+    /**
+     * Heuristic evaluation for non-terminal states at the depth limit.
+     * The PatternEvaluator keeps a cached score for every line, with the AI's shapes counting
+     * positively and the opponent's negatively, so this is a read of its running total.
+     * Many shapes together can add up to WIN_SCORE or more, so the total is clamped to just
+     * inside the terminal scores: only a real five may stop the iterative deepening or be
+     * cached as proven.
+     * @return The estimated advantage for the AI (positive) or disadvantage (negative).
+     */
+    private int evaluateHeuristic() {
+        return Math.max(MinimaxAI.LOSE_SCORE + 1, Math.min(MinimaxAI.WIN_SCORE - 1, evaluator.evaluate()));
+    }
+
+    // --- Accessors ---
+
+    /** @return true if the deadline passed during the running iteration. */
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /** @return Nodes visited since the last startSearch. */
+    long getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Adds this worker's counters to the search statistics (once the worker has finished).
+     * @param stats The statistics of the search.
+     */
+    void addCountersTo(SearchStats stats) {
+        stats.addCounters(nodeCount, leafCount, cutoffCount, firstMoveCutoffCount, ttProbeCount, ttHitCount,
+                ttOverwriteCount);
+        stats.addReSearches(reSearchCount);
+    }
+
+    /** @return The board this worker searches on. */
+    GameBoard getBoard() {
+        return board;
+    }
+
+    /** @return The transposition table this worker uses. */
+    TranspositionTable getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /** @return The neighbourhood radius of this worker's move generator. */
+    int getCandidateRadius() {
+        return moveGenerator.getRadius();
+    }
+}
@@ -0,0 +1,73 @@
+
+import java.io.BufferedReader; // Line-based reading of client input
+import java.io.IOException;
+import java.io.PrintStream;    // Prompts and error messages back to the client
+
+/**
+ * Reads a remote player's moves from a line-based text connection (see {@link GomokuServer}).
+ * Each move is one line with the row and column separated by whitespace, e.g. "4 5";
+ * "quit" (or closing the connection) leaves the game. Invalid lines are answered with an
+ * error message and the player is asked again, like the console prompt does.
+ */
+public class SocketMoveSource implements MoveSource {
+
+    /** Client input. */
+    private final BufferedReader in;
+    /** Client output (prompts and errors). */
+    private final PrintStream out;
+
+    /**
+     * Creates a move source over a client connection.
+     * @param in Reader over the connection's input stream.
+     * @param out Stream over the connection's output stream.
+     */
+    public SocketMoveSource(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    @Override
+    public int[] nextMove(GameBoard board, String playerName, char symbol) throws IOException {
+        int boardSize = board.getSize();
+        while (true) {
+            String line = readLine(playerName + "'s (" + symbol + ") turn. Enter row and column (0-" + (boardSize - 1) + "): ");
+            if (line == null || line.trim().equalsIgnoreCase("quit")) {
+                return null; // The player left
+            }
+            String[] parts = line.trim().split("\\s+");
+            int row;
+            int col;
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException(line);
+                }
+                row = Integer.parseInt(parts[0]);
+                col = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                out.println("Invalid input. Please enter row and column as two numbers, e.g. \"4 5\".");
+                continue;
+            }
+
+            // --- Validate the coordinates ---
+            if (!board.isWithinBounds(row, col)) {
+                out.println("Invalid coordinates. Row/Col must be between 0 and " + (boardSize - 1) + ". Try again.");
+            } else if (!board.isEmpty(row, col)) {
+                out.println("Cell (" + row + "," + col + ") is already occupied. Try again.");
+            } else {
+                return new int[]{row, col};
+            }
+        }
+    }
+
+    /**
+     * Sends a prompt and reads the client's answer.
+     * @param prompt The prompt (sent without a line break).
+     * @return The line read, or null if the client closed the connection.
+     * @throws IOException if reading failed (including the connection's read timeout).
+     */
+    public String readLine(String prompt) throws IOException {
+        out.print(prompt);
+        out.flush(); // Prompts do not end with a line break, so they are not flushed automatically
+        return in.readLine();
+    }
+}
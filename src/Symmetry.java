@@ -0,0 +1,101 @@
+
+/**
+ * The 8 symmetries of a square board (the dihedral group: 4 rotations, each optionally
+ * mirrored). Symmetric positions are equally good, so caches and the opening book can store
+ * one canonical orientation for all of them.
+ *
+ * Boards keep the Zobrist hashes of all 8 orientations up to date (GameBoard.getSymmetricHash);
+ * the orientation with the smallest hash is the canonical one. Moves are stored in the
+ * canonical orientation and mapped back with fromCanonical().
+ *
+ * Sharing entries this way is only sound while the evaluation scores all 8 orientations of a
+ * position alike (PatternEvaluator classifies every shape the same from both ends);
+ * bench/SymmetryCheck verifies this for the evaluation and the search.
+ *
+ * Symmetry s is applied to a cell (r, c) in three steps, each controlled by one bit of s:
+ * bit 0 swaps row and column (transpose), then bit 1 flips the row and bit 2 flips the
+ * column. Symmetry 0 is the identity.
+ */
+public final class Symmetry {
+
+    /** Number of symmetries of a square board. */
+    public static final int COUNT = 8;
+
+    /** Bit of s: swap row and column first. */
+    private static final int TRANSPOSE = 1;
+    /** Bit of s: mirror the row (r becomes size - 1 - r). */
+    private static final int FLIP_ROW = 2;
+    /** Bit of s: mirror the column (c becomes size - 1 - c). */
+    private static final int FLIP_COL = 4;
+
+    /** Not instantiable: static helpers only. */
+    private Symmetry() {
+    }
+
+    // --- Cells ---
+
+    /**
+     * Maps a cell to its position under a symmetry.
+     * @param symmetry The symmetry (0 to COUNT - 1).
+     * @param cell The cell as r * size + c.
+     * @param size The board dimension.
+     * @return The mapped cell as r * size + c.
+     */
+    public static int transform(int symmetry, int cell, int size) {
+        int r = cell / size;
+        int c = cell % size;
+        if ((symmetry & TRANSPOSE) != 0) {
+            int swap = r;
+            r = c;
+            c = swap;
+        }
+        if ((symmetry & FLIP_ROW) != 0) {
+            r = size - 1 - r;
+        }
+        if ((symmetry & FLIP_COL) != 0) {
+            c = size - 1 - c;
+        }
+        return r * size + c;
+    }
+
+    /**
+     * Gets the symmetry that undoes the given one, to map a move of the canonical
+     * orientation back onto the actual board.
+     * @param symmetry The symmetry.
+     * @return Its inverse.
+     */
+    public static int inverse(int symmetry) {
+        if ((symmetry & TRANSPOSE) == 0) {
+            return symmetry; // Flips undo themselves
+        }
+        // Undoing "transpose, then flip" means flipping first; a flip of the row before the
+        // transpose is a flip of the column after it, and vice versa.
+        int rowFlip = (symmetry & FLIP_COL) != 0 ? FLIP_ROW : 0;
+        int colFlip = (symmetry & FLIP_ROW) != 0 ? FLIP_COL : 0;
+        return TRANSPOSE | rowFlip | colFlip;
+    }
+
+    // --- Moves ---
+
+    /**
+     * Maps a move on the actual board into the canonical orientation of the position.
+     * @param symmetry The position's canonical symmetry (GameBoard.getCanonicalSymmetry()).
+     * @param cell The move as r * size + c on the actual board.
+     * @param size The board dimension.
+     * @return The move in the canonical orientation.
+     */
+    public static int toCanonical(int symmetry, int cell, int size) {
+        return transform(symmetry, cell, size);
+    }
+
+    /**
+     * Maps a move of the canonical orientation back onto the actual board.
+     * @param symmetry The position's canonical symmetry (GameBoard.getCanonicalSymmetry()).
+     * @param cell The move as r * size + c in the canonical orientation.
+     * @param size The board dimension.
+     * @return The move on the actual board.
+     */
+    public static int fromCanonical(int symmetry, int cell, int size) {
+        return transform(inverse(symmetry), cell, size);
+    }
+}
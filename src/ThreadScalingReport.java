@@ -0,0 +1,185 @@
+
+import java.util.ArrayList; // Collects move lists for comparison
+import java.util.List;
+import java.util.concurrent.ForkJoinPool; // One pool per thread count
+
+/**
+ * Measures how the parallel search modes scale with the number of threads.
+ * For each test position and 1, 2, ..., N threads it reports:
+ * <ul>
+ *   <li>ROOT_SPLIT: time for a fixed-depth search and speedup, checking that every run finds
+ *       the same best score and the same set of equally good moves as the single-threaded run;</li>
+ *   <li>LAZY_SMP time-to-depth: time for the same fixed-depth search and speedup;</li>
+ *   <li>LAZY_SMP move quality: depth reached within a fixed time budget, and whether the move
+ *       found is one of the best moves of a single-threaded search one ply deeper.</li>
+ * </ul>
+ *
+ * The root split must not change the result, so the report doubles as a regression check:
+ * it exits with status 1 if any root split run differs from the single-threaded one.
+ *
+ * Usage: java ThreadScalingReport [maxThreads] [depth] [budgetMillis]
+ * (defaults: all available processors, depth 4, 500 ms)
+ */
+public class ThreadScalingReport {
+
+    /** Test positions, one string per row ('B', 'W' or '.'); Black (the AI) is to move. */
+    private static final String[][] POSITIONS = {
+        {   // Opening: a few stones around the centre
+            ".........",
+            ".........",
+            ".........",
+            "...W.....",
+            "...BB....",
+            ".....W...",
+            ".........",
+            ".........",
+            "........."
+        },
+        {   // Middlegame: open threes and blocks on both sides
+            ".........",
+            "....W....",
+            "..WBB....",
+            "..BWBW...",
+            "...WBB...",
+            "....W.W..",
+            ".....B...",
+            ".........",
+            "........."
+        },
+    };
+
+    /** Timed runs per configuration; the fastest one is reported to reduce noise. */
+    private static final int RUNS = 3;
+
+    /**
+     * Runs the report.
+     * @param args Optional maximum thread count and search depth.
+     */
+    public static void main(String[] args) {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        long budgetMillis = args.length > 2 ? Long.parseLong(args[2]) : 500;
+
+        int mismatches = 0;
+        for (int p = 0; p < POSITIONS.length; p++) {
+            Board board = parse(POSITIONS[p]);
+            System.out.println("=== Position " + (p + 1) + ", depth " + depth + " ===");
+            // Reference for move quality: single-threaded search one ply deeper
+            MinimaxAI reference = new MinimaxAI(depth + 1, GameBoard.BLACK, GameBoard.WHITE);
+            List<String> referenceMoves = describe(reference.search(board, reference.getDefaultLimits()).getBestMoves());
+
+            List<String> results = new ArrayList<>();
+            long splitBase = 0;
+            long lazyBase = 0;
+            int baseScore = 0;
+            List<String> baseMoves = null;
+            for (int threads = 1; threads <= maxThreads; threads++) {
+                ForkJoinPool pool = threads == 1 ? null : new ForkJoinPool(threads);
+
+                // --- Root split: fixed depth, result must match the single-threaded search ---
+                SearchResult result = null;
+                List<String> moves = null;
+                long splitTime = Long.MAX_VALUE;
+                boolean matches = true;
+                for (int run = 0; run < RUNS; run++) {
+                    result = search(createAI(depth, pool, MinimaxAI.ParallelMode.ROOT_SPLIT), board);
+                    splitTime = Math.min(splitTime, result.getStats().getTimeNanos());
+                    moves = describe(result.getBestMoves());
+                    if (baseMoves == null) {
+                        baseScore = result.getScore(); // The first single-threaded run is the reference
+                        baseMoves = moves;
+                    }
+                    // Every run counts: a thread-timing dependent result may only show up now and then
+                    matches &= result.getScore() == baseScore && moves.equals(baseMoves);
+                }
+                if (threads == 1) {
+                    splitBase = splitTime;
+                }
+                if (!matches) {
+                    mismatches++;
+                }
+                results.add(String.format("ROOT_SPLIT threads=%d  time=%.1f ms  speedup=%.2fx  nodes=%d  score=%d  moves=%s  %s",
+                        threads, splitTime / 1e6, (double) splitBase / splitTime, result.getStats().getNodes(),
+                        result.getScore(), moves, matches ? "OK" : "MISMATCH"));
+
+                // --- Lazy SMP: time to reach the fixed depth ---
+                long lazyTime = Long.MAX_VALUE;
+                for (int run = 0; run < RUNS; run++) {
+                    result = search(createAI(depth, pool, MinimaxAI.ParallelMode.LAZY_SMP), board);
+                    lazyTime = Math.min(lazyTime, result.getStats().getTimeNanos());
+                }
+                if (threads == 1) {
+                    lazyBase = lazyTime;
+                }
+                results.add(String.format("LAZY_SMP   threads=%d  time-to-depth=%.1f ms  speedup=%.2fx  nodes=%d  score=%d",
+                        threads, lazyTime / 1e6, (double) lazyBase / lazyTime, result.getStats().getNodes(), result.getScore()));
+
+                // --- Lazy SMP: move quality within a fixed time budget ---
+                MinimaxAI ai = new MinimaxAI(GameBoard.BLACK, GameBoard.WHITE, budgetMillis);
+                ai.setSearchPool(pool);
+                ai.setParallelMode(MinimaxAI.ParallelMode.LAZY_SMP);
+                result = search(ai, board);
+                boolean good = referenceMoves.contains(result.getRow() + "," + result.getCol());
+                results.add(String.format("LAZY_SMP   threads=%d  budget=%d ms  depth=%d  move=%d,%d  %s",
+                        threads, budgetMillis, result.getDepth(), result.getRow(), result.getCol(),
+                        good ? "matches depth " + (depth + 1) : "differs from depth " + (depth + 1) + " " + referenceMoves));
+
+                if (pool != null) {
+                    pool.shutdown();
+                }
+            }
+            for (String line : results) {
+                System.out.println(line);
+            }
+        }
+        if (mismatches > 0) {
+            System.out.println(mismatches + " root split configuration(s) differ from the single-threaded search");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates a fixed-depth AI (with a fresh, empty table) for one measurement.
+     */
+    private static MinimaxAI createAI(int depth, ForkJoinPool pool, MinimaxAI.ParallelMode mode) {
+        MinimaxAI ai = new MinimaxAI(depth, GameBoard.BLACK, GameBoard.WHITE);
+        ai.setSearchPool(pool);
+        ai.setParallelMode(mode);
+        return ai;
+    }
+
+    /**
+     * Runs one search with the AI's default limits (its statistics include the wall-clock time).
+     */
+    private static SearchResult search(MinimaxAI ai, Board board) {
+        return ai.search(board, ai.getDefaultLimits());
+    }
+
+    /**
+     * Builds a board from row strings.
+     */
+    private static Board parse(String[] rows) {
+        Board board = new Board();
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < rows[r].length(); c++) {
+                char symbol = rows[r].charAt(c);
+                if (symbol != GameBoard.EMPTY_SLOT) {
+                    board.placeSymbol(r, c, symbol);
+                }
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Formats moves as sorted "row,col" strings so runs can be compared regardless of order.
+     */
+    private static List<String> describe(List<int[]> moves) {
+        List<String> result = new ArrayList<>();
+        for (int[] move : moves) {
+            result.add(move[0] + "," + move[1]);
+        }
+        result.sort(null);
+        return result;
+    }
+}
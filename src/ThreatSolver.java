@@ -0,0 +1,241 @@
+
+/**
+ * Threat-space search for forced wins by continuous fours (VCF, "victory by continuous fours").
+ * Instead of trying every move like the Minimax search, the attacker only plays moves that
+ * make a four (a line one stone short of five), and the defender only plays the single cell
+ * that blocks it. Because both sides have so few choices, the solver can look many moves
+ * deeper than the full-width search in a fraction of the time, and it finds the classic
+ * forced wins: double fours, four-threes (the three becomes an open four after the block)
+ * and long chains of fours.
+ *
+ * A four only forces the defender if the defender cannot win at once instead, so that is
+ * checked before every block. "Five" and "four" stand for the board's win length and one
+ * less (see GameBoard.getWinLength()). The board passed in is modified during the search but always
+ * restored before returning.
+ */
+public class ThreatSolver {
+
+    // --- Constants ---
+
+    /** Returned when no forced win was found. */
+    public static final int NO_MOVE = TranspositionTable.NO_MOVE;
+    /** Default maximum number of attacker moves in a winning sequence. */
+    public static final int DEFAULT_MAX_DEPTH = 12;
+    /** Default maximum number of attacker moves tried per solve. */
+    public static final int DEFAULT_NODE_LIMIT = 20000;
+
+    /** Row steps of the four line directions (horizontal, vertical, two diagonals). */
+    private static final int[] LINE_DR = {0, 1, 1, 1};
+    /** Column steps of the four line directions. */
+    private static final int[] LINE_DC = {1, 0, 1, -1};
+
+    // --- Instance Variables ---
+
+    /** Maximum number of attacker moves in a sequence. */
+    private final int maxDepth;
+    /** Maximum number of attacker moves tried per solve. */
+    private final int nodeLimit;
+    /** Per-depth buffers for the attacker's four-making moves (packed cell indices). */
+    private int[][] moveBuffers = new int[0][];
+    /** Scratch cell for the defender's forced block (read before recursing, so one is enough). */
+    private final int[] blockCell = new int[1];
+    /** Attacker moves tried in the current solve. */
+    private int nodeCount;
+
+    // --- Constructors ---
+
+    /**
+     * Creates a solver with the default depth and node limits.
+     */
+    public ThreatSolver() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_NODE_LIMIT);
+    }
+
+    /**
+     * Creates a solver with the given limits.
+     * @param maxDepth Maximum number of attacker moves in a winning sequence (at least 1).
+     * @param nodeLimit Maximum number of attacker moves tried per solve (at least 1).
+     */
+    public ThreatSolver(int maxDepth, int nodeLimit) {
+        if (maxDepth < 1 || nodeLimit < 1) {
+            throw new IllegalArgumentException("Invalid threat search limits: depth " + maxDepth + ", nodes " + nodeLimit);
+        }
+        this.maxDepth = maxDepth;
+        this.nodeLimit = nodeLimit;
+    }
+
+    // --- Solving ---
+
+    /**
+     * Looks for a forced win by continuous fours for the attacker, who is to move.
+     * @param board The position (modified during the search, restored afterwards).
+     * @param attacker Symbol of the side to move.
+     * @param defender Symbol of the other side.
+     * @return The first move of a winning sequence as a cell index (r * size + c), or NO_MOVE.
+     */
+    public int findVcf(GameBoard board, char attacker, char defender) {
+        int cells = board.getSize() * board.getSize();
+        if (moveBuffers.length < maxDepth || moveBuffers[0].length < cells) {
+            moveBuffers = new int[maxDepth][cells];
+        }
+        nodeCount = 0;
+        if (board.getWinner() != GameBoard.EMPTY_SLOT) {
+            return NO_MOVE; // The game is already over
+        }
+        return attack(board, attacker, defender, 0);
+    }
+
+    /**
+     * Attacker node: tries every move that makes a four (or wins outright).
+     * @return The winning move, or NO_MOVE if none of them forces a win within the limits.
+     */
+    private int attack(GameBoard board, char attacker, char defender, int depth) {
+        int size = board.getSize();
+        // An immediate five ends the sequence
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (board.isWinningMove(r, c, attacker)) {
+                    return r * size + c;
+                }
+            }
+        }
+        if (depth >= maxDepth) {
+            return NO_MOVE;
+        }
+
+        // --- Collect the four-making moves; double fours (unblockable) go first ---
+        int[] moves = moveBuffers[depth];
+        int count = 0;
+        int doubles = 0;
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (!board.isEmpty(r, c) || !hasNeighbour(board, r, c, attacker)) {
+                    continue;
+                }
+                board.placeSymbol(r, c, attacker);
+                int threats = countWinningCells(board, r, c, attacker, null);
+                board.removeSymbol(r, c);
+                if (threats >= 2) {
+                    moves[count++] = moves[doubles];
+                    moves[doubles++] = r * size + c;
+                } else if (threats == 1) {
+                    moves[count++] = r * size + c;
+                }
+            }
+        }
+
+        // --- Try each four: the defender must block it, then the attacker continues ---
+        for (int i = 0; i < count; i++) {
+            if (++nodeCount > nodeLimit) {
+                return NO_MOVE; // Out of budget: report "no forced win found"
+            }
+            int move = moves[i];
+            int r = move / size;
+            int c = move % size;
+            board.placeSymbol(r, c, attacker);
+            boolean wins = defend(board, r, c, attacker, defender, depth);
+            board.removeSymbol(r, c);
+            if (wins) {
+                return move;
+            }
+        }
+        return NO_MOVE;
+    }
+
+    /**
+     * Defender node after the attacker made a four at (r, c).
+     * @return true if the attacker wins by force from here.
+     */
+    private boolean defend(GameBoard board, int r, int c, char attacker, char defender, int depth) {
+        // A four only forces a block if the defender cannot simply win first
+        if (hasWinningMove(board, defender)) {
+            return false;
+        }
+        int threats = countWinningCells(board, r, c, attacker, blockCell);
+        if (threats >= 2) {
+            return true; // Two ways to make five: only one can be blocked
+        }
+        int size = board.getSize();
+        int br = blockCell[0] / size;
+        int bc = blockCell[0] % size;
+        board.placeSymbol(br, bc, defender);
+        boolean wins = attack(board, attacker, defender, depth + 1) != NO_MOVE;
+        board.removeSymbol(br, bc);
+        return wins;
+    }
+
+    // --- Threat Detection ---
+
+    /**
+     * Counts the empty cells on the lines through (r, c) where the symbol would make five.
+     * @param firstCell If not null, receives the first such cell (r * size + c).
+     * @return 0, 1 or 2 (counting stops at 2: more cannot be blocked either).
+     */
+    private static int countWinningCells(GameBoard board, int r, int c, char symbol, int[] firstCell) {
+        int size = board.getSize();
+        int reach = board.getWinLength() - 1; // A five through a cell spans at most 4 cells on either side
+        int found = 0;
+        int first = -1;
+        for (int d = 0; d < LINE_DR.length; d++) {
+            for (int step = -reach; step <= reach; step++) {
+                int nr = r + step * LINE_DR[d];
+                int nc = c + step * LINE_DC[d];
+                if (step != 0 && board.isWithinBounds(nr, nc) && board.isWinningMove(nr, nc, symbol)) {
+                    int cell = nr * size + nc;
+                    if (cell != first) { // The same cell can complete lines in two directions
+                        if (found == 0) {
+                            first = cell;
+                        }
+                        if (++found >= 2) {
+                            return found;
+                        }
+                    }
+                }
+            }
+        }
+        if (firstCell != null && found == 1) {
+            firstCell[0] = first;
+        }
+        return found;
+    }
+
+    /**
+     * Checks whether the symbol can make five with its next move.
+     */
+    private static boolean hasWinningMove(GameBoard board, char symbol) {
+        int size = board.getSize();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (board.isWinningMove(r, c, symbol)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a stone of the symbol lies on one of the lines through (r, c), close
+     * enough to share a five with it. Cells without one cannot make a four.
+     */
+    private static boolean hasNeighbour(GameBoard board, int r, int c, char symbol) {
+        int reach = board.getWinLength() - 1;
+        for (int d = 0; d < LINE_DR.length; d++) {
+            for (int step = -reach; step <= reach; step++) {
+                int nr = r + step * LINE_DR[d];
+                int nc = c + step * LINE_DC[d];
+                if (step != 0 && board.isWithinBounds(nr, nc) && board.getSymbol(nr, nc) == symbol) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // --- Accessors ---
+
+    /** @return The number of attacker moves tried in the last solve. */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+}
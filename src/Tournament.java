@@ -0,0 +1,336 @@
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList; // Futures of the scheduled games
+import java.util.List;
+import java.util.Locale;    // Fixed number format for the report
+import java.util.Random;    // Seeded opening generation
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless self-play tournament between two engine configurations (A and B), used to tune
+ * the {@link EvaluationWeights}. Games run in parallel on a fixed pool, one game per thread.
+ * <ul>
+ *   <li>Games are played in pairs from the same random opening, once with A as Black and once
+ *       with B as Black, so neither side profits from a lucky opening or from moving first.</li>
+ *   <li>Seeding is deterministic: the openings and each engine's tie-breaking Random are
+ *       derived from the tournament seed and the game number. Results are counted in game
+ *       order, so the same seed gives the same report with any number of threads.</li>
+ *   <li>The report gives the result from A's point of view, the Elo difference with a 95%
+ *       error margin, a sequential probability ratio test (SPRT) of H0: elo = ELO0 against
+ *       H1: elo = ELO1, and the throughput in games and nodes per second. The tournament
+ *       stops early (at a pair boundary) once the SPRT accepts either hypothesis.</li>
+ * </ul>
+ *
+ * Usage: java Tournament [games] [depth] [weightsA] [weightsB] [threads] [seed] [recordFile]
+ * [boardSize] [winLength]
+ * (defaults: 200 games, depth 2, default weights for both, all processors, seed 1, no records,
+ * a 9x9 board with five in a row; weights are given as
+ * "twoInRow,openTwo,threeInRow,openThree,fourInRow,openFour" or "default", "-" for recordFile
+ * records nothing).
+ * With a record file, every game is appended to it in game order (see {@link GameRecordWriter}),
+ * opening stones included, with the players named "A" and "B".
+ */
+public class Tournament {
+
+    // --- Settings ---
+    /** Stones placed at random before the engines take over (alternating, Black first). */
+    private static final int OPENING_STONES = 4;
+    /** Opening stones are placed at most this many rows/columns from the centre. */
+    private static final int OPENING_RADIUS = 2;
+    /** SPRT null hypothesis: A is this many Elo stronger than B. */
+    private static final double ELO0 = 0;
+    /** SPRT alternative hypothesis: A is this many Elo stronger than B. */
+    private static final double ELO1 = 10;
+    /** SPRT probability of accepting H1 when H0 is true. */
+    private static final double ALPHA = 0.05;
+    /** SPRT probability of accepting H0 when H1 is true. */
+    private static final double BETA = 0.05;
+
+    // --- Game Results ---
+
+    /**
+     * The outcome of one game, seen from engine A.
+     */
+    private static final class GameOutcome {
+        /** 1 if A won, 0.5 for a draw, 0 if B won. */
+        final double score;
+        /** Number of moves played by the engines. */
+        final int moves;
+        /** Nodes searched by both engines. */
+        final long nodes;
+        /** The whole game, for the record file. */
+        final GameRecord record;
+
+        GameOutcome(double score, int moves, long nodes, GameRecord record) {
+            this.score = score;
+            this.moves = moves;
+            this.nodes = nodes;
+            this.record = record;
+        }
+    }
+
+    // --- Entry Point ---
+
+    /**
+     * Runs the tournament and prints the report.
+     * @param args Optional game count, depth, weights of A and B, thread count, seed, record file,
+     *             board size and win length.
+     * @throws InterruptedException if interrupted while waiting for games.
+     * @throws IOException if the record file cannot be written.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        EvaluationWeights weightsA = args.length > 2 ? EvaluationWeights.parse(args[2]) : EvaluationWeights.DEFAULT;
+        EvaluationWeights weightsB = args.length > 3 ? EvaluationWeights.parse(args[3]) : EvaluationWeights.DEFAULT;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : 1;
+        int boardSize = args.length > 7 ? Integer.parseInt(args[7]) : Board.BOARD_SIZE;
+        int winLength = args.length > 8 ? Integer.parseInt(args[8]) : Board.WIN_LENGTH;
+        Board.checkDimensions(boardSize, winLength);
+        if (boardSize < 2 * OPENING_RADIUS + 1) {
+            throw new IllegalArgumentException("Board size must be at least " + (2 * OPENING_RADIUS + 1)
+                    + " for the random openings: " + boardSize);
+        }
+        GameRecordWriter recorder = args.length > 6 && !args[6].equals("-") ? GameRecordWriter.open(Paths.get(args[6])) : null;
+        games += games % 2; // Whole pairs only
+
+        System.out.println("Tournament: " + games + " games, depth " + depth + ", " + threads + " threads, seed " + seed
+                + ", " + boardSize + "x" + boardSize + " board, " + winLength + " in a row");
+        System.out.println("  A: " + weightsA);
+        System.out.println("  B: " + weightsB);
+
+        // --- Schedule every game; results are read back in game order ---
+        SearchLimits limits = SearchLimits.depth(depth);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<GameOutcome>> scheduled = new ArrayList<>(games);
+        long start = System.nanoTime();
+        for (int game = 0; game < games; game++) {
+            int index = game;
+            scheduled.add(pool.submit(() -> playGame(index, seed, boardSize, winLength, limits, weightsA, weightsB)));
+        }
+
+        int wins = 0;
+        int draws = 0;
+        int losses = 0;
+        long moves = 0;
+        long nodes = 0;
+        String sprtVerdict = "inconclusive";
+        double lowerBound = Math.log(BETA / (1 - ALPHA));
+        double upperBound = Math.log((1 - BETA) / ALPHA);
+        for (int game = 0; game < games; game++) {
+            GameOutcome outcome;
+            try {
+                outcome = scheduled.get(game).get();
+            } catch (ExecutionException e) {
+                pool.shutdownNow();
+                throw new IllegalStateException("Game " + game + " failed", e.getCause());
+            }
+            if (outcome.score == 1) {
+                wins++;
+            } else if (outcome.score == 0) {
+                losses++;
+            } else {
+                draws++;
+            }
+            moves += outcome.moves;
+            nodes += outcome.nodes;
+            if (recorder != null) {
+                recorder.write(outcome.record); // In game order, so the file does not depend on the threads
+            }
+
+            // --- Sequential test at each pair boundary ---
+            if (game % 2 == 1) {
+                double llr = logLikelihoodRatio(wins, draws, losses);
+                if (llr >= upperBound || llr <= lowerBound) {
+                    sprtVerdict = (llr >= upperBound ? "H1 accepted" : "H0 accepted") + " after " + (game + 1) + " games";
+                    for (int rest = game + 1; rest < games; rest++) {
+                        scheduled.get(rest).cancel(false); // Games not started yet are skipped
+                    }
+                    break;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdownNow();
+        if (recorder != null) {
+            recorder.close();
+            System.out.println("Recorded " + recorder.getRecordCount() + " games in " + args[6]);
+        }
+
+        // --- Report ---
+        int played = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / played;
+        System.out.println(String.format(Locale.ROOT, "Result A vs B: +%d =%d -%d (score %.1f%%)",
+                wins, draws, losses, score * 100));
+        System.out.println(String.format(Locale.ROOT, "Elo difference: %s +/- %.1f (95%%)",
+                formatElo(elo(score)), eloMargin(wins, draws, losses)));
+        System.out.println(String.format(Locale.ROOT, "SPRT elo0=%.0f elo1=%.0f alpha=%.2f beta=%.2f: LLR %.2f [%.2f, %.2f] %s",
+                ELO0, ELO1, ALPHA, BETA, logLikelihoodRatio(wins, draws, losses), lowerBound, upperBound, sprtVerdict));
+        System.out.println(String.format(Locale.ROOT, "Throughput: %.2f games/s, %.0f nodes/s, %.1f moves/game (%.1f s)",
+                played / seconds, nodes / seconds, (double) moves / played, seconds));
+    }
+
+    // --- Playing ---
+
+    /**
+     * Plays one game of the tournament.
+     * @param game Game number: pair game / 2, with A as Black in even games.
+     * @param seed Tournament seed.
+     * @param boardSize The number of rows (and columns) of the board.
+     * @param winLength The number of symbols in a row that wins.
+     * @param limits Search limits of both engines.
+     * @param weightsA Weights of engine A.
+     * @param weightsB Weights of engine B.
+     * @return The outcome from A's point of view.
+     */
+    private static GameOutcome playGame(int game, long seed, int boardSize, int winLength, SearchLimits limits,
+                                        EvaluationWeights weightsA, EvaluationWeights weightsB) {
+        boolean aIsBlack = game % 2 == 0;
+        MinimaxAI black = createEngine(GameBoard.BLACK, aIsBlack ? weightsA : weightsB, limits, mix(seed, 2L * game));
+        MinimaxAI white = createEngine(GameBoard.WHITE, aIsBlack ? weightsB : weightsA, limits, mix(seed, 2L * game + 1));
+
+        long startMillis = System.currentTimeMillis();
+        Board board = new Board(boardSize, winLength);
+        int size = board.getSize();
+        int[] played = new int[size * size]; // Every move, opening stones included
+        placeOpening(board, new Random(mix(seed, -1 - game / 2)), played); // Same opening for both games of a pair
+        char toMove = OPENING_STONES % 2 == 0 ? GameBoard.BLACK : GameBoard.WHITE;
+        int moves = 0;
+        long nodes = 0;
+        while (board.getWinner() == GameBoard.EMPTY_SLOT && !board.isFull()) {
+            MinimaxAI engine = toMove == GameBoard.BLACK ? black : white;
+            SearchResult result = engine.search(board, limits);
+            board.placeSymbol(result.getRow(), result.getCol(), toMove);
+            played[OPENING_STONES + moves] = result.getRow() * size + result.getCol();
+            nodes += result.getStats().getNodes();
+            moves++;
+            toMove = toMove == GameBoard.BLACK ? GameBoard.WHITE : GameBoard.BLACK;
+        }
+
+        char winner = board.getWinner();
+        char aSymbol = aIsBlack ? GameBoard.BLACK : GameBoard.WHITE;
+        double score = winner == GameBoard.EMPTY_SLOT ? 0.5 : winner == aSymbol ? 1 : 0;
+        GameRecord.Result result = winner == GameBoard.BLACK ? GameRecord.Result.BLACK_WINS
+                : winner == GameBoard.WHITE ? GameRecord.Result.WHITE_WINS : GameRecord.Result.DRAW;
+        GameRecord record = new GameRecord(size, board.getWinLength(), aIsBlack ? "A" : "B", aIsBlack ? "B" : "A", result,
+                startMillis, (int) (System.currentTimeMillis() - startMillis), played, OPENING_STONES + moves);
+        return new GameOutcome(score, moves, nodes, record);
+    }
+
+    /**
+     * Creates one engine of a game: single-threaded, with its own table and a fixed seed.
+     */
+    private static MinimaxAI createEngine(char symbol, EvaluationWeights weights, SearchLimits limits, long seed) {
+        char opponent = symbol == GameBoard.BLACK ? GameBoard.WHITE : GameBoard.BLACK;
+        MinimaxAI engine = new MinimaxAI(limits, symbol, opponent, new TranspositionTable());
+        engine.setWeights(weights);
+        engine.setSeed(seed);
+        return engine;
+    }
+
+    /**
+     * Places the random opening stones near the centre, alternating Black and White.
+     * @param played Receives the cells of the stones, in order.
+     */
+    private static void placeOpening(Board board, Random random, int[] played) {
+        int centre = board.getSize() / 2;
+        int span = 2 * OPENING_RADIUS + 1;
+        char symbol = GameBoard.BLACK;
+        for (int placed = 0; placed < OPENING_STONES; ) {
+            int r = centre - OPENING_RADIUS + random.nextInt(span);
+            int c = centre - OPENING_RADIUS + random.nextInt(span);
+            if (board.isEmpty(r, c)) {
+                board.placeSymbol(r, c, symbol);
+                played[placed] = r * board.getSize() + c;
+                symbol = symbol == GameBoard.BLACK ? GameBoard.WHITE : GameBoard.BLACK;
+                placed++;
+            }
+        }
+    }
+
+    /**
+     * Derives an independent seed from the tournament seed and a stream number (SplitMix64
+     * finaliser), so neighbouring games get unrelated random sequences.
+     */
+    private static long mix(long seed, long stream) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --- Statistics ---
+
+    /**
+     * Converts a score fraction into an Elo difference (logistic model).
+     * @return The Elo difference; infinite for a score of 0 or 1.
+     */
+    private static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Gets the score fraction expected at the given Elo difference.
+     */
+    private static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Gets the 95% error margin of the Elo difference from the per-game score variance.
+     * @return Half the width of the interval in Elo, or NaN if it cannot be estimated yet.
+     */
+    private static double eloMargin(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / games;
+        double deviation = Math.sqrt(variance(wins, draws, losses) / games);
+        double low = score - 1.959964 * deviation;
+        double high = score + 1.959964 * deviation;
+        if (low <= 0 || high >= 1) {
+            return Double.NaN;
+        }
+        return (elo(high) - elo(low)) / 2;
+    }
+
+    /**
+     * Gets the variance of a single game's score (1, 0.5 or 0).
+     */
+    private static double variance(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        double score = (wins + 0.5 * draws) / games;
+        return (wins * (1 - score) * (1 - score) + draws * (0.5 - score) * (0.5 - score)
+                + losses * score * score) / games;
+    }
+
+    /**
+     * Gets the SPRT log-likelihood ratio of H1 (elo = ELO1) against H0 (elo = ELO0), using the
+     * normal approximation of the mean game score.
+     * @return The ratio; 0 while all results are equal (no variance to judge by).
+     */
+    private static double logLikelihoodRatio(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        double variance = variance(wins, draws, losses);
+        if (variance == 0) {
+            return 0;
+        }
+        double score = (wins + 0.5 * draws) / games;
+        double s0 = expectedScore(ELO0);
+        double s1 = expectedScore(ELO1);
+        return games * (s1 - s0) * (2 * score - s0 - s1) / (2 * variance);
+    }
+
+    /**
+     * Formats an Elo difference with its sign.
+     */
+    private static String formatElo(double elo) {
+        if (Double.isInfinite(elo)) {
+            return elo > 0 ? "+inf" : "-inf";
+        }
+        return String.format(Locale.ROOT, "%+.1f", elo);
+    }
+}
@@ -0,0 +1,216 @@
+
+import java.util.Arrays; // Used for Arrays.fill()
+
+/**
+ * Fixed-size transposition table for the Minimax search.
+ * Stores, per Zobrist hash, the result of searching that position: remaining depth,
+ * bound type, score and best move. The search keys it by the canonical hash (see
+ * {@link Symmetry}), so the 8 symmetric variants of a position share one entry and the
+ * stored move is in the canonical orientation. Entries live in two parallel primitive arrays
+ * (one long for the key, one long for the packed data), so the table never creates
+ * objects after construction and garbage collection stays flat however long it runs.
+ * The table keeps no counters of its own: probe() and store() run at every node on every
+ * search thread, so each SearchWorker counts its hits, misses and overwrites in plain
+ * fields, and SearchStats adds them up when the search ends.
+ *
+ * Packed entry layout (64 bits):
+ * <pre>
+ *   bits 32..63  score (signed int)
+ *   bits 16..31  best move (cell index r * size + c, 0xFFFF = none)
+ *   bits  8..15  remaining search depth
+ *   bits  2..7   search generation (used to age out old entries)
+ *   bits  0..1   bound type (never 0 for a stored entry)
+ * </pre>
+ */
+public class TranspositionTable {
+
+    // --- Constants ---
+
+    /** Returned by probe() when the position is not in the table. */
+    public static final long NO_ENTRY = 0L;
+    /** The score is exact (searched with a window that contained it). */
+    public static final int BOUND_EXACT = 1;
+    /** The score is a lower bound (the search failed high). */
+    public static final int BOUND_LOWER = 2;
+    /** The score is an upper bound (the search failed low). */
+    public static final int BOUND_UPPER = 3;
+    /** Move value meaning "no best move recorded". */
+    public static final int NO_MOVE = -1;
+
+    /** Default number of entries (must be a power of two): 64K entries, 1 MB per table. */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    /**
+     * How a new entry competes with a different position already stored in its slot.
+     */
+    public enum ReplacementPolicy {
+        /** The newest result always wins the slot. */
+        ALWAYS_REPLACE,
+        /** Keep the deeper result, unless it is left over from an earlier search. */
+        DEPTH_PREFERRED
+    }
+
+    // --- Instance Variables ---
+
+    /** Zobrist key XOR packed data of each slot (verifies that the two words belong together). */
+    private final long[] keys;
+    /** Packed data stored in each slot (NO_ENTRY if the slot is unused). */
+    private final long[] entries;
+    /** capacity - 1, used to map a hash to a slot. */
+    private final int indexMask;
+    /** Replacement policy for slot collisions. */
+    private final ReplacementPolicy policy;
+    /** Current search generation (6 bits, wraps around); only changed between searches. */
+    private volatile int generation;
+
+    // --- Constructors ---
+
+    /**
+     * Creates a table with DEFAULT_CAPACITY entries and the depth-preferred policy.
+     */
+    public TranspositionTable() {
+        this(DEFAULT_CAPACITY, ReplacementPolicy.DEPTH_PREFERRED);
+    }
+
+    /**
+     * Creates a table with the given number of entries and replacement policy.
+     * @param capacity Requested number of entries; rounded up to a power of two.
+     * @param policy How collisions between different positions are resolved.
+     */
+    public TranspositionTable(int capacity, ReplacementPolicy policy) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid transposition table capacity: " + capacity);
+        }
+        int slots = Integer.highestOneBit(capacity);
+        if (slots < capacity) {
+            slots <<= 1; // Round up to the next power of two
+        }
+        this.keys = new long[slots];
+        this.entries = new long[slots];
+        this.indexMask = slots - 1;
+        this.policy = policy;
+    }
+
+    // --- Table Operations ---
+
+    /**
+     * Starts a new search generation. Under DEPTH_PREFERRED, entries from earlier
+     * generations may be replaced regardless of their depth.
+     * Call this before the search threads start, not while they are running.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0x3F;
+    }
+
+    /**
+     * Removes every entry (not while a search is running).
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, NO_ENTRY);
+    }
+
+    /**
+     * Looks up a position.
+     * @param key The position's Zobrist hash.
+     * @return The packed entry (decode with score/depth/bound/move), or NO_ENTRY if absent.
+     */
+    public long probe(long key) {
+        int index = (int) key & indexMask;
+        long entry = entries[index];
+        // Read each word once: both may change under us, but only a matching pair passes
+        if (entry != NO_ENTRY && (keys[index] ^ entry) == key) {
+            return entry;
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores a search result.
+     * @param key The position's Zobrist hash.
+     * @param depth Remaining depth the position was searched to.
+     * @param bound BOUND_EXACT, BOUND_LOWER or BOUND_UPPER.
+     * @param score The score found.
+     * @param move Best move as a cell index, or NO_MOVE.
+     * @return true if the result evicted a different position (for the caller's statistics).
+     */
+    public boolean store(long key, int depth, int bound, int score, int move) {
+        int index = (int) key & indexMask;
+        long old = entries[index];
+        boolean evicts = old != NO_ENTRY && (keys[index] ^ old) != key;
+        if (evicts && policy == ReplacementPolicy.DEPTH_PREFERRED
+                && generation(old) == generation && depth(old) > depth) {
+            // A different position owns this slot (or another thread is rewriting it)
+            return false; // Keep the deeper result from the current search
+        }
+        long data = pack(depth, bound, score, move);
+        entries[index] = data;
+        keys[index] = key ^ data;
+        return evicts;
+    }
+
+    /**
+     * Packs the fields of an entry into one long.
+     */
+    private long pack(int depth, int bound, int score, int move) {
+        return ((long) score << 32)
+                | ((long) (move & 0xFFFF) << 16)
+                | ((long) (depth & 0xFF) << 8)
+                | ((long) generation << 2)
+                | bound;
+    }
+
+    // --- Entry Decoding ---
+
+    /**
+     * @param entry A packed entry returned by probe().
+     * @return The stored score.
+     */
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    /**
+     * @param entry A packed entry returned by probe().
+     * @return The stored best move cell index, or NO_MOVE.
+     */
+    public static int move(long entry) {
+        int move = (int) (entry >>> 16) & 0xFFFF;
+        return move == 0xFFFF ? NO_MOVE : move;
+    }
+
+    /**
+     * @param entry A packed entry returned by probe().
+     * @return The remaining depth the position was searched to.
+     */
+    public static int depth(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    /**
+     * @param entry A packed entry returned by probe().
+     * @return BOUND_EXACT, BOUND_LOWER or BOUND_UPPER.
+     */
+    public static int bound(long entry) {
+        return (int) entry & 0x3;
+    }
+
+    /**
+     * Extracts the search generation an entry was stored in.
+     */
+    private static int generation(long entry) {
+        return (int) (entry >>> 2) & 0x3F;
+    }
+
+    // --- Properties ---
+
+    /** @return The number of entries (slots) in the table. */
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    /** @return The replacement policy in use. */
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+}
@@ -0,0 +1,421 @@
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;    // Fixed number format for the progress lines
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tunes the {@link EvaluationWeights} on recorded games (Texel-style tuning): the evaluation
+ * of a quiet position, passed through a sigmoid, should predict the game's result for the
+ * player to move (1 for a win, 0.5 for a draw, 0 for a loss). The tuner looks for the
+ * weights with the smallest mean squared prediction error and writes them to a weights
+ * file, which the game programs load at startup (see EvaluationWeights.loadStartupWeights()).
+ * <p>
+ * The evaluation is a sum of shape scores, so it is linear in the six weights: a position
+ * is reduced once to six features, the number of each shape the player to move has minus
+ * the number the opponent has (see PatternEvaluator.countShapes()). All features are held
+ * in one primitive array, and every error computation is a pass over that array split
+ * across the threads; no board is touched while tuning.
+ * <p>
+ * Steps:
+ * <ol>
+ *   <li>Extract: replay every finished game and keep its quiet positions (no four or five
+ *       on the board, and no open three for the player to move, which would win by force).
+ *       The first plies are skipped, since the random openings say little about the result.</li>
+ *   <li>Fit the sigmoid's scale to the starting weights, and keep it fixed from then on.</li>
+ *   <li>Local search: change one weight at a time by a step relative to its value, keep any
+ *       change that lowers the error, and halve the step once no change helps. The four
+ *       scores never apply to quiet positions and keep their starting values.</li>
+ * </ol>
+ * The tuned weights can be checked against the old ones with the {@link Tournament} runner.
+ *
+ * Usage: java WeightTuner recordFile [weightsFile] [threads] [openingPlies]
+ * (defaults: EvaluationWeights.WEIGHTS_FILE, all processors, skip 6 plies; the search starts
+ * from EvaluationWeights.loadStartupWeights(), so running the tuner again continues from its output)
+ */
+public class WeightTuner implements AutoCloseable {
+
+    // --- Settings ---
+    /** Features per position: the six scored shapes, from two-in-a-row to open four. */
+    static final int FEATURES = 6;
+    /** Largest allowed weight (see the EvaluationWeights constructor). */
+    private static final int MAX_WEIGHT = MinimaxAI.WIN_SCORE / 4 - 1;
+    /** First relative step of the local search (a weight is tried at +-50%). */
+    private static final double START_STEP = 0.5;
+    /** The local search ends once its relative step falls below this. */
+    private static final double MIN_STEP = 1.0 / 256;
+    /** Range searched for the sigmoid's scale (evaluation units per e-fold of odds). */
+    private static final double MIN_SCALE = 1;
+    private static final double MAX_SCALE = 1_000_000;
+    /** Golden-section iterations when fitting the scale. */
+    private static final int SCALE_ITERATIONS = 60;
+    /** Positions held before the arrays first grow. */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    // --- Instance Variables ---
+    /** Plies skipped at the start of every game. */
+    private final int openingPlies;
+    /** Threads the error computations are split across. */
+    private final int threads;
+    /** Runs the error computations. */
+    private final ExecutorService pool;
+    /**
+     * The feature matrix, one row of FEATURES per position: [position * FEATURES + feature]
+     * is the player to move's count of that shape minus the opponent's.
+     */
+    private short[] features = new short[INITIAL_CAPACITY * FEATURES];
+    /** Result per position for the player to move, in half points: 0 loss, 1 draw, 2 win. */
+    private byte[] results = new byte[INITIAL_CAPACITY];
+    /** Positions extracted. */
+    private int positionCount;
+    /** Games the positions came from. */
+    private long gameCount;
+    /** Evaluation units per e-fold of the predicted odds (see fitScale()). */
+    private double scale = 1000;
+
+    /**
+     * Creates an empty tuner.
+     * @param openingPlies Plies skipped at the start of every game.
+     * @param threads Threads the error computations are split across.
+     */
+    public WeightTuner(int openingPlies, int threads) {
+        if (openingPlies < 0) {
+            throw new IllegalArgumentException("Opening plies cannot be negative: " + openingPlies);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Need at least one thread: " + threads);
+        }
+        this.openingPlies = openingPlies;
+        this.threads = threads;
+        this.pool = Executors.newFixedThreadPool(threads);
+    }
+
+    // --- Entry Point ---
+
+    /**
+     * Extracts the positions of a game record file, tunes the weights and writes them.
+     * @param args Record file, then optional weights file, thread count and opening plies.
+     * @throws IOException if the records cannot be read or the weights cannot be written.
+     * @throws InterruptedException if interrupted while waiting for the error computations.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: java WeightTuner recordFile [weightsFile] [threads] [openingPlies]");
+            return;
+        }
+        Path weightsFile = Paths.get(args.length > 1 ? args[1] : EvaluationWeights.WEIGHTS_FILE);
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int openingPlies = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+
+        long start = System.nanoTime();
+        try (WeightTuner tuner = new WeightTuner(openingPlies, threads)) {
+            try (GameRecordReader reader = GameRecordReader.open(Paths.get(args[0]))) {
+                tuner.extract(reader);
+            }
+            System.out.println(String.format(Locale.ROOT, "Extracted %d quiet positions from %d games (%.1f s)",
+                    tuner.getPositionCount(), tuner.getGameCount(), (System.nanoTime() - start) / 1e9));
+            if (tuner.getPositionCount() == 0) {
+                System.err.println("No quiet positions to tune on.");
+                return;
+            }
+
+            EvaluationWeights initial = EvaluationWeights.loadStartupWeights();
+            double scale = tuner.fitScale(initial);
+            double initialError = tuner.error(toArray(initial));
+            System.out.println(String.format(Locale.ROOT, "Start:  %s  error %.6f  (sigmoid scale %.1f)",
+                    initial, initialError, scale));
+
+            EvaluationWeights tuned = tuner.tune(initial);
+            double tunedError = tuner.error(toArray(tuned));
+            System.out.println(String.format(Locale.ROOT, "Tuned:  %s  error %.6f  (%.1f s)",
+                    tuned, tunedError, (System.nanoTime() - start) / 1e9));
+
+            List<String> comments = new ArrayList<>();
+            comments.add("Gomoku evaluation weights: twoInRow,openTwo,threeInRow,openThree,fourInRow,openFour");
+            comments.add(String.format(Locale.ROOT, "Tuned by WeightTuner on %s: %d positions from %d games",
+                    args[0], tuner.getPositionCount(), tuner.getGameCount()));
+            comments.add(String.format(Locale.ROOT, "Error %.6f (start %s: %.6f), sigmoid scale %.1f",
+                    tunedError, initial, initialError, scale));
+            tuned.save(weightsFile, comments);
+            System.out.println("Wrote " + weightsFile);
+        }
+    }
+
+    /**
+     * Ends the threads of the error computations.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // --- Extraction ---
+
+    /**
+     * Replays every game of a record file and adds its quiet positions. Abandoned games
+     * have no result and are skipped.
+     * @param reader The games.
+     * @throws IOException if the records cannot be read.
+     */
+    public void extract(GameRecordReader reader) throws IOException {
+        for (GameRecord game = reader.next(); game != null; game = reader.next()) {
+            if (game.getResult() != GameRecord.Result.ABANDONED) {
+                addGame(game);
+                gameCount++;
+            }
+        }
+    }
+
+    /**
+     * Adds the quiet positions of one game.
+     */
+    private void addGame(GameRecord game) {
+        int size = game.getSize();
+        Board board = new Board(size, game.getWinLength());
+        // Shapes are only counted, never scored, so the evaluator needs no real weights
+        PatternEvaluator shapes = new PatternEvaluator(GameBoard.BLACK, GameBoard.WHITE,
+                new int[PatternEvaluator.SHAPE_COUNT]);
+        shapes.attach(board);
+        int[] counts = new int[2 * PatternEvaluator.SHAPE_COUNT];
+
+        for (int ply = 0; ply < game.getMoveCount(); ply++) {
+            char mover = GameRecord.getMover(ply);
+            if (ply >= openingPlies) {
+                shapes.countShapes(counts);
+                // Black's shapes come first in the counts
+                int own = mover == GameBoard.BLACK ? 0 : PatternEvaluator.SHAPE_COUNT;
+                int other = PatternEvaluator.SHAPE_COUNT - own;
+                if (isQuiet(counts, own, other)) {
+                    addPosition(counts, own, other, resultFor(game.getResult(), mover));
+                }
+            }
+            int move = game.getMove(ply);
+            if (!board.isEmpty(move / size, move % size)) {
+                return; // A damaged record: the rest of the game cannot be replayed
+            }
+            board.placeSymbol(move / size, move % size, mover);
+            shapes.place(move / size, move % size, mover);
+        }
+    }
+
+    /**
+     * Checks that a position has no tactics left for the evaluation to misjudge: no four or
+     * five for either player, and no open three for the player to move.
+     */
+    private static boolean isQuiet(int[] counts, int own, int other) {
+        for (int shape = PatternEvaluator.SHAPE_FOUR; shape <= PatternEvaluator.SHAPE_FIVE; shape++) {
+            if (counts[own + shape] > 0 || counts[other + shape] > 0) {
+                return false;
+            }
+        }
+        return counts[own + PatternEvaluator.SHAPE_OPEN_THREE] == 0;
+    }
+
+    /**
+     * Gets a game's result for one player in half points.
+     */
+    private static byte resultFor(GameRecord.Result result, char player) {
+        if (result == GameRecord.Result.DRAW) {
+            return 1;
+        }
+        boolean blackWon = result == GameRecord.Result.BLACK_WINS;
+        return (byte) (blackWon == (player == GameBoard.BLACK) ? 2 : 0);
+    }
+
+    /**
+     * Appends one row to the feature matrix, growing the arrays when full.
+     */
+    private void addPosition(int[] counts, int own, int other, byte result) {
+        if (positionCount == results.length) {
+            int capacity = results.length * 2;
+            features = Arrays.copyOf(features, capacity * FEATURES);
+            results = Arrays.copyOf(results, capacity);
+        }
+        int row = positionCount * FEATURES;
+        for (int feature = 0; feature < FEATURES; feature++) {
+            int shape = PatternEvaluator.SHAPE_TWO + feature;
+            features[row + feature] = (short) (counts[own + shape] - counts[other + shape]);
+        }
+        results[positionCount++] = result;
+    }
+
+    // --- Error ---
+
+    /**
+     * Computes the mean squared error of the predicted results over all positions, split
+     * into one chunk per thread of the pool.
+     * @param weights The six weights, in feature order.
+     * @return The mean of (result - sigmoid(evaluation))^2.
+     * @throws InterruptedException if interrupted while waiting for the chunks.
+     */
+    double error(int[] weights) throws InterruptedException {
+        int chunks = Math.max(1, Math.min(positionCount, threads));
+        List<Callable<Double>> tasks = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = (int) ((long) positionCount * chunk / chunks);
+            int to = (int) ((long) positionCount * (chunk + 1) / chunks);
+            tasks.add(() -> errorSum(weights, from, to));
+        }
+        double sum = 0;
+        try {
+            for (Future<Double> part : pool.invokeAll(tasks)) {
+                sum += part.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error computation failed", e.getCause());
+        }
+        return sum / positionCount;
+    }
+
+    /**
+     * Sums the squared errors of the positions from (inclusive) to (exclusive).
+     */
+    private double errorSum(int[] weights, int from, int to) {
+        short[] matrix = features;
+        double sum = 0;
+        for (int position = from; position < to; position++) {
+            int row = position * FEATURES;
+            int evaluation = 0;
+            for (int feature = 0; feature < FEATURES; feature++) {
+                evaluation += weights[feature] * matrix[row + feature];
+            }
+            double predicted = 1 / (1 + Math.exp(-evaluation / scale));
+            double difference = results[position] * 0.5 - predicted;
+            sum += difference * difference;
+        }
+        return sum;
+    }
+
+    // --- Tuning ---
+
+    /**
+     * Fits the sigmoid's scale to a set of weights (a golden-section search on the
+     * logarithm of the scale) and keeps it for the error computations that follow.
+     * @param weights The weights the scale is fitted to.
+     * @return The fitted scale.
+     * @throws InterruptedException if interrupted while waiting for the error computations.
+     */
+    public double fitScale(EvaluationWeights weights) throws InterruptedException {
+        int[] values = toArray(weights);
+        double ratio = (Math.sqrt(5) - 1) / 2;
+        double low = Math.log(MIN_SCALE);
+        double high = Math.log(MAX_SCALE);
+        double left = high - ratio * (high - low);
+        double right = low + ratio * (high - low);
+        double leftError = errorAtScale(values, left);
+        double rightError = errorAtScale(values, right);
+        for (int i = 0; i < SCALE_ITERATIONS; i++) {
+            if (leftError < rightError) {
+                high = right;
+                right = left;
+                rightError = leftError;
+                left = high - ratio * (high - low);
+                leftError = errorAtScale(values, left);
+            } else {
+                low = left;
+                left = right;
+                leftError = rightError;
+                right = low + ratio * (high - low);
+                rightError = errorAtScale(values, right);
+            }
+        }
+        scale = Math.exp((low + high) / 2);
+        return scale;
+    }
+
+    /**
+     * Computes the error with the scale e^logScale.
+     */
+    private double errorAtScale(int[] weights, double logScale) throws InterruptedException {
+        scale = Math.exp(logScale);
+        return error(weights);
+    }
+
+    /**
+     * Runs the local search from a set of weights, with the current sigmoid scale. Weights
+     * of shapes that never differ between the players in any position are left as they are
+     * (fours are never in quiet positions, so the four scores always keep their value).
+     * @param initial The starting weights.
+     * @return The weights with the lowest error found.
+     * @throws InterruptedException if interrupted while waiting for the error computations.
+     */
+    public EvaluationWeights tune(EvaluationWeights initial) throws InterruptedException {
+        int[] best = toArray(initial);
+        double bestError = error(best);
+        boolean[] occurs = new boolean[FEATURES];
+        for (int i = 0; i < positionCount * FEATURES; i++) {
+            occurs[i % FEATURES] |= features[i] != 0;
+        }
+        for (double step = START_STEP; step >= MIN_STEP; ) {
+            boolean improved = false;
+            for (int feature = 0; feature < FEATURES; feature++) {
+                if (!occurs[feature]) {
+                    continue; // No position says anything about this weight
+                }
+                int delta = Math.max(1, (int) Math.round(best[feature] * step));
+                for (int sign = 1; sign >= -1; sign -= 2) {
+                    int[] candidate = best.clone();
+                    candidate[feature] = Math.max(0, Math.min(MAX_WEIGHT, best[feature] + sign * delta));
+                    if (candidate[feature] == best[feature]) {
+                        continue;
+                    }
+                    double candidateError = error(candidate);
+                    if (candidateError < bestError) {
+                        best = candidate;
+                        bestError = candidateError;
+                        improved = true;
+                        break; // At most one change per weight and pass
+                    }
+                }
+            }
+            System.out.println(String.format(Locale.ROOT, "  step %5.1f%%  %s  error %.6f",
+                    step * 100, fromArray(best), bestError));
+            if (!improved) {
+                step /= 2;
+            }
+        }
+        return fromArray(best);
+    }
+
+    // --- Conversion ---
+
+    /**
+     * Gets weights as an array in feature order (the shape order of PatternEvaluator).
+     */
+    static int[] toArray(EvaluationWeights weights) {
+        return new int[]{weights.getTwoInRow(), weights.getOpenTwo(), weights.getThreeInRow(),
+                weights.getOpenThree(), weights.getFourInRow(), weights.getOpenFour()};
+    }
+
+    /**
+     * Gets weights from an array in feature order.
+     */
+    static EvaluationWeights fromArray(int[] weights) {
+        return new EvaluationWeights(weights[0], weights[1], weights[2], weights[3], weights[4], weights[5]);
+    }
+
+    // --- Accessors ---
+
+    /** @return Quiet positions extracted so far. */
+    public int getPositionCount() {
+        return positionCount;
+    }
+
+    /** @return Games whose positions were extracted. */
+    public long getGameCount() {
+        return gameCount;
+    }
+
+    /** @return The sigmoid's scale (evaluation units per e-fold of the predicted odds). */
+    public double getScale() {
+        return scale;
+    }
+}
@@ -0,0 +1,103 @@
+
+import java.util.concurrent.ConcurrentHashMap; // Caches the key tables per board size
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Zobrist hashing keys for Gomoku positions.
+ * Every (cell, colour) pair gets a fixed random 64-bit key; the hash of a position is the
+ * XOR of the keys of all stones on the board. Because XOR is its own inverse, boards can
+ * update the hash in O(1) when a stone is placed or removed.
+ *
+ * Keys are generated from a fixed seed, so the same position always has the same hash
+ * (across games and JVM restarts), and the tables are shared read-only per board size.
+ *
+ * For symmetry-aware caching, boards also keep the hashes of their 8 symmetric variants
+ * (see {@link Symmetry}) up to date; symmetricKeysFor() lays the keys out so that one stone
+ * updates all 8 hashes from 8 adjacent table entries.
+ */
+public final class Zobrist {
+
+    /** Fixed seed so hashes are reproducible. */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /** Key tables already generated, by board size. The arrays are never modified after creation. */
+    private static final ConcurrentMap<Integer, long[]> TABLES = new ConcurrentHashMap<>();
+    /** Symmetric key tables already generated, by board size (read-only as well). */
+    private static final ConcurrentMap<Integer, long[]> SYMMETRIC_TABLES = new ConcurrentHashMap<>();
+
+    /** Not instantiable: static helpers only. */
+    private Zobrist() {
+    }
+
+    /**
+     * Gets the key table for a board size. Entry (cell * 2 + colour) is the key of a stone
+     * of that colour (see colourIndex) on cell (r * size + c).
+     * @param size The board dimension.
+     * @return The shared, read-only key table.
+     */
+    public static long[] keysFor(int size) {
+        long[] keys = TABLES.get(size);
+        if (keys == null) {
+            keys = generate(size);
+            long[] existing = TABLES.putIfAbsent(size, keys);
+            if (existing != null) {
+                keys = existing; // Another thread generated the same table first
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Gets the symmetric key table for a board size. Entry ((cell * 2 + colour) * 8 + s) is the
+     * key that a stone of that colour on that cell contributes to the hash of the position
+     * transformed by symmetry s, i.e. the plain key of the transformed cell. Entry s = 0 is the
+     * plain key, so hash 0 of a board equals its ordinary Zobrist hash.
+     * @param size The board dimension.
+     * @return The shared, read-only table.
+     */
+    public static long[] symmetricKeysFor(int size) {
+        long[] table = SYMMETRIC_TABLES.get(size);
+        if (table == null) {
+            long[] keys = keysFor(size);
+            int cells = size * size;
+            table = new long[cells * 2 * Symmetry.COUNT];
+            for (int cell = 0; cell < cells; cell++) {
+                for (int s = 0; s < Symmetry.COUNT; s++) {
+                    int mapped = Symmetry.transform(s, cell, size);
+                    table[(cell * 2) * Symmetry.COUNT + s] = keys[mapped * 2];
+                    table[(cell * 2 + 1) * Symmetry.COUNT + s] = keys[mapped * 2 + 1];
+                }
+            }
+            long[] existing = SYMMETRIC_TABLES.putIfAbsent(size, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Maps a player symbol to its key column: 0 for Black, 1 for White.
+     * @param symbol The player's symbol.
+     * @return The colour index.
+     */
+    public static int colourIndex(char symbol) {
+        return symbol == GameBoard.BLACK ? 0 : 1;
+    }
+
+    /**
+     * Generates the keys for one board size with a SplitMix64 sequence.
+     */
+    private static long[] generate(int size) {
+        long[] keys = new long[size * size * 2];
+        long state = SEED + size; // Different (but fixed) sequence per size
+        for (int i = 0; i < keys.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            long z = state;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            keys[i] = z ^ (z >>> 31);
+        }
+        return keys;
+    }
+}